@@ -9,6 +9,8 @@ public class Edge<N, D> implements Serializable {
 	private final Node<N> source;
 	private final Node<N> destination;
 	private final D data;
+	// Lazily cached hash code, recomputed after deserialisation
+	private transient int hash;
 
 	public Edge(Node<N> source, Node<N> destination, D data) {
 		this.source = source;
@@ -58,7 +60,12 @@ public class Edge<N, D> implements Serializable {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(source, destination, data);
+		int h = hash;
+		if (h == 0) {
+			h = Objects.hash(source, destination, data);
+			hash = h;
+		}
+		return h;
 	}
 
 	@Override
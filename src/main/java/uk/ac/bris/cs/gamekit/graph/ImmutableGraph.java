@@ -1,13 +1,18 @@
 package uk.ac.bris.cs.gamekit.graph;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
- * An immutable graph that does not allow adding new nodes or edges
+ * An immutable graph that does not allow adding new nodes or edges. Nodes and
+ * edges are copied from the source graph once at construction and indexed by
+ * insertion order, all collections returned are shared and never copied again.
  *
  * @param <V> the type for {@link Node} values
  * @param <D> the type for {@link Edge} data
@@ -17,11 +22,79 @@ public final class ImmutableGraph<V, D> extends AbstractGraph<V, D>
 		Graph<V, D>,
 		Serializable {
 
-	private static final long serialVersionUID = -54523690732483278L;
-	private final Graph<V, D> graph;
-
+	private static final long serialVersionUID = 4191725016863427032L;
+	private final Map<V, Integer> index;
+	private final List<Node<V>> nodes;
+	private final List<Edge<V, D>> edges;
+	private final List<List<Edge<V, D>>> edgesFrom;
+	private final List<List<Edge<V, D>>> edgesTo;
+	// Lazily cached hash code, recomputed after deserialisation
+	private transient int hash;
+
+	/**
+	 * Creates an immutable copy of the given graph, if the given graph is
+	 * already an {@link ImmutableGraph} the internal structures are shared
+	 * instead. See {@link #copyOf(Graph)} to avoid creating a new instance
+	 *
+	 * @param graph the graph to copy; not null
+	 */
 	public ImmutableGraph(Graph<V, D> graph) {
-		this.graph = Objects.requireNonNull(graph);
+		Objects.requireNonNull(graph);
+		if (graph instanceof ImmutableGraph) {
+			ImmutableGraph<V, D> that = (ImmutableGraph<V, D>) graph;
+			this.index = that.index;
+			this.nodes = that.nodes;
+			this.edges = that.edges;
+			this.edgesFrom = that.edgesFrom;
+			this.edgesTo = that.edgesTo;
+			this.hash = that.hash;
+			return;
+		}
+		List<Node<V>> nodes = graph.getNodes();
+		Map<V, Integer> index = new HashMap<>();
+		List<List<Edge<V, D>>> edgesFrom = new ArrayList<>(nodes.size());
+		List<List<Edge<V, D>>> edgesTo = new ArrayList<>(nodes.size());
+		for (Node<V> node : nodes) {
+			index.put(node.value(), index.size());
+			edgesFrom.add(frozen(graph.getEdgesFrom(node)));
+			edgesTo.add(frozen(graph.getEdgesTo(node)));
+		}
+		this.index = index;
+		this.nodes = frozen(nodes);
+		this.edges = frozen(graph.getEdges());
+		this.edgesFrom = Collections.unmodifiableList(edgesFrom);
+		this.edgesTo = Collections.unmodifiableList(edgesTo);
+	}
+
+	/**
+	 * Returns an immutable graph with the same content as the given graph,
+	 * the given graph itself is returned if it is already immutable
+	 *
+	 * @param graph the graph; not null
+	 * @param <V> the type for {@link Node} values
+	 * @param <D> the type for {@link Edge} data
+	 * @return the immutable graph; never null
+	 */
+	public static <V, D> ImmutableGraph<V, D> copyOf(Graph<V, D> graph) {
+		if (Objects.requireNonNull(graph) instanceof ImmutableGraph)
+			return (ImmutableGraph<V, D>) graph;
+		return new ImmutableGraph<>(graph);
+	}
+
+	private static <T> List<T> frozen(Collection<T> collection) {
+		return Collections.unmodifiableList(new ArrayList<>(collection));
+	}
+
+	/**
+	 * Finds the insertion index of the node with the given value, the index
+	 * matches the position of the node in {@link #getNodes()}
+	 *
+	 * @param value the value the node holds
+	 * @return the index or -1 if no node holds the value
+	 */
+	public int indexOf(V value) {
+		Integer i = index.get(value);
+		return i == null ? -1 : i;
 	}
 
 	@Override
@@ -38,47 +111,71 @@ public final class ImmutableGraph<V, D> extends AbstractGraph<V, D>
 
 	@Override
 	public Node<V> getNode(V value) {
-		return graph.getNode(value);
+		int i = indexOf(value);
+		return i == -1 ? null : nodes.get(i);
 	}
 
 	@Override
 	public boolean containsNode(V value) {
-		return graph.containsNode(value);
+		return index.containsKey(value);
 	}
 
 	@Override
 	public List<Node<V>> getNodes() {
-		return graph == null ? Collections.emptyList() : graph.getNodes();
+		return nodes;
 	}
 
 	@Override
 	public Collection<Edge<V, D>> getEdges() {
-		return graph.getEdges();
+		return edges;
 	}
 
 	@Override
 	public Collection<Edge<V, D>> getEdgesFrom(Node<V> source) {
-		return graph.getEdgesFrom(source);
+		int i = indexOf(source.value());
+		return i == -1 ? Collections.emptyList() : edgesFrom.get(i);
 	}
 
 	@Override
 	public Collection<Edge<V, D>> getEdgesTo(Node<V> destination) {
-		return graph.getEdgesTo(destination);
+		int i = indexOf(destination.value());
+		return i == -1 ? Collections.emptyList() : edgesTo.get(i);
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return graph.isEmpty();
+		return nodes.isEmpty();
 	}
 
 	@Override
 	public int size() {
-		return graph.size();
+		return nodes.size();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof ImmutableGraph) {
+			ImmutableGraph<?, ?> that = (ImmutableGraph<?, ?>) o;
+			// Copies of the same graph share their structures
+			if ((Object) nodes == that.nodes && (Object) edges == that.edges) return true;
+			if (hashCode() != that.hashCode()) return false;
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			h = super.hashCode();
+			hash = h;
+		}
+		return h;
 	}
 
 	@Override
 	public String toString() {
-		return "ImmutableGraph{" + graph + '}';
+		return "ImmutableGraph{" + "nodes=" + nodes + ", edges=" + edges + '}';
 	}
 
 }
@@ -12,6 +12,8 @@ public final class Node<V> implements Serializable{
 
 	private static final long serialVersionUID = 6923768108710951907L;
 	private final V value;
+	// Lazily cached hash code, recomputed after deserialisation
+	private transient int hash;
 
 	public Node(V value) {
 		this.value = Objects.requireNonNull(value);
@@ -34,7 +36,12 @@ public final class Node<V> implements Serializable{
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(value);
+		int h = hash;
+		if (h == 0) {
+			h = 31 + value.hashCode();
+			hash = h;
+		}
+		return h;
 	}
 
 	@Override
@@ -21,8 +21,15 @@ public final class UndirectedGraph<V, D> extends AbstractGraph<V, D> implements
 	private final Map<V, Node<V>> valueNodeMap = new LinkedHashMap<>();
 	private final Map<Node<V>, List<Edge<V, D>>> sourceEdges = new HashMap<>();
 	private final Map<Node<V>, List<Edge<V, D>>> destinationEdges = new HashMap<>();
+	private final List<Node<V>> nodes = new ArrayList<>();
 	private final List<Edge<V, D>> edges = new ArrayList<>();
 
+	// Read-only views are created once and reflect later additions
+	private final Map<Node<V>, List<Edge<V, D>>> sourceEdgeViews = new HashMap<>();
+	private final Map<Node<V>, List<Edge<V, D>>> destinationEdgeViews = new HashMap<>();
+	private final List<Node<V>> nodesView = Collections.unmodifiableList(nodes);
+	private final List<Edge<V, D>> edgesView = Collections.unmodifiableList(edges);
+
 	/**
 	 * Creates a new undirected graph
 	 */
@@ -42,8 +49,13 @@ public final class UndirectedGraph<V, D> extends AbstractGraph<V, D> implements
 		if (valueNodeMap.containsKey(node.value()))
 			throw new IllegalArgumentException(node + " is already in the graph");
 		valueNodeMap.put(node.value(), node);
-		sourceEdges.put(node, new ArrayList<>());
-		destinationEdges.put(node, new ArrayList<>());
+		nodes.add(node);
+		List<Edge<V, D>> source = new ArrayList<>();
+		List<Edge<V, D>> destination = new ArrayList<>();
+		sourceEdges.put(node, source);
+		destinationEdges.put(node, destination);
+		sourceEdgeViews.put(node, Collections.unmodifiableList(source));
+		destinationEdgeViews.put(node, Collections.unmodifiableList(destination));
 	}
 
 	/**
@@ -83,22 +95,22 @@ public final class UndirectedGraph<V, D> extends AbstractGraph<V, D> implements
 
 	@Override
 	public List<Node<V>> getNodes() {
-		return Collections.unmodifiableList(new ArrayList<>(valueNodeMap.values()));
+		return nodesView;
 	}
 
 	@Override
 	public Collection<Edge<V, D>> getEdges() {
-		return Collections.unmodifiableList(edges);
+		return edgesView;
 	}
 
 	@Override
 	public Collection<Edge<V, D>> getEdgesFrom(Node<V> source) {
-		return Collections.unmodifiableList(sourceEdges.get(source));
+		return sourceEdgeViews.getOrDefault(source, Collections.emptyList());
 	}
 
 	@Override
 	public Collection<Edge<V, D>> getEdgesTo(Node<V> destination) {
-		return Collections.unmodifiableList(destinationEdges.get(destination));
+		return destinationEdgeViews.getOrDefault(destination, Collections.emptyList());
 	}
 
 	@Override
@@ -0,0 +1,202 @@
+package uk.ac.bris.cs.gamekit.matrix;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Base for square matrices backed by a single flat row-major array, the cell
+ * at {@code (row, column)} is stored at index {@code row * size + column}.
+ * Subclasses own the primitive array and only add the accessors that avoid
+ * boxing
+ *
+ * @param <T> the boxed type of elements in the matrix
+ * @param <L> the type of rows, columns and diagonals returned by the matrix
+ */
+abstract class AbstractSquareMatrix<T, L extends List<T>> extends AbstractMatrix<T>
+		implements Serializable {
+
+	private static final long serialVersionUID = -2722059021318720427L;
+	final int size;
+
+	AbstractSquareMatrix(int size) {
+		if (size < 1) throw new IllegalArgumentException("Size must me > 0, got " + size);
+		this.size = size;
+	}
+
+	// The backing primitive array, bulk operations in this package work on it
+	// directly
+	abstract Object cells();
+
+	abstract T getAt(int index);
+
+	abstract void putAt(int index, T cell);
+
+	// A view of length cells starting at offset, stride apart
+	abstract L line(int offset, int stride, int length);
+
+	/**
+	 * @return the number of rows (and columns) of this matrix
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public T get(int row, int column) {
+		return getAt(index(row, column));
+	}
+
+	@Override
+	public void put(int row, int column, T cell) {
+		putAt(index(row, column), Objects.requireNonNull(cell));
+	}
+
+	@Override
+	public boolean inBounds(int row, int column) {
+		return (row >= 0 && row < size) && (column >= 0 && column < size);
+	}
+
+	@Override
+	public L row(int row) {
+		checkBound("row", row);
+		return line(row * size, 1, size);
+	}
+
+	@Override
+	public void row(int row, List<T> values) {
+		Objects.requireNonNull(values);
+		checkBound("row", row);
+		checkLength(values.size());
+		for (int i = 0; i < size; i++)
+			putAt(row * size + i, values.get(i));
+	}
+
+	@Override
+	public L column(int column) {
+		checkBound("column", column);
+		return line(column, size, size);
+	}
+
+	@Override
+	public void column(int column, List<T> values) {
+		Objects.requireNonNull(values);
+		checkBound("column", column);
+		checkLength(values.size());
+		for (int i = 0; i < size; i++)
+			putAt(i * size + column, values.get(i));
+	}
+
+	@Override
+	public L mainDiagonal() {
+		return line(0, size + 1, size);
+	}
+
+	@Override
+	public L antiDiagonal() {
+		return line(size - 1, size - 1, size);
+	}
+
+	@Override
+	public L asList() {
+		return line(0, 1, size * size);
+	}
+
+	@Override
+	public int count() {
+		return size * size;
+	}
+
+	@Override
+	public int columnSize() {
+		return size;
+	}
+
+	@Override
+	public int rowSize() {
+		return size;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o != null && o.getClass() == getClass()) {
+			AbstractSquareMatrix<?, ?> that = (AbstractSquareMatrix<?, ?>) o;
+			return size == that.size && Objects.deepEquals(cells(), that.cells());
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		// Same as AbstractMatrix.hashCode(), which is 31 + the list hash of the
+		// cells, without boxing every cell
+		return Arrays.deepHashCode(new Object[] { cells() });
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size * size; i++) {
+			if (i > 0) sb.append(i % size == 0 ? "\n" : ", ");
+			sb.append(getAt(i));
+		}
+		return sb.append(']').toString();
+	}
+
+	final int index(int row, int column) {
+		checkBound("row", row);
+		checkBound("column", column);
+		return row * size + column;
+	}
+
+	// Copies a primitive array of the backing array's type into a row
+	final void copyRow(int row, Object values, int length) {
+		checkBound("row", row);
+		checkLength(length);
+		System.arraycopy(values, 0, cells(), row * size, size);
+	}
+
+	final void checkBound(String name, int value) {
+		if (value < 0) throw new IndexOutOfBoundsException(name + " " + value + " < 0");
+		if (value >= size)
+			throw new IndexOutOfBoundsException(name + " " + value + " > " + (size - 1));
+	}
+
+	final void checkLength(int length) {
+		if (size != length) throw new IllegalArgumentException("size != value.size()");
+	}
+
+	/**
+	 * Base of the read-only views over a row, column or diagonal, subclasses
+	 * read the cell at {@link #index(int)} of the backing array
+	 *
+	 * @param <T> the boxed type of elements in the view
+	 */
+	abstract static class View<T> extends AbstractList<T> implements RandomAccess {
+
+		private final int offset;
+		private final int stride;
+		private final int length;
+
+		View(int offset, int stride, int length) {
+			this.offset = offset;
+			this.stride = stride;
+			this.length = length;
+		}
+
+		// The index in the backing array of the given position in this view
+		final int index(int index) {
+			Objects.checkIndex(index, length);
+			return offset + index * stride;
+		}
+
+		@Override
+		public int size() {
+			return length;
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package uk.ac.bris.cs.gamekit.matrix;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@code size*size} square matrix of {@code double} backed by a single flat
+ * row-major array. Rows, columns and diagonals are returned as views over the
+ * array and are never copied; use {@link #getDouble(int, int)} and
+ * {@link #put(int, int, double)} to avoid boxing
+ */
+public final class DoubleSquareMatrix extends AbstractSquareMatrix<Double, DoubleSquareMatrix.Line> {
+
+	private static final long serialVersionUID = 2185034651183052761L;
+	private final double[] cells;
+
+	/**
+	 * Creates a new {@code size*size} square matrix with default values
+	 *
+	 * @param size size of the size*size grid, must be &gt; 0
+	 * @param defaultValue initial value for all cells
+	 */
+	public DoubleSquareMatrix(int size, double defaultValue) {
+		super(size);
+		this.cells = new double[size * size];
+		if (defaultValue != 0) Arrays.fill(cells, defaultValue);
+	}
+
+	/**
+	 * Copy constructor
+	 *
+	 * @param matrix the matrix to copy from
+	 */
+	public DoubleSquareMatrix(DoubleSquareMatrix matrix) {
+		super(matrix.size);
+		this.cells = matrix.cells.clone();
+	}
+
+	@Override
+	double[] cells() {
+		return cells;
+	}
+
+	@Override
+	Double getAt(int index) {
+		return cells[index];
+	}
+
+	@Override
+	void putAt(int index, Double cell) {
+		cells[index] = cell;
+	}
+
+	@Override
+	Line line(int offset, int stride, int length) {
+		return new Line(offset, stride, length);
+	}
+
+	/**
+	 * Get the element at the specified location without boxing
+	 *
+	 * @param row the row of the element
+	 * @param column the column of the element
+	 * @return the element
+	 */
+	public double getDouble(int row, int column) {
+		return cells[index(row, column)];
+	}
+
+	/**
+	 * Set specified location to element without boxing
+	 *
+	 * @param row the row of the element
+	 * @param column the column of the element
+	 * @param cell the element
+	 */
+	public void put(int row, int column, double cell) {
+		cells[index(row, column)] = cell;
+	}
+
+	/**
+	 * Sets all cells to the given value
+	 *
+	 * @param value the value
+	 */
+	public void fill(double value) {
+		Arrays.fill(cells, value);
+	}
+
+	/**
+	 * Set the entire row with the given array
+	 *
+	 * @param row the row to set
+	 * @param values the elements; not null
+	 */
+	public void row(int row, double[] values) {
+		copyRow(row, values, Objects.requireNonNull(values).length);
+	}
+
+	/**
+	 * Set the entire column with the given array
+	 *
+	 * @param column the column to set
+	 * @param values the elements; not null
+	 */
+	public void column(int column, double[] values) {
+		Objects.requireNonNull(values);
+		checkBound("column", column);
+		checkLength(values.length);
+		for (int i = 0; i < size; i++)
+			cells[i * size + column] = values[i];
+	}
+
+	/**
+	 * A read-only view of a row, column or diagonal of an
+	 * {@link DoubleSquareMatrix}. Changes to the matrix are visible through the
+	 * view
+	 */
+	public final class Line extends View<Double> {
+
+		private Line(int offset, int stride, int length) {
+			super(offset, stride, length);
+		}
+
+		/**
+		 * Get the element at the given position without boxing
+		 *
+		 * @param index the position in this line
+		 * @return the element
+		 */
+		public double getDouble(int index) {
+			return cells[index(index)];
+		}
+
+		/**
+		 * Copies this line into a new array
+		 *
+		 * @return the elements of this line; never null
+		 */
+		public double[] toDoubleArray() {
+			double[] values = new double[size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = cells[index(i)];
+			return values;
+		}
+
+		@Override
+		public Double get(int index) {
+			return getDouble(index);
+		}
+	}
+
+}
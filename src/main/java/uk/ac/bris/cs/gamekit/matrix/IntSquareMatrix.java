@@ -0,0 +1,153 @@
+package uk.ac.bris.cs.gamekit.matrix;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@code size*size} square matrix of {@code int} backed by a single flat
+ * row-major array. Rows, columns and diagonals are returned as views over the
+ * array and are never copied; use {@link #getInt(int, int)} and
+ * {@link #put(int, int, int)} to avoid boxing
+ */
+public final class IntSquareMatrix extends AbstractSquareMatrix<Integer, IntSquareMatrix.Line> {
+
+	private static final long serialVersionUID = 6520744150424786371L;
+	private final int[] cells;
+
+	/**
+	 * Creates a new {@code size*size} square matrix with default values
+	 *
+	 * @param size size of the size*size grid, must be &gt; 0
+	 * @param defaultValue initial value for all cells
+	 */
+	public IntSquareMatrix(int size, int defaultValue) {
+		super(size);
+		this.cells = new int[size * size];
+		if (defaultValue != 0) Arrays.fill(cells, defaultValue);
+	}
+
+	/**
+	 * Copy constructor
+	 *
+	 * @param matrix the matrix to copy from
+	 */
+	public IntSquareMatrix(IntSquareMatrix matrix) {
+		super(matrix.size);
+		this.cells = matrix.cells.clone();
+	}
+
+	@Override
+	int[] cells() {
+		return cells;
+	}
+
+	@Override
+	Integer getAt(int index) {
+		return cells[index];
+	}
+
+	@Override
+	void putAt(int index, Integer cell) {
+		cells[index] = cell;
+	}
+
+	@Override
+	Line line(int offset, int stride, int length) {
+		return new Line(offset, stride, length);
+	}
+
+	/**
+	 * Get the element at the specified location without boxing
+	 *
+	 * @param row the row of the element
+	 * @param column the column of the element
+	 * @return the element
+	 */
+	public int getInt(int row, int column) {
+		return cells[index(row, column)];
+	}
+
+	/**
+	 * Set specified location to element without boxing
+	 *
+	 * @param row the row of the element
+	 * @param column the column of the element
+	 * @param cell the element
+	 */
+	public void put(int row, int column, int cell) {
+		cells[index(row, column)] = cell;
+	}
+
+	/**
+	 * Sets all cells to the given value
+	 *
+	 * @param value the value
+	 */
+	public void fill(int value) {
+		Arrays.fill(cells, value);
+	}
+
+	/**
+	 * Set the entire row with the given array
+	 *
+	 * @param row the row to set
+	 * @param values the elements; not null
+	 */
+	public void row(int row, int[] values) {
+		copyRow(row, values, Objects.requireNonNull(values).length);
+	}
+
+	/**
+	 * Set the entire column with the given array
+	 *
+	 * @param column the column to set
+	 * @param values the elements; not null
+	 */
+	public void column(int column, int[] values) {
+		Objects.requireNonNull(values);
+		checkBound("column", column);
+		checkLength(values.length);
+		for (int i = 0; i < size; i++)
+			cells[i * size + column] = values[i];
+	}
+
+	/**
+	 * A read-only view of a row, column or diagonal of an
+	 * {@link IntSquareMatrix}. Changes to the matrix are visible through the
+	 * view
+	 */
+	public final class Line extends View<Integer> {
+
+		private Line(int offset, int stride, int length) {
+			super(offset, stride, length);
+		}
+
+		/**
+		 * Get the element at the given position without boxing
+		 *
+		 * @param index the position in this line
+		 * @return the element
+		 */
+		public int getInt(int index) {
+			return cells[index(index)];
+		}
+
+		/**
+		 * Copies this line into a new array
+		 *
+		 * @return the elements of this line; never null
+		 */
+		public int[] toIntArray() {
+			int[] values = new int[size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = cells[index(i)];
+			return values;
+		}
+
+		@Override
+		public Integer get(int index) {
+			return getInt(index);
+		}
+	}
+
+}
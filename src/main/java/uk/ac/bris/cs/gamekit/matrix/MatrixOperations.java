@@ -0,0 +1,363 @@
+package uk.ac.bris.cs.gamekit.matrix;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk operations over the flat arrays of {@link IntSquareMatrix} and
+ * {@link DoubleSquareMatrix}. All loops walk the row-major arrays
+ * sequentially so the JIT is free to vectorise them.
+ *
+ * <br>
+ * Every operation writes into a caller supplied result so repeated use (e.g.
+ * propagating a probability vector every turn) does not allocate; passing
+ * {@code null} as the result allocates a new one. Instances obtained from
+ * {@link #parallel(ForkJoinPool)} split matrices with at least
+ * {@link #PARALLEL_THRESHOLD} rows across the given pool, smaller matrices
+ * are always processed on the calling thread.
+ */
+public final class MatrixOperations {
+
+	/**
+	 * The value treated as infinity by the min-plus (tropical) operations, sums
+	 * involving it stay infinite and sums of large finite values saturate at
+	 * it instead of overflowing
+	 */
+	public static final int INFINITY = Integer.MAX_VALUE;
+
+	/**
+	 * Matrices with fewer rows than this are never split across threads
+	 */
+	public static final int PARALLEL_THRESHOLD = 256;
+
+	// Rows handled by a single fork-join task
+	private static final int GRAIN = 64;
+
+	private static final MatrixOperations SEQUENTIAL = new MatrixOperations(null);
+
+	private final ForkJoinPool pool;
+
+	private MatrixOperations(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return operations that always run on the calling thread; never null
+	 */
+	public static MatrixOperations sequential() {
+		return SEQUENTIAL;
+	}
+
+	/**
+	 * @return operations that split large matrices across the common pool;
+	 *         never null
+	 */
+	public static MatrixOperations parallel() {
+		return parallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool the pool to split large matrices across; not null
+	 * @return operations that split large matrices across the given pool;
+	 *         never null
+	 */
+	public static MatrixOperations parallel(ForkJoinPool pool) {
+		return new MatrixOperations(Objects.requireNonNull(pool));
+	}
+
+	/**
+	 * Multiplies the matrix with a column vector, {@code result[i] = sum of
+	 * m[i][j] * vector[j]}
+	 *
+	 * @param m the matrix; not null
+	 * @param vector the column vector; not null
+	 * @param result the array to write to, or null to allocate one
+	 * @return the result; never null
+	 */
+	public double[] multiply(DoubleSquareMatrix m, double[] vector, double[] result) {
+		int size = m.size;
+		checkLength("vector", vector, size);
+		double[] out = result(result, size);
+		checkDistinct(vector, out);
+		double[] cells = m.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				double sum = 0;
+				for (int j = 0; j < size; j++)
+					sum += cells[row + j] * vector[j];
+				out[i] = sum;
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Multiplies a row vector with the matrix, {@code result[j] = sum of
+	 * vector[i] * m[i][j]}. With a row-stochastic transition matrix this
+	 * advances a probability distribution by one step
+	 *
+	 * @param vector the row vector; not null
+	 * @param m the matrix; not null
+	 * @param result the array to write to, or null to allocate one
+	 * @return the result; never null
+	 */
+	public double[] multiply(double[] vector, DoubleSquareMatrix m, double[] result) {
+		int size = m.size;
+		checkLength("vector", vector, size);
+		double[] out = result(result, size);
+		checkDistinct(vector, out);
+		double[] cells = m.cells();
+		// Split by output column so each task only writes its own slice
+		forRows(size, (from, to) -> {
+			for (int j = from; j < to; j++)
+				out[j] = 0;
+			for (int i = 0; i < size; i++) {
+				double v = vector[i];
+				if (v == 0) continue;
+				int row = i * size;
+				for (int j = from; j < to; j++)
+					out[j] += v * cells[row + j];
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Computes the min-plus (tropical) product of two matrices,
+	 * {@code result[i][j] = min of a[i][k] + b[k][j]}. With a matrix of
+	 * one-step distances this extends shortest paths by one step
+	 *
+	 * @param a the left matrix; not null
+	 * @param b the right matrix; not null
+	 * @param result the matrix to write to, must not be a or b, or null to
+	 *        allocate one
+	 * @return the result; never null
+	 */
+	public IntSquareMatrix minPlus(IntSquareMatrix a, IntSquareMatrix b, IntSquareMatrix result) {
+		int size = a.size;
+		if (b.size != size)
+			throw new IllegalArgumentException("size mismatch " + size + " != " + b.size);
+		IntSquareMatrix out = result == null ? new IntSquareMatrix(size, INFINITY) : result;
+		if (out.size != size)
+			throw new IllegalArgumentException("result size " + out.size + " != " + size);
+		if (out == a || out == b)
+			throw new IllegalArgumentException("result must not be an operand");
+		int[] left = a.cells();
+		int[] right = b.cells();
+		int[] cells = out.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				for (int j = 0; j < size; j++)
+					cells[row + j] = INFINITY;
+				for (int k = 0; k < size; k++) {
+					int x = left[row + k];
+					if (x == INFINITY) continue;
+					int other = k * size;
+					for (int j = 0; j < size; j++) {
+						int y = right[other + j];
+						if (y == INFINITY) continue;
+						int sum = add(x, y);
+						if (sum < cells[row + j]) cells[row + j] = sum;
+					}
+				}
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Computes the min-plus (tropical) product of the matrix with a column
+	 * vector, {@code result[i] = min of m[i][j] + vector[j]}
+	 *
+	 * @param m the matrix; not null
+	 * @param vector the column vector; not null
+	 * @param result the array to write to, or null to allocate one
+	 * @return the result; never null
+	 */
+	public int[] minPlus(IntSquareMatrix m, int[] vector, int[] result) {
+		int size = m.size;
+		checkLength("vector", vector, size);
+		int[] out = result(result, size);
+		checkDistinct(vector, out);
+		int[] cells = m.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				int min = INFINITY;
+				for (int j = 0; j < size; j++) {
+					int x = cells[row + j];
+					int y = vector[j];
+					if (x != INFINITY && y != INFINITY) min = Math.min(min, add(x, y));
+				}
+				out[i] = min;
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Sums every row of the matrix
+	 *
+	 * @param m the matrix; not null
+	 * @param result the array to write to, or null to allocate one
+	 * @return the row sums; never null
+	 */
+	public double[] rowSums(DoubleSquareMatrix m, double[] result) {
+		int size = m.size;
+		double[] out = result(result, size);
+		double[] cells = m.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				double sum = 0;
+				for (int j = 0; j < size; j++)
+					sum += cells[row + j];
+				out[i] = sum;
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Finds the minimum of every row of the matrix
+	 *
+	 * @param m the matrix; not null
+	 * @param result the array to write to, or null to allocate one
+	 * @return the row minima; never null
+	 */
+	public int[] rowMinima(IntSquareMatrix m, int[] result) {
+		int size = m.size;
+		int[] out = result(result, size);
+		int[] cells = m.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				int min = cells[row];
+				for (int j = 1; j < size; j++)
+					min = Math.min(min, cells[row + j]);
+				out[i] = min;
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Finds the maximum of every row of the matrix
+	 *
+	 * @param m the matrix; not null
+	 * @param result the array to write to, or null to allocate one
+	 * @return the row maxima; never null
+	 */
+	public int[] rowMaxima(IntSquareMatrix m, int[] result) {
+		int size = m.size;
+		int[] out = result(result, size);
+		int[] cells = m.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				int max = cells[row];
+				for (int j = 1; j < size; j++)
+					max = Math.max(max, cells[row + j]);
+				out[i] = max;
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Scales every row of the matrix so it sums to 1, rows summing to 0 are
+	 * left unchanged
+	 *
+	 * @param m the matrix to normalise in place; not null
+	 */
+	public void normaliseRows(DoubleSquareMatrix m) {
+		int size = m.size;
+		double[] cells = m.cells();
+		forRows(size, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int row = i * size;
+				double sum = 0;
+				for (int j = 0; j < size; j++)
+					sum += cells[row + j];
+				if (sum == 0) continue;
+				double scale = 1 / sum;
+				for (int j = 0; j < size; j++)
+					cells[row + j] *= scale;
+			}
+		});
+	}
+
+	// Adds two finite values, saturating at INFINITY (or MIN_VALUE) where the
+	// sum would wrap around
+	static int add(int x, int y) {
+		int sum = x + y;
+		// Overflowed if both operands have a different sign to the sum
+		if (((x ^ sum) & (y ^ sum)) < 0) return x < 0 ? Integer.MIN_VALUE : INFINITY;
+		return sum;
+	}
+
+	private void forRows(int size, Rows rows) {
+		if (pool == null || size < PARALLEL_THRESHOLD) rows.run(0, size);
+		else pool.invoke(new RowTask(rows, 0, size));
+	}
+
+	private static double[] result(double[] result, int size) {
+		if (result == null) return new double[size];
+		checkLength("result", result, size);
+		return result;
+	}
+
+	private static int[] result(int[] result, int size) {
+		if (result == null) return new int[size];
+		checkLength("result", result, size);
+		return result;
+	}
+
+	private static void checkLength(String name, double[] array, int size) {
+		if (Objects.requireNonNull(array).length != size)
+			throw new IllegalArgumentException(name + " length " + array.length + " != " + size);
+	}
+
+	private static void checkLength(String name, int[] array, int size) {
+		if (Objects.requireNonNull(array).length != size)
+			throw new IllegalArgumentException(name + " length " + array.length + " != " + size);
+	}
+
+	private static void checkDistinct(Object vector, Object result) {
+		if (vector == result)
+			throw new IllegalArgumentException("result must not be the input vector");
+	}
+
+	@FunctionalInterface
+	private interface Rows {
+		void run(int from, int to);
+	}
+
+	private static final class RowTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final transient Rows rows;
+		private final int from;
+		private final int to;
+
+		private RowTask(Rows rows, int from, int to) {
+			this.rows = rows;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= GRAIN) {
+				rows.run(from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new RowTask(rows, from, middle), new RowTask(rows, middle, to));
+		}
+	}
+
+}
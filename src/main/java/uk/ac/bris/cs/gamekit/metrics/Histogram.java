@@ -0,0 +1,206 @@
+package uk.ac.bris.cs.gamekit.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative long values, usually durations in
+ * nanoseconds. Values are counted in log-linear buckets: every power of two
+ * is split into {@value #SUB_BUCKETS} buckets, so percentiles are accurate to
+ * within 12.5% of the value regardless of its magnitude. Minimum, maximum and
+ * mean are exact.
+ *
+ * <br>
+ * Recording only touches a few atomic counters and is safe from any number
+ * of threads. {@link #snapshot()} does not stop concurrent recording, values
+ * recorded while a snapshot is taken may or may not be part of it.
+ */
+public final class Histogram {
+
+	static final int SUB_BITS = 3;
+	static final int SUB_BUCKETS = 1 << SUB_BITS;
+	// Buckets below SUB_BUCKETS hold a single value, every power of two from
+	// there up to 2^62 has SUB_BUCKETS buckets
+	static final int BUCKETS = (Long.SIZE - 1 - SUB_BITS + 1) * SUB_BUCKETS;
+
+	private final String name;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * @param name the name of the histogram; not null
+	 */
+	public Histogram(String name) {
+		this.name = requireNonNull(name);
+	}
+
+	/**
+	 * @return the name of the histogram; never null
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Records a value
+	 *
+	 * @param value the value, negative values are recorded as 0
+	 */
+	public void record(long value) {
+		if (value < 0) value = 0;
+		buckets.incrementAndGet(bucketOf(value));
+		sum.add(value);
+		if (value < min.get()) min.accumulateAndGet(value, Math::min);
+		if (value > max.get()) max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Records the time elapsed since the given time
+	 *
+	 * @param startNanos the start, as returned by {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Clears all recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets.set(i, 0);
+		sum.reset();
+		min.set(Long.MAX_VALUE);
+		max.set(Long.MIN_VALUE);
+	}
+
+	/**
+	 * @return the values recorded so far; never null
+	 */
+	public Snapshot snapshot() {
+		long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			count += counts[i];
+		}
+		return new Snapshot(name, counts, count, sum.sum(), min.get(), max.get());
+	}
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long lowestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+	}
+
+	static long highestValueOf(int bucket) {
+		return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowestValueOf(bucket + 1) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+
+	/**
+	 * An immutable copy of the values recorded by a {@link Histogram}
+	 */
+	public static final class Snapshot {
+
+		private final String name;
+		private final long[] counts;
+		private final long count;
+		private final long sum;
+		private final long min;
+		private final long max;
+
+		private Snapshot(String name, long[] counts, long count, long sum, long min, long max) {
+			this.name = name;
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.min = count == 0 ? 0 : min;
+			this.max = count == 0 ? 0 : max;
+		}
+
+		/**
+		 * @return the name of the histogram; never null
+		 */
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * @return the number of recorded values
+		 */
+		public long count() {
+			return count;
+		}
+
+		/**
+		 * @return the sum of all recorded values
+		 */
+		public long sum() {
+			return sum;
+		}
+
+		/**
+		 * @return the smallest recorded value, 0 if there are none
+		 */
+		public long min() {
+			return min;
+		}
+
+		/**
+		 * @return the largest recorded value, 0 if there are none
+		 */
+		public long max() {
+			return max;
+		}
+
+		/**
+		 * @return the mean of all recorded values, 0 if there are none
+		 */
+		public double mean() {
+			return count == 0 ? 0 : (double) sum / count;
+		}
+
+		/**
+		 * @param percentile the percentile, between 0 and 100
+		 * @return the highest value in the bucket the percentile falls into,
+		 *         never more than {@link #max()}; 0 if there are no values
+		 */
+		public long percentile(double percentile) {
+			if (percentile < 0 || percentile > 100)
+				throw new IllegalArgumentException("Percentile must be within 0..100, got " + percentile);
+			if (count == 0) return 0;
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) return Math.min(max, Math.max(min, highestValueOf(i)));
+			}
+			return max;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s count=%d mean=%.0f p50=%d p90=%d p99=%d max=%d",
+					name, count, mean(), percentile(50), percentile(90), percentile(99), max);
+		}
+	}
+
+}
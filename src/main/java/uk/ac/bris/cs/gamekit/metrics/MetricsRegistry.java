@@ -0,0 +1,99 @@
+package uk.ac.bris.cs.gamekit.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A set of named {@link Histogram}s. Histograms are created on first use and
+ * live as long as the registry, so callers can look one up once and keep it.
+ *
+ * <br>
+ * The AI pool records into {@link #global()}, the game model only records
+ * into a registry it is given. Names are dot separated with the component
+ * first, e.g. {@code model.validMoves}.
+ * Durations are in nanoseconds.
+ */
+public final class MetricsRegistry {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MetricsRegistry.class);
+	private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the registry shared by the whole application; never null
+	 */
+	public static MetricsRegistry global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * @param name the name of the histogram; not null
+	 * @return the histogram with the given name, created if it does not exist
+	 *         yet; never null
+	 */
+	public Histogram histogram(String name) {
+		Histogram histogram = histograms.get(requireNonNull(name));
+		return histogram != null ? histogram : histograms.computeIfAbsent(name, Histogram::new);
+	}
+
+	/**
+	 * @return a snapshot of every histogram by name, in order of name; never
+	 *         null
+	 */
+	public SortedMap<String, Histogram.Snapshot> snapshot() {
+		SortedMap<String, Histogram.Snapshot> snapshots = new TreeMap<>();
+		histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+		return Collections.unmodifiableSortedMap(snapshots);
+	}
+
+	/**
+	 * Clears the values of all histograms, the histograms themselves are kept
+	 */
+	public void reset() {
+		histograms.values().forEach(Histogram::reset);
+	}
+
+	/**
+	 * Logs every histogram that has values, one line each
+	 */
+	public void log() {
+		snapshot().values().forEach(snapshot -> {
+			if (snapshot.count() > 0) LOG.info("{}", snapshot);
+		});
+	}
+
+	/**
+	 * Logs every histogram periodically on a daemon thread until the returned
+	 * future is cancelled
+	 *
+	 * @param period the time between log lines, must be &gt; 0
+	 * @param unit the unit of the period; not null
+	 * @return the future for the scheduled logging; never null
+	 */
+	public ScheduledFuture<?> logEvery(long period, TimeUnit unit) {
+		if (period <= 0) throw new IllegalArgumentException("Period must be > 0, got " + period);
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "metrics-log");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Let the thread go once the logging has been cancelled
+		scheduler.setRemoveOnCancelPolicy(true);
+		scheduler.setKeepAliveTime(1, TimeUnit.SECONDS);
+		scheduler.allowCoreThreadTimeOut(true);
+		return scheduler.scheduleAtFixedRate(this::log, period, period, requireNonNull(unit));
+	}
+
+}
@@ -1,20 +1,22 @@
 package uk.ac.bris.cs.scotlandyard;
 
 import static java.lang.String.format;
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.stream.Stream;
-
-import com.google.common.collect.ImmutableMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
 import uk.ac.bris.cs.gamekit.graph.Graph;
-import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.matrix.IntSquareMatrix;
 import uk.ac.bris.cs.scotlandyard.ai.ResourceProvider;
 import uk.ac.bris.cs.scotlandyard.model.StandardGame;
 import uk.ac.bris.cs.scotlandyard.model.Ticket;
@@ -22,6 +24,13 @@ import uk.ac.bris.cs.scotlandyard.model.Transport;
 
 /**
  * Manager for static resources such as game map and graph
+ *
+ * <br>
+ * Resources are loaded on first access, each on its own task in the common
+ * pool so that images are decoded and text resources parsed in parallel.
+ * Headless users that only need the graph never decode any image, compute
+ * queries are answered by a shared {@link StandardResources}.
+ * {@link #startLoading()} starts loading everything the board needs up front.
  */
 public final class ResourceManager implements ResourceProvider {
 
@@ -31,39 +40,125 @@ public final class ResourceManager implements ResourceProvider {
 		ICON, MAP, UOB_LOGO
 	}
 
-	private Map<ImageResource, Image> imageResources;
-	private Map<Ticket, Image> ticketResources;
-	private Map<Integer, Entry<Integer, Integer>> mapCoordinates;
-	private Graph<Integer, Transport> graph;
+	private final Map<ImageResource, CompletableFuture<Image>> imageResources = new ConcurrentHashMap<>();
+	private final Map<Ticket, CompletableFuture<Image>> ticketResources = new ConcurrentHashMap<>();
+	private CompletableFuture<Map<Integer, Entry<Integer, Integer>>> mapCoordinates;
+	private CompletableFuture<Graph<Integer, Transport>> graph;
+	private CompletableFuture<StandardResources> resources;
+	private CompletableFuture<Void> ready;
+	private final Function<String, Image> images;
+
+	public ResourceManager() {
+		this(ResourceManager::loadImage);
+	}
+
+	// Images are loaded from their resource path with the given function,
+	// tests pass their own to watch loading without a toolkit
+	ResourceManager(Function<String, Image> images) {
+		this.images = Objects.requireNonNull(images);
+	}
+
+	/**
+	 * Starts loading all resources the board needs in the background, the
+	 * logo is still loaded on first access
+	 *
+	 * @return a future completing once the resources have been loaded, or
+	 *         exceptionally if any of them cannot be found; never null
+	 */
+	public synchronized CompletableFuture<Void> startLoading() {
+		if (ready == null) {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[Ticket.values().length + 4];
+			futures[0] = graph();
+			futures[1] = mapCoordinates();
+			futures[2] = image(ImageResource.MAP);
+			futures[3] = image(ImageResource.ICON);
+			for (Ticket ticket : Ticket.values())
+				futures[4 + ticket.ordinal()] = ticket(ticket);
+			ready = CompletableFuture.allOf(futures);
+		}
+		return ready;
+	}
 
 	/**
-	 * Loads all resources into memory <br>
+	 * Loads all resources the board needs into memory, in parallel <br>
 	 * This should be called before any resources are required
 	 *
 	 * @throws IOException if any of the resources cannot be found
 	 */
 	public void loadAllResources() throws IOException {
+		try {
+			startLoading().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException)
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			throw e;
+		}
+	}
 
-		// shared images
-		imageResources = ImmutableMap.of(
-				ImageResource.MAP, loadImage("/map_large.png"),
-				ImageResource.UOB_LOGO, loadImage("/uob_logo.png"),
-				ImageResource.ICON, loadImage("/icon.png"));
+	private synchronized CompletableFuture<Graph<Integer, Transport>> graph() {
+		if (graph == null) graph = CompletableFuture.supplyAsync(() -> {
+			try {
+				return StandardGame.standardGraph();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return graph;
+	}
 
-		ticketResources = ImmutableMap.copyOf(Stream.of(Ticket.values()).collect(toMap(
-				identity(),
-				ticket -> loadImage(format("/tickets/%s.png", ticket.name().toLowerCase())))));
+	private synchronized CompletableFuture<Map<Integer, Entry<Integer, Integer>>> mapCoordinates() {
+		if (mapCoordinates == null) mapCoordinates = CompletableFuture.supplyAsync(() -> {
+			try {
+				return StandardGame.pngMapPositionEntries();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return mapCoordinates;
+	}
 
-		mapCoordinates = ImmutableMap.copyOf(StandardGame.pngMapPositionEntries());
-		graph = new ImmutableGraph<>(StandardGame.standardGraph());
+	private synchronized CompletableFuture<StandardResources> resources() {
+		if (resources == null)
+			resources = graph().thenCombine(mapCoordinates(), StandardResources::new);
+		return resources;
 	}
 
+	private CompletableFuture<Image> image(ImageResource resource) {
+		return imageResources.computeIfAbsent(resource,
+				r -> CompletableFuture.supplyAsync(() -> images.apply(pathOf(r))));
+	}
+
+	private CompletableFuture<Image> ticket(Ticket ticket) {
+		return ticketResources.computeIfAbsent(ticket,
+				t -> CompletableFuture.supplyAsync(() -> images.apply(
+						format("/tickets/%s.png", t.name().toLowerCase()))));
+	}
+
+	// Decodes on the calling thread, images can be created on any thread. A
+	// missing image fails like the text resources do rather than with the
+	// IllegalArgumentException of Image
 	private static Image loadImage(String path) {
+		if (ResourceManager.class.getResource(path) == null)
+			throw new UncheckedIOException(
+					new FileNotFoundException("Resource " + path + " not found"));
 		return new Image(path, -1, -1, true, true, false);
 	}
 
+	private static String pathOf(ImageResource resource) {
+		switch (resource) {
+			case MAP:
+				return "/map_large.png";
+			case UOB_LOGO:
+				return "/uob_logo.png";
+			case ICON:
+				return "/icon.png";
+			default:
+				throw new IllegalArgumentException("Unknown resource " + resource);
+		}
+	}
+
 	public Image getImage(ImageResource resource) {
-		return imageResources.get(resource);
+		return image(resource).join();
 	}
 
 	@Override
@@ -73,18 +168,27 @@ public final class ResourceManager implements ResourceProvider {
 
 	@Override
 	public Image getTicket(Ticket ticket) {
-		return ticketResources.get(ticket);
+		return ticket(ticket).join();
 	}
 
 	@Override
 	public Graph<Integer, Transport> getGraph() {
-		return graph;
+		return graph().join();
+	}
+
+	@Override
+	public int coordinateX(int node) {
+		return resources().join().coordinateX(node);
+	}
+
+	@Override
+	public int coordinateY(int node) {
+		return resources().join().coordinateY(node);
 	}
 
 	@Override
-	public Point2D coordinateAtNode(int node) {
-		Entry<Integer, Integer> entry = mapCoordinates.get(node);
-		return new Point2D(entry.getKey(), entry.getValue());
+	public IntSquareMatrix distances() {
+		return resources().join().distances();
 	}
 
 }
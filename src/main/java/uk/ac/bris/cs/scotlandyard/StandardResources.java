@@ -0,0 +1,114 @@
+package uk.ac.bris.cs.scotlandyard;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+import uk.ac.bris.cs.gamekit.matrix.IntSquareMatrix;
+import uk.ac.bris.cs.gamekit.matrix.MatrixOperations;
+import uk.ac.bris.cs.scotlandyard.ai.ComputeResourceProvider;
+import uk.ac.bris.cs.scotlandyard.model.StandardGame;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * The standard game's graph and map coordinates, without any images. Use
+ * {@link #load()} in headless runs, {@link ResourceManager} shares an
+ * instance with the UI.
+ */
+public final class StandardResources implements ComputeResourceProvider {
+
+	private final ImmutableGraph<Integer, Transport> graph;
+	// Coordinates indexed by node, -1 for nodes without one
+	private final int[] x;
+	private final int[] y;
+	private IntSquareMatrix distances;
+
+	/**
+	 * @param graph the graph; not null
+	 * @param coordinates the coordinates of the nodes on the map image; not
+	 *        null
+	 */
+	public StandardResources(Graph<Integer, Transport> graph,
+			Map<Integer, Entry<Integer, Integer>> coordinates) {
+		this.graph = ImmutableGraph.copyOf(requireNonNull(graph));
+		int size = 0;
+		for (Integer node : requireNonNull(coordinates).keySet())
+			size = Math.max(size, node + 1);
+		this.x = new int[size];
+		this.y = new int[size];
+		Arrays.fill(x, -1);
+		Arrays.fill(y, -1);
+		coordinates.forEach((node, coordinate) -> {
+			x[node] = coordinate.getKey();
+			y[node] = coordinate.getValue();
+		});
+	}
+
+	/**
+	 * Reads the standard graph and map coordinates
+	 *
+	 * @return the resources; never null
+	 * @throws IOException if any of the resources cannot be found
+	 */
+	public static StandardResources load() throws IOException {
+		return new StandardResources(StandardGame.standardGraph(),
+				StandardGame.pngMapPositionEntries());
+	}
+
+	@Override
+	public Graph<Integer, Transport> getGraph() {
+		return graph;
+	}
+
+	@Override
+	public int coordinateX(int node) {
+		return node >= 0 && node < x.length ? x[node] : -1;
+	}
+
+	@Override
+	public int coordinateY(int node) {
+		return node >= 0 && node < y.length ? y[node] : -1;
+	}
+
+	@Override
+	public IntSquareMatrix distances() {
+		synchronized (this) {
+			if (distances == null) distances = computeDistances();
+		}
+		return new IntSquareMatrix(distances);
+	}
+
+	// Breadth first search from every node
+	private IntSquareMatrix computeDistances() {
+		List<Node<Integer>> nodes = graph.getNodes();
+		int size = nodes.size();
+		IntSquareMatrix matrix = new IntSquareMatrix(size, MatrixOperations.INFINITY);
+		int[] queue = new int[size];
+		int[] row = new int[size];
+		for (int source = 0; source < size; source++) {
+			Arrays.fill(row, MatrixOperations.INFINITY);
+			row[source] = 0;
+			queue[0] = source;
+			for (int head = 0, tail = 1; head < tail; head++) {
+				int i = queue[head];
+				for (Edge<Integer, Transport> edge : graph.getEdgesFrom(nodes.get(i))) {
+					int j = graph.indexOf(edge.destination().value());
+					if (row[j] != MatrixOperations.INFINITY) continue;
+					row[j] = row[i] + 1;
+					queue[tail++] = j;
+				}
+			}
+			matrix.row(source, row);
+		}
+		return matrix;
+	}
+
+}
@@ -4,14 +4,27 @@ import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.counting;
 import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.MoreObjects;
 
@@ -24,6 +37,24 @@ import uk.ac.bris.cs.scotlandyard.ai.ManagedAI.VisualiserType;
  */
 public final class AI {
 
+	/**
+	 * Resource listing the binary names of the {@link ManagedAI} classes in a
+	 * jar or class directory, one per line; written at compile time by
+	 * {@link ManagedAIProcessor}
+	 */
+	public static final String INDEX = "META-INF/scotlandyard/managed-ai";
+
+	/**
+	 * System property with the comma separated packages to scan for
+	 * {@link ManagedAI} classes compiled without {@link ManagedAIProcessor},
+	 * defaults to {@value #DEFAULT_PACKAGES}
+	 */
+	public static final String PACKAGES_PROPERTY = "scotlandyard.ai.packages";
+
+	private static final String DEFAULT_PACKAGES = "uk.ac.bris.cs.scotlandyard";
+
+	private static final Logger LOG = LoggerFactory.getLogger(AI.class);
+
 	private final String name;
 	private final VisualiserType type;
 	private final Class<? extends PlayerFactory> factoryClass;
@@ -90,21 +121,19 @@ public final class AI {
 				       .toString();
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Finds all {@link ManagedAI} classes, those listed in any {@link #INDEX}
+	 * on the classpath along with those found by scanning the packages given
+	 * by {@link #PACKAGES_PROPERTY}. Listed classes that cannot be loaded,
+	 * e.g. stale entries of deleted classes, are logged and skipped.
+	 *
+	 * @return the AIs; never null
+	 */
 	public static List<AI> scanClasspath() {
-		List<String> annotated = new FastClasspathScanner().scan()
-				.getNamesOfClassesWithAnnotation(ManagedAI.class);
-		List<AI> ais = annotated.stream().map(c -> {
-			try {
-				Class<?> clazz = Class.forName(c);
-				if (!PlayerFactory.class.isAssignableFrom(clazz))
-					throw new IllegalArgumentException(
-							c + " does not implement " + PlayerFactory.class);
-				return new AI(clazz.getAnnotation(ManagedAI.class), (Class<PlayerFactory>) clazz);
-			} catch (ClassNotFoundException e) {
-				throw new RuntimeException(e);
-			}
-		}).collect(toList());
+		ClassLoader loader = AI.class.getClassLoader();
+		Set<String> names = readIndex(loader);
+		names.addAll(scanPackages());
+		List<AI> ais = load(names, loader);
 		Map<AI, Long> map = ais.stream().collect(groupingBy(identity(), counting()));
 		Map<AI, Long> histogram = map.entrySet().stream().filter(e -> e.getValue() > 1)
 				.collect(toMap(Entry::getKey, Entry::getValue));
@@ -115,4 +144,53 @@ public final class AI {
 		return ais;
 	}
 
+	// The names in every index visible to the loader, the same class may be
+	// listed by more than one index
+	static Set<String> readIndex(ClassLoader loader) {
+		try {
+			Enumeration<URL> indices = loader.getResources(INDEX);
+			Set<String> names = new LinkedHashSet<>();
+			while (indices.hasMoreElements()) {
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+						indices.nextElement().openStream(), StandardCharsets.UTF_8))) {
+					reader.lines().map(String::trim).filter(line -> !line.isEmpty())
+							.forEach(names::add);
+				}
+			}
+			return names;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read " + INDEX, e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static List<AI> load(Collection<String> names, ClassLoader loader) {
+		List<AI> ais = new ArrayList<>();
+		for (String name : names) {
+			Class<?> clazz;
+			try {
+				clazz = Class.forName(name, true, loader);
+			} catch (ClassNotFoundException | LinkageError e) {
+				LOG.warn("Skipping AI {}, the class cannot be loaded", name, e);
+				continue;
+			}
+			ManagedAI ai = clazz.getAnnotation(ManagedAI.class);
+			if (ai == null || !PlayerFactory.class.isAssignableFrom(clazz)) {
+				LOG.warn("Skipping AI {}, it is not a PlayerFactory annotated with @ManagedAI",
+						name);
+				continue;
+			}
+			ais.add(new AI(ai, (Class<PlayerFactory>) clazz));
+		}
+		return ais;
+	}
+
+	private static List<String> scanPackages() {
+		String[] packages = System.getProperty(PACKAGES_PROPERTY, DEFAULT_PACKAGES).split(",");
+		for (int i = 0; i < packages.length; i++)
+			packages[i] = packages[i].trim();
+		return new FastClasspathScanner(packages).scan()
+				.getNamesOfClassesWithAnnotation(ManagedAI.class);
+	}
+
 }
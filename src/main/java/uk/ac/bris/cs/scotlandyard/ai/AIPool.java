@@ -3,27 +3,46 @@ package uk.ac.bris.cs.scotlandyard.ai;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.common.collect.ImmutableSet;
 
+import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.matrix.IntSquareMatrix;
+import uk.ac.bris.cs.gamekit.metrics.Histogram;
+import uk.ac.bris.cs.gamekit.metrics.MetricsRegistry;
 import uk.ac.bris.cs.scotlandyard.ResourceManager;
 import uk.ac.bris.cs.scotlandyard.model.Colour;
 import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.MoveOrder;
 import uk.ac.bris.cs.scotlandyard.model.Player;
 import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGame;
 import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.StandardGame;
+import uk.ac.bris.cs.scotlandyard.model.Ticket;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
 
 /**
  * <b> Not a public API, do not use!</b> <br>
@@ -35,13 +54,86 @@ import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
  */
 public class AIPool<G> {
 
+	/**
+	 * System property holding the default soft think time budget per move in
+	 * milliseconds, see {@link #setBudgets(long, long, TimeUnit)}
+	 */
+	public static final String SOFT_BUDGET_PROPERTY = "scotlandyard.ai.budget.soft";
+	/**
+	 * System property holding the default hard think time budget per move in
+	 * milliseconds, see {@link #setBudgets(long, long, TimeUnit)}
+	 */
+	public static final String HARD_BUDGET_PROPERTY = "scotlandyard.ai.budget.hard";
+
+	private static final Logger LOG = LoggerFactory.getLogger(AIPool.class);
+
 	private final VisualiserSurface surface;
 	private final Consumer<Throwable> exceptionHandler;
 	private final Map<G, AIGroup> groups = new HashMap<>();
+	// Think time budgets per move in nanoseconds, 0 for none
+	private long softBudget;
+	private long hardBudget;
+	// The game seed in deterministic mode, null otherwise
+	private Long seed;
 
+	/**
+	 * Creates a pool with the budgets given by {@value #SOFT_BUDGET_PROPERTY}
+	 * and {@value #HARD_BUDGET_PROPERTY}, none if they are not set
+	 *
+	 * @param surface the surface for visualisers of AIs
+	 * @param exceptionHandler the handler of exceptions thrown by AIs
+	 */
 	public AIPool(VisualiserSurface surface, Consumer<Throwable> exceptionHandler) {
 		this.surface = surface;
 		this.exceptionHandler = exceptionHandler;
+		setBudgets(Long.getLong(SOFT_BUDGET_PROPERTY, 0), Long.getLong(HARD_BUDGET_PROPERTY, 0),
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sets the think time budgets for every move of players created
+	 * afterwards. Moves over the soft budget are logged and counted.
+	 *
+	 * <br>
+	 * Moves over the hard budget are cut off: the AI is interrupted, the
+	 * overrun is logged and counted, and the game goes on with the first of
+	 * the given moves in {@link MoveOrder#CANONICAL} order played in its
+	 * place, so a stuck AI forfeits its move instead of stalling the game. A
+	 * move the AI makes after that is dropped.
+	 *
+	 * @param soft the soft budget, 0 for none
+	 * @param hard the hard budget, 0 for none
+	 * @param unit the unit of the budgets; not null
+	 */
+	public void setBudgets(long soft, long hard, TimeUnit unit) {
+		if (soft < 0 || hard < 0)
+			throw new IllegalArgumentException("Budgets must be >= 0, got " + soft + " and " + hard);
+		if (soft != 0 && hard != 0 && soft > hard)
+			throw new IllegalArgumentException("Soft budget " + soft + " exceeds hard budget " + hard);
+		this.softBudget = unit.toNanos(soft);
+		this.hardBudget = unit.toNanos(hard);
+	}
+
+	/**
+	 * Makes games deterministic from now on: players are given their moves in
+	 * {@link MoveOrder#CANONICAL} order and {@link ComputeResourceProvider#random(Colour)}
+	 * is seeded from the game seed. Must be called before
+	 * {@link #initialise(ResourceManager, ScotlandYardGame)}. Moves cut off by
+	 * the hard budget still depend on timing.
+	 *
+	 * @param seed the game seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @return the resources used so far by every initialised AI; never null
+	 */
+	public Map<AI, AIUsage> usage() {
+		Map<AI, AIUsage> usage = new LinkedHashMap<>();
+		groups.values().forEach(group -> usage.putAll(group.usage));
+		return Collections.unmodifiableMap(usage);
 	}
 
 	public void addToGroup(G group, Colour colour, AI ai) {
@@ -94,6 +186,7 @@ public class AIPool<G> {
 
 		private final Map<Colour, AI> ais = new HashMap<>();
 		private Map<AI, PlayerFactory> factories = new HashMap<>();
+		private final Map<AI, AIUsage> usage = new HashMap<>();
 
 		void add(Colour colour, AI ai) {
 			ais.put(colour, ai);
@@ -104,22 +197,78 @@ public class AIPool<G> {
 					.distinct()
 					.collect(toMap(Function.identity(), AI::instantiate));
 			factories.forEach((ai, factory) -> {
+				usage.put(ai, new AIUsage());
 				factory.createSpectators(game).forEach(game::registerSpectator);
 				Pane pane = surface.onCreate(ai);
-				factory.ready(() -> pane, manager);
+				factory.ready(() -> pane, seed == null ? manager : new SeededResources(manager, seed));
 			});
 		}
 
 		void terminate() throws Exception {
-			factories.values().forEach(PlayerFactory::finish);
+			factories.forEach((ai, factory) -> {
+				LOG.info("{}: {}", ai.getName(), usage.get(ai));
+				factory.finish();
+			});
 		}
 
 		public Optional<Player> createPlayer(Colour colour) {
 			if (!ais.containsKey(colour)) return Optional.empty();
+			AI ai = ais.get(colour);
 			return Optional.of(
 					new ThreadedPlayer(
-							factories.get(ais.get(colour)).createPlayer(colour),
-							exceptionHandler));
+							factories.get(ai).createPlayer(colour),
+							exceptionHandler,
+							MetricsRegistry.global().histogram("ai.think." + colour),
+							usage.get(ai), ai.getName() + "(" + colour + ")",
+							softBudget, hardBudget, seed != null));
+		}
+
+	}
+
+	// Resources of a deterministic game, random sources are seeded
+	private static final class SeededResources implements ResourceProvider {
+
+		private final ResourceProvider resources;
+		private final long seed;
+
+		SeededResources(ResourceProvider resources, long seed) {
+			this.resources = resources;
+			this.seed = seed;
+		}
+
+		@Override
+		public Image getMap() {
+			return resources.getMap();
+		}
+
+		@Override
+		public Image getTicket(Ticket ticket) {
+			return resources.getTicket(ticket);
+		}
+
+		@Override
+		public Graph<Integer, Transport> getGraph() {
+			return resources.getGraph();
+		}
+
+		@Override
+		public int coordinateX(int node) {
+			return resources.coordinateX(node);
+		}
+
+		@Override
+		public int coordinateY(int node) {
+			return resources.coordinateY(node);
+		}
+
+		@Override
+		public IntSquareMatrix distances() {
+			return resources.distances();
+		}
+
+		@Override
+		public Random random(Colour colour) {
+			return StandardGame.generatePlayerRandom(seed, colour);
 		}
 
 	}
@@ -127,13 +276,35 @@ public class AIPool<G> {
 	static class ThreadedPlayer implements Player {
 
 		final static ExecutorService service = Executors.newWorkStealingPool();
+		// Cuts off moves that run over the hard budget
+		final static ScheduledExecutorService watchdog = Executors
+				.newSingleThreadScheduledExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "ai-watchdog");
+					thread.setDaemon(true);
+					return thread;
+				});
 
 		private final Player player;
 		private final Consumer<Throwable> exceptionHandler;
+		// Time from being asked for a move until the move is made, in nanoseconds
+		private final Histogram thinkTime;
+		private final AIUsage usage;
+		private final String name;
+		private final long softBudget;
+		private final long hardBudget;
+		private final boolean canonical;
 
-		private ThreadedPlayer(Player player, Consumer<Throwable> exceptionHandler) {
+		ThreadedPlayer(Player player, Consumer<Throwable> exceptionHandler,
+				Histogram thinkTime, AIUsage usage, String name,
+				long softBudget, long hardBudget, boolean canonical) {
 			this.player = player;
 			this.exceptionHandler = exceptionHandler;
+			this.thinkTime = thinkTime;
+			this.usage = usage;
+			this.name = name;
+			this.softBudget = softBudget;
+			this.hardBudget = hardBudget;
+			this.canonical = canonical;
 		}
 
 		@Override
@@ -141,15 +312,73 @@ public class AIPool<G> {
 				int location,
 				Set<Move> moves,
 				Consumer<Move> callback) {
+			long start = System.nanoTime();
+			// Set once the move is made or cut off, whichever happens first
+			AtomicBoolean done = new AtomicBoolean();
+			Consumer<Move> timed = move -> {
+				if (!done.compareAndSet(false, true)) {
+					LOG.warn("{} made a move after its hard budget, dropped", name);
+					return;
+				}
+				long wall = System.nanoTime() - start;
+				thinkTime.record(wall);
+				usage.recordMove(wall);
+				if (softBudget != 0 && wall > softBudget) {
+					usage.recordSoftOverrun();
+					LOG.warn("{} took {}ms, over its soft budget of {}ms", name,
+							TimeUnit.NANOSECONDS.toMillis(wall),
+							TimeUnit.NANOSECONDS.toMillis(softBudget));
+				}
+				callback.accept(move);
+			};
+			// The pool thread running the move, if it is still running
+			AtomicReference<Thread> worker = new AtomicReference<>();
+			Set<Move> given = ImmutableSet.copyOf(canonical ? MoveOrder.sorted(moves) : moves);
 			service.submit((Callable<Void>) () -> {
+				// Published before checking whether the move was cut off, so a
+				// watchdog firing after the check always finds the thread
+				worker.set(Thread.currentThread());
 				try {
-					player.makeMove(view, location, ImmutableSet.copyOf(moves), callback);
-				} catch (Throwable e) {
-					e.printStackTrace();
-					exceptionHandler.accept(e);
+					if (!done.get()) think(view, location, given, timed);
+				} finally {
+					synchronized (worker) {
+						worker.set(null);
+						// Do not leave an interrupt meant for this move behind
+						Thread.interrupted();
+					}
 				}
 				return null;
 			});
+			if (hardBudget != 0) {
+				watchdog.schedule(() -> {
+					if (!done.compareAndSet(false, true)) return;
+					usage.recordHardOverrun();
+					// Cancelling the pool's task would not interrupt it
+					synchronized (worker) {
+						Thread thread = worker.get();
+						if (thread != null) thread.interrupt();
+					}
+					Move fallback = MoveOrder.sorted(given).iterator().next();
+					LOG.warn("{} did not move within {}ms, playing {} instead", name,
+							TimeUnit.NANOSECONDS.toMillis(hardBudget), fallback);
+					callback.accept(fallback);
+				}, hardBudget, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		private void think(ScotlandYardView view, int location, Set<Move> moves,
+				Consumer<Move> callback) {
+			long cpu = AIUsage.currentThreadCpuTime();
+			long allocated = AIUsage.currentThreadAllocatedBytes();
+			try {
+				player.makeMove(view, location, moves, callback);
+			} catch (Throwable e) {
+				e.printStackTrace();
+				exceptionHandler.accept(e);
+			} finally {
+				usage.recordWork(AIUsage.currentThreadCpuTime() - cpu,
+						AIUsage.currentThreadAllocatedBytes() - allocated);
+			}
 		}
 	}
 
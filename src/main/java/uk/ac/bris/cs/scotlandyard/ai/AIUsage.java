@@ -0,0 +1,124 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <b> Not a public API, do not use!</b> <br>
+ * Resources used by an AI over a game, as accounted by {@link AIPool}. Wall
+ * time runs from asking for a move until the move is made. CPU time and
+ * allocated bytes only cover the pool thread the AI is asked on, work the AI
+ * hands to threads of its own is not accounted. Both are -1 if the JVM does
+ * not support measuring them.
+ */
+public final class AIUsage {
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+	private static final boolean ALLOCATION = THREADS instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+
+	private final LongAdder moves = new LongAdder();
+	private final LongAdder wallNanos = new LongAdder();
+	private final AtomicLong maxWallNanos = new AtomicLong();
+	private final LongAdder cpuNanos = new LongAdder();
+	private final LongAdder allocatedBytes = new LongAdder();
+	private final LongAdder softOverruns = new LongAdder();
+	private final LongAdder hardOverruns = new LongAdder();
+
+	// CPU time of the current thread in nanoseconds, -1 if not supported
+	static long currentThreadCpuTime() {
+		return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	// Bytes allocated by the current thread so far, -1 if not supported
+	static long currentThreadAllocatedBytes() {
+		return ALLOCATION ? ((com.sun.management.ThreadMXBean) THREADS)
+				.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+	}
+
+	void recordMove(long wallNanos) {
+		moves.increment();
+		this.wallNanos.add(wallNanos);
+		if (wallNanos > maxWallNanos.get()) maxWallNanos.accumulateAndGet(wallNanos, Math::max);
+	}
+
+	void recordWork(long cpuNanos, long allocatedBytes) {
+		this.cpuNanos.add(cpuNanos);
+		this.allocatedBytes.add(allocatedBytes);
+	}
+
+	void recordSoftOverrun() {
+		softOverruns.increment();
+	}
+
+	void recordHardOverrun() {
+		hardOverruns.increment();
+	}
+
+	/**
+	 * @return the number of moves made
+	 */
+	public long moves() {
+		return moves.sum();
+	}
+
+	/**
+	 * @return the total wall time of all moves in nanoseconds
+	 */
+	public long wallNanos() {
+		return wallNanos.sum();
+	}
+
+	/**
+	 * @return the wall time of the slowest move in nanoseconds
+	 */
+	public long maxWallNanos() {
+		return maxWallNanos.get();
+	}
+
+	/**
+	 * @return the total CPU time in nanoseconds, -1 if not supported
+	 */
+	public long cpuNanos() {
+		return CPU_TIME ? cpuNanos.sum() : -1;
+	}
+
+	/**
+	 * @return the total number of bytes allocated, -1 if not supported
+	 */
+	public long allocatedBytes() {
+		return ALLOCATION ? allocatedBytes.sum() : -1;
+	}
+
+	/**
+	 * @return the number of moves that took longer than the soft budget
+	 */
+	public long softOverruns() {
+		return softOverruns.sum();
+	}
+
+	/**
+	 * @return the number of moves that were cut off at the hard budget
+	 */
+	public long hardOverruns() {
+		return hardOverruns.sum();
+	}
+
+	@Override
+	public String toString() {
+		long moves = moves();
+		return "AIUsage{" + "moves=" + moves
+				+ ", wall=" + TimeUnit.NANOSECONDS.toMillis(wallNanos()) + "ms"
+				+ ", meanWall=" + (moves == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(wallNanos() / moves)) + "ms"
+				+ ", maxWall=" + TimeUnit.NANOSECONDS.toMillis(maxWallNanos()) + "ms"
+				+ ", cpu=" + (CPU_TIME ? TimeUnit.NANOSECONDS.toMillis(cpuNanos()) + "ms" : "n/a")
+				+ ", allocated=" + (ALLOCATION ? allocatedBytes() / 1024 + "KiB" : "n/a")
+				+ ", softOverruns=" + softOverruns()
+				+ ", hardOverruns=" + hardOverruns() + '}';
+	}
+
+}
@@ -0,0 +1,65 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import java.util.Random;
+
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.matrix.IntSquareMatrix;
+import uk.ac.bris.cs.gamekit.matrix.MatrixOperations;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.StandardGame;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * Resources for AIs that only compute, without any JavaFX types so that
+ * headless runs never load the toolkit. {@link ResourceProvider} adds the
+ * images and points for AIs that draw.
+ */
+public interface ComputeResourceProvider {
+
+	/**
+	 * Retrieves an immutable copy of the game graph that is identical to the
+	 * current game
+	 *
+	 * @return the game graph; never null
+	 */
+	Graph<Integer, Transport> getGraph();
+
+	/**
+	 * @param node the node
+	 * @return the x coordinate of the node on the map image, -1 if the node is
+	 *         not found
+	 */
+	int coordinateX(int node);
+
+	/**
+	 * @param node the node
+	 * @return the y coordinate of the node on the map image, -1 if the node is
+	 *         not found
+	 */
+	int coordinateY(int node);
+
+	/**
+	 * The number of moves between every pair of nodes regardless of tickets,
+	 * indexed by {@link ImmutableGraph#indexOf(Object)} of
+	 * {@link ImmutableGraph#copyOf(Graph)} of {@link #getGraph()}. Unreachable
+	 * pairs are {@link MatrixOperations#INFINITY}.
+	 *
+	 * @return a copy of the precomputed distances; never null
+	 */
+	IntSquareMatrix distances();
+
+	/**
+	 * Creates the random source for a player, players with random behaviour
+	 * should draw from it so that deterministic games can be replayed.
+	 * Deterministic games seed it with
+	 * {@link StandardGame#generatePlayerRandom(long, Colour)}.
+	 *
+	 * @param colour the colour of the player; not null
+	 * @return a new random source, defaults to an unseeded one
+	 */
+	default Random random(Colour colour) {
+		return new Random();
+	}
+
+}
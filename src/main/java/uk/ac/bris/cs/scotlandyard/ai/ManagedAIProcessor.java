@@ -0,0 +1,74 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * <b> Not a public API, do not use!</b> <br>
+ * Annotation processor writing the names of all {@link ManagedAI} classes
+ * of a compilation to {@link AI#INDEX}, so that {@link AI#scanClasspath()}
+ * does not have to scan the classpath. Annotated classes that are not top
+ * level classes implementing {@link PlayerFactory} are reported as errors.
+ * The processor is registered as a service, so compilations with this jar
+ * on the classpath index their AIs without further configuration.
+ */
+@SupportedAnnotationTypes("uk.ac.bris.cs.scotlandyard.ai.ManagedAI")
+public final class ManagedAIProcessor extends AbstractProcessor {
+
+	private final Set<String> names = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		TypeMirror factory = processingEnv.getElementUtils()
+				.getTypeElement(PlayerFactory.class.getCanonicalName()).asType();
+		for (Element element : round.getElementsAnnotatedWith(ManagedAI.class)) {
+			if (element.getKind() != ElementKind.CLASS
+					|| element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+				processingEnv.getMessager().printMessage(Kind.ERROR,
+						"@ManagedAI must be on a top-level class", element);
+			} else if (!processingEnv.getTypeUtils().isAssignable(element.asType(), factory)) {
+				processingEnv.getMessager().printMessage(Kind.ERROR,
+						"@ManagedAI class must implement " + PlayerFactory.class.getName(), element);
+			} else {
+				names.add(processingEnv.getElementUtils()
+						.getBinaryName((TypeElement) element).toString());
+			}
+		}
+		if (round.processingOver() && !names.isEmpty()) writeIndex();
+		return true;
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject index = processingEnv.getFiler()
+					.createResource(StandardLocation.CLASS_OUTPUT, "", AI.INDEX);
+			try (Writer writer = index.openWriter()) {
+				for (String name : names)
+					writer.write(name + "\n");
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Unable to write " + AI.INDEX + ": " + e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,264 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.Spectator;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Ticket;
+import uk.ac.bris.cs.scotlandyard.model.TicketMove;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * A probability distribution over MrX's possible locations, as far as the
+ * detectives can tell. The belief is a {@link Spectator}, so a
+ * {@link PlayerFactory} can return one from
+ * {@link PlayerFactory#createSpectators(ScotlandYardView)} and share it
+ * between all of its detectives.
+ *
+ * <br>
+ * Whenever MrX moves in a hidden round the probability of every location is
+ * spread evenly over the locations reachable from it with the revealed
+ * ticket, in reveal rounds the belief collapses to the revealed location.
+ * Locations occupied by detectives are always excluded and the distribution
+ * is renormalised after every update. Transitions for every ticket are
+ * precomputed from the graph once, updates do not allocate.
+ *
+ * <br>
+ * Locations are addressed by their index in
+ * {@link ImmutableGraph#getNodes()} of the game's graph, see
+ * {@link #indexOf(int)} and {@link #locationAt(int)}. All methods are
+ * synchronised as spectators and players run on different threads.
+ */
+public final class MrXLocationBelief implements Spectator {
+
+	private static final Ticket[] TICKETS = Ticket.values();
+
+	private final ImmutableGraph<Integer, Transport> graph;
+	private final int[] locations;
+	// Sparse transitions per ticket ordinal: the targets of node i are
+	// targets[t][offsets[t][i]] until targets[t][offsets[t][i + 1]]
+	private final int[][] offsets = new int[TICKETS.length][];
+	private final int[][] targets = new int[TICKETS.length][];
+	private final boolean[] occupied;
+	private double[] probabilities;
+	private double[] scratch;
+
+	/**
+	 * Creates a belief for the game behind the given view, starting from
+	 * MrX's last revealed location or an even distribution over all locations
+	 * not occupied by detectives if he has not been revealed yet
+	 *
+	 * @param view the view of the game; not null
+	 */
+	public MrXLocationBelief(ScotlandYardView view) {
+		requireNonNull(view);
+		this.graph = ImmutableGraph.copyOf(view.getGraph());
+		List<Node<Integer>> nodes = graph.getNodes();
+		int size = nodes.size();
+		this.locations = new int[size];
+		for (int i = 0; i < size; i++)
+			locations[i] = nodes.get(i).value();
+		for (Ticket ticket : TICKETS) {
+			if (ticket != Ticket.DOUBLE) buildTransitions(nodes, ticket);
+		}
+		this.occupied = new boolean[size];
+		this.probabilities = new double[size];
+		this.scratch = new double[size];
+		reset(view);
+	}
+
+	private void buildTransitions(List<Node<Integer>> nodes, Ticket ticket) {
+		int[] offset = new int[nodes.size() + 1];
+		int[] target = new int[graph.getEdges().size()];
+		int count = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			offset[i] = count;
+			for (Edge<Integer, Transport> edge : graph.getEdgesFrom(nodes.get(i))) {
+				if (ticket != Ticket.SECRET && Ticket.fromTransport(edge.data()) != ticket)
+					continue;
+				int j = graph.indexOf(edge.destination().value());
+				// Parallel edges of different transports lead to the same target
+				boolean seen = false;
+				for (int k = offset[i]; k < count && !seen; k++)
+					seen = target[k] == j;
+				if (!seen) {
+					if (count == target.length) target = Arrays.copyOf(target, count * 2);
+					target[count++] = j;
+				}
+			}
+		}
+		offset[nodes.size()] = count;
+		offsets[ticket.ordinal()] = offset;
+		targets[ticket.ordinal()] = Arrays.copyOf(target, count);
+	}
+
+	/**
+	 * Resets the belief to MrX's last revealed location, or an even
+	 * distribution over all free locations if he has not been revealed yet
+	 *
+	 * @param view the view of the game; not null
+	 */
+	public synchronized void reset(ScotlandYardView view) {
+		markDetectives(view);
+		int revealed = graph.indexOf(view.locationOf(Colour.BLACK));
+		if (revealed != -1) {
+			collapse(revealed);
+		} else {
+			Arrays.fill(probabilities, 1);
+			exclude();
+		}
+	}
+
+	/**
+	 * @return the number of locations in the distribution
+	 */
+	public int size() {
+		return locations.length;
+	}
+
+	/**
+	 * @param index the index of the location
+	 * @return the location at the given index
+	 */
+	public int locationAt(int index) {
+		return locations[index];
+	}
+
+	/**
+	 * @param location the location
+	 * @return the index of the location or -1 if it is not on the graph
+	 */
+	public int indexOf(int location) {
+		return graph.indexOf(location);
+	}
+
+	/**
+	 * @param location the location
+	 * @return the probability MrX is at the given location, 0 if it is not on
+	 *         the graph
+	 */
+	public synchronized double probabilityAt(int location) {
+		int i = graph.indexOf(location);
+		return i == -1 ? 0 : probabilities[i];
+	}
+
+	/**
+	 * @return the location MrX is most likely at
+	 */
+	public synchronized int mostLikelyLocation() {
+		int best = 0;
+		for (int i = 1; i < probabilities.length; i++) {
+			if (probabilities[i] > probabilities[best]) best = i;
+		}
+		return locations[best];
+	}
+
+	/**
+	 * Copies the distribution, indexed by location index, into the given
+	 * array
+	 *
+	 * @param distribution the array to copy into, or null to allocate one
+	 * @return the distribution; never null
+	 */
+	public synchronized double[] copyInto(double[] distribution) {
+		if (distribution == null) return probabilities.clone();
+		if (distribution.length != probabilities.length)
+			throw new IllegalArgumentException(
+					"length " + distribution.length + " != " + probabilities.length);
+		System.arraycopy(probabilities, 0, distribution, 0, probabilities.length);
+		return distribution;
+	}
+
+	/**
+	 * Updates the belief with a move. Relies on the order in which the model
+	 * reports MrX's moves: the round a move is played in has already started
+	 * when the move is reported, so it is {@code getCurrentRound() - 1}, and
+	 * the destination is his actual location only if that round is a reveal
+	 * round. Double moves are ignored, the model reports each half as a
+	 * ticket move right after them.
+	 */
+	@Override
+	public synchronized void onMoveMade(ScotlandYardView view, Move move) {
+		if (!(move instanceof TicketMove)) return;
+		TicketMove ticketMove = (TicketMove) move;
+		markDetectives(view);
+		if (move.colour().isDetective()) {
+			exclude();
+			return;
+		}
+		int round = view.getCurrentRound() - 1;
+		int destination = graph.indexOf(ticketMove.destination());
+		if (round >= 0 && view.getRounds().get(round) && destination != -1) {
+			collapse(destination);
+		} else {
+			propagate(ticketMove.ticket());
+			exclude();
+		}
+	}
+
+	private void markDetectives(ScotlandYardView view) {
+		Arrays.fill(occupied, false);
+		for (Colour colour : view.getPlayers()) {
+			if (colour.isMrX()) continue;
+			int i = graph.indexOf(view.locationOf(colour));
+			if (i != -1) occupied[i] = true;
+		}
+	}
+
+	private void collapse(int index) {
+		Arrays.fill(probabilities, 0);
+		probabilities[index] = 1;
+	}
+
+	// Spreads every location evenly over its free targets for the ticket
+	private void propagate(Ticket ticket) {
+		int[] offset = offsets[ticket.ordinal()];
+		int[] target = targets[ticket.ordinal()];
+		double[] next = scratch;
+		Arrays.fill(next, 0);
+		for (int i = 0; i < probabilities.length; i++) {
+			double p = probabilities[i];
+			if (p == 0) continue;
+			int free = 0;
+			for (int k = offset[i]; k < offset[i + 1]; k++) {
+				if (!occupied[target[k]]) free++;
+			}
+			if (free == 0) continue;
+			double share = p / free;
+			for (int k = offset[i]; k < offset[i + 1]; k++) {
+				if (!occupied[target[k]]) next[target[k]] += share;
+			}
+		}
+		scratch = probabilities;
+		probabilities = next;
+	}
+
+	// Removes occupied locations and renormalises
+	private void exclude() {
+		double sum = 0;
+		for (int i = 0; i < probabilities.length; i++) {
+			if (occupied[i]) probabilities[i] = 0;
+			sum += probabilities[i];
+		}
+		if (sum == 0) {
+			// Nothing is consistent with what was seen, start over evenly
+			for (int i = 0; i < probabilities.length; i++) {
+				probabilities[i] = occupied[i] ? 0 : 1;
+				sum += probabilities[i];
+			}
+			if (sum == 0) return;
+		}
+		double scale = 1 / sum;
+		for (int i = 0; i < probabilities.length; i++)
+			probabilities[i] *= scale;
+	}
+
+}
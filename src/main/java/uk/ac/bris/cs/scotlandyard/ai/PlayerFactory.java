@@ -56,7 +56,21 @@ public interface PlayerFactory {
 	 * @param visualiser a visualiser instance
 	 * @param provider a resource provider; never null
 	 */
-	default void ready(Visualiser visualiser, ResourceProvider provider) {}
+	default void ready(Visualiser visualiser, ResourceProvider provider) {
+		ready(provider);
+	}
+
+	/**
+	 * Called by the default {@link #ready(Visualiser, ResourceProvider)}, and
+	 * directly in headless games where there is nothing to draw on<br>
+	 *
+	 * Defaults to no-op <br>
+	 * Override this instead if the players only compute, so that they work
+	 * with or without the UI
+	 *
+	 * @param provider a resource provider; never null
+	 */
+	default void ready(ComputeResourceProvider provider) {}
 
 	/**
 	 * Called when the game is finished(i.e. when
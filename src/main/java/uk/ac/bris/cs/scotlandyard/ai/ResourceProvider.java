@@ -2,14 +2,13 @@ package uk.ac.bris.cs.scotlandyard.ai;
 
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
-import uk.ac.bris.cs.gamekit.graph.Graph;
 import uk.ac.bris.cs.scotlandyard.model.Ticket;
-import uk.ac.bris.cs.scotlandyard.model.Transport;
 
 /**
- * Resource provider to be used within a {@link PlayerFactory}
+ * Resource provider to be used within a {@link PlayerFactory}, adds the
+ * JavaFX images and points on top of {@link ComputeResourceProvider}
  */
-public interface ResourceProvider {
+public interface ResourceProvider extends ComputeResourceProvider {
 
 	/**
 	 * Retrieves the Scotland Yard map image from memory, this image is
@@ -28,14 +27,6 @@ public interface ResourceProvider {
 	 */
 	Image getTicket(Ticket ticket);
 
-	/**
-	 * Retrieves an immutable copy of the game graph that is identical to the
-	 * current game
-	 * 
-	 * @return the game graph; never null
-	 */
-	Graph<Integer, Transport> getGraph();
-
 	/**
 	 * Retrieves the position of node on the map image retrieved using
 	 * {@link #getMap()}
@@ -43,6 +34,9 @@ public interface ResourceProvider {
 	 * @param node the node to retrieve position
 	 * @return the position or null if node is not found
 	 */
-	Point2D coordinateAtNode(int node);
+	default Point2D coordinateAtNode(int node) {
+		int x = coordinateX(node);
+		return x == -1 ? null : new Point2D(x, coordinateY(node));
+	}
 
 }
@@ -0,0 +1,187 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * The game's end of a connection to a {@link RemoteWorker}, the players it
+ * creates choose their moves in the worker's process. <br>
+ * Requests are pipelined, any number of players may be waiting for a move on
+ * the same connection.
+ */
+public final class RemoteConnection implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RemoteConnection.class);
+
+	private final Socket socket;
+	private final DataOutputStream out;
+	private final DataInputStream in;
+	private final AtomicInteger ids = new AtomicInteger();
+	private final Map<Integer, CompletableFuture<Integer>> pending = new ConcurrentHashMap<>();
+	private volatile IOException failure;
+
+	private RemoteConnection(Socket socket) throws IOException {
+		this.socket = socket;
+		this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+	}
+
+	/**
+	 * Connects to a worker and sends it the graph of the game
+	 *
+	 * @param address the address of the worker; not null
+	 * @param graph the graph of the game; not null
+	 * @return the connection; never null
+	 * @throws IOException if the worker cannot be reached
+	 */
+	public static RemoteConnection connect(InetSocketAddress address,
+			Graph<Integer, Transport> graph) throws IOException {
+		requireNonNull(address);
+		requireNonNull(graph);
+		Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.connect(address);
+			RemoteConnection connection = new RemoteConnection(socket);
+			synchronized (connection.out) {
+				connection.out.writeInt(RemoteProtocol.MAGIC);
+				connection.out.writeByte(RemoteProtocol.HELLO);
+				RemoteProtocol.writeGraph(connection.out, graph);
+				connection.out.flush();
+			}
+			Thread reader = new Thread(connection::read, "remote-ai-" + address);
+			reader.setDaemon(true);
+			reader.start();
+			return connection;
+		} catch (IOException e) {
+			socket.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a player that asks the worker for its moves. A worker failure
+	 * is thrown from {@link Player#makeMove(ScotlandYardView, int, Set, Consumer)}
+	 * as an {@link UncheckedIOException}.
+	 *
+	 * @param colour the colour of the player; not null
+	 * @return the player; never null
+	 */
+	public Player player(Colour colour) {
+		requireNonNull(colour);
+		return (view, location, moves, callback) -> {
+			List<Move> ordered = ImmutableList.copyOf(moves);
+			int index;
+			try {
+				index = request(colour, view, location, ordered).get();
+			} catch (InterruptedException e) {
+				// Cut off by the pool, the answer is discarded when it arrives
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException)
+					throw new UncheckedIOException((IOException) e.getCause());
+				throw new IllegalStateException(e.getCause());
+			}
+			if (index < 0 || index >= ordered.size())
+				throw new IllegalStateException(
+						"Worker chose move " + index + " of " + ordered.size());
+			callback.accept(ordered.get(index));
+		};
+	}
+
+	private CompletableFuture<Integer> request(Colour colour, ScotlandYardView view,
+			int location, List<Move> moves) {
+		int id = ids.getAndIncrement();
+		CompletableFuture<Integer> result = new CompletableFuture<>();
+		result.whenComplete((index, e) -> pending.remove(id));
+		pending.put(id, result);
+		try {
+			synchronized (out) {
+				if (failure != null) throw failure;
+				out.writeByte(RemoteProtocol.MOVE);
+				out.writeInt(id);
+				out.writeByte(colour.ordinal());
+				out.writeShort(location);
+				RemoteProtocol.writeView(out, view);
+				out.writeShort(moves.size());
+				for (Move move : moves)
+					RemoteProtocol.writeMove(out, move);
+				out.flush();
+			}
+		} catch (IOException e) {
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	// Runs on the reader thread until the connection is closed
+	private void read() {
+		try {
+			while (true) {
+				byte type = in.readByte();
+				int id = in.readInt();
+				CompletableFuture<Integer> result = pending.get(id);
+				switch (type) {
+					case RemoteProtocol.RESULT:
+						int index = in.readUnsignedShort();
+						if (result != null) result.complete(index);
+						break;
+					case RemoteProtocol.ERROR:
+						String message = in.readUTF();
+						if (result != null) result.completeExceptionally(
+								new IOException("Worker failed to move: " + message));
+						break;
+					default:
+						throw new IOException("Unknown message type " + type);
+				}
+			}
+		} catch (IOException e) {
+			fail(e instanceof EOFException ? new IOException("Worker closed the connection") : e);
+		}
+	}
+
+	private void fail(IOException e) {
+		synchronized (out) {
+			if (failure == null) failure = e;
+		}
+		if (!socket.isClosed()) LOG.warn("Connection to worker lost", e);
+		pending.values().forEach(result -> result.completeExceptionally(failure));
+	}
+
+	@Override
+	public void close() throws IOException {
+		socket.close();
+	}
+
+}
@@ -0,0 +1,57 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import uk.ac.bris.cs.scotlandyard.ai.ComputeResourceProvider;
+import uk.ac.bris.cs.scotlandyard.ai.ManagedAI;
+import uk.ac.bris.cs.scotlandyard.ai.PlayerFactory;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+
+/**
+ * Players that move in a {@link RemoteWorker} process, so that a misbehaving
+ * AI cannot exhaust the game's heap or threads. The worker's port on the
+ * loopback address is read from the {@value #PORT_PROPERTY} system property,
+ * defaulting to {@value #DEFAULT_PORT}.
+ */
+@ManagedAI("Remote")
+public class RemotePlayerFactory implements PlayerFactory {
+
+	public static final String PORT_PROPERTY = "scotlandyard.ai.remote.port";
+	public static final int DEFAULT_PORT = 7373;
+
+	private RemoteConnection connection;
+
+	@Override
+	public void ready(ComputeResourceProvider provider) {
+		int port = Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+		try {
+			connection = RemoteConnection.connect(
+					new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+					provider.getGraph());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to reach the AI worker on port " + port, e);
+		}
+	}
+
+	@Override
+	public Player createPlayer(Colour colour) {
+		if (connection == null)
+			throw new IllegalStateException("createPlayer called before ready");
+		return connection.player(colour);
+	}
+
+	@Override
+	public void finish() {
+		if (connection == null) return;
+		try {
+			connection.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,207 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+import uk.ac.bris.cs.gamekit.graph.UndirectedGraph;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.DoubleMove;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.MoveVisitor;
+import uk.ac.bris.cs.scotlandyard.model.PassMove;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Ticket;
+import uk.ac.bris.cs.scotlandyard.model.TicketMove;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * The binary protocol between {@link RemoteConnection} and
+ * {@link RemoteWorker}. <br>
+ * The game sends {@link #HELLO} with the graph once, then a {@link #MOVE}
+ * request per move, each with its own id so that several can be in flight on
+ * one connection. The worker answers every request with a {@link #RESULT}
+ * holding the index of the chosen move in the request, or an {@link #ERROR}.
+ * Nodes and counts are unsigned shorts, enums are single bytes of their
+ * ordinal.
+ */
+final class RemoteProtocol {
+
+	static final int MAGIC = 0x53594131;
+
+	static final byte HELLO = 1;
+	static final byte MOVE = 2;
+	static final byte RESULT = 3;
+	static final byte ERROR = 4;
+
+	private static final byte TICKET_MOVE = 0;
+	private static final byte DOUBLE_MOVE = 1;
+	private static final byte PASS_MOVE = 2;
+
+	private static final Colour[] COLOURS = Colour.values();
+	private static final Ticket[] TICKETS = Ticket.values();
+	private static final Transport[] TRANSPORTS = Transport.values();
+
+	private RemoteProtocol() {}
+
+	static void writeGraph(DataOutput out, Graph<Integer, Transport> graph) throws IOException {
+		List<Node<Integer>> nodes = graph.getNodes();
+		out.writeShort(nodes.size());
+		for (Node<Integer> node : nodes)
+			out.writeShort(node.value());
+		// The graph is undirected, so only one direction of every edge is sent
+		Set<Edge<Integer, Transport>> seen = new HashSet<>();
+		List<Edge<Integer, Transport>> edges = new ArrayList<>();
+		for (Edge<Integer, Transport> edge : graph.getEdges()) {
+			if (seen.add(edge)) {
+				seen.add(edge.swap());
+				edges.add(edge);
+			}
+		}
+		out.writeShort(edges.size());
+		for (Edge<Integer, Transport> edge : edges) {
+			out.writeShort(edge.source().value());
+			out.writeShort(edge.destination().value());
+			out.writeByte(edge.data().ordinal());
+		}
+	}
+
+	static ImmutableGraph<Integer, Transport> readGraph(DataInput in) throws IOException {
+		UndirectedGraph<Integer, Transport> graph = new UndirectedGraph<>();
+		int nodes = in.readUnsignedShort();
+		for (int i = 0; i < nodes; i++)
+			graph.addNode(new Node<>(in.readUnsignedShort()));
+		int edges = in.readUnsignedShort();
+		for (int i = 0; i < edges; i++) {
+			Node<Integer> source = graph.getNode(in.readUnsignedShort());
+			Node<Integer> destination = graph.getNode(in.readUnsignedShort());
+			Transport transport = TRANSPORTS[in.readUnsignedByte()];
+			graph.addEdge(new Edge<>(source, destination, transport));
+		}
+		return new ImmutableGraph<>(graph);
+	}
+
+	// The graph is not written, the worker has it from the HELLO
+	static void writeView(DataOutput out, ScotlandYardView view) throws IOException {
+		List<Colour> players = view.getPlayers();
+		out.writeByte(players.size());
+		for (Colour colour : players) {
+			out.writeByte(colour.ordinal());
+			out.writeShort(view.locationOf(colour));
+			for (Ticket ticket : TICKETS)
+				out.writeShort(view.ticketsOf(colour, ticket));
+		}
+		Set<Colour> winners = view.getWinningPlayers();
+		out.writeByte(winners.size());
+		for (Colour colour : winners)
+			out.writeByte(colour.ordinal());
+		out.writeBoolean(view.isGameOver());
+		out.writeByte(view.getCurrentPlayer().ordinal());
+		out.writeShort(view.getCurrentRound());
+		List<Boolean> rounds = view.getRounds();
+		out.writeShort(rounds.size());
+		for (boolean reveal : rounds)
+			out.writeBoolean(reveal);
+	}
+
+	static RemoteView readView(DataInput in, Graph<Integer, Transport> graph) throws IOException {
+		int count = in.readUnsignedByte();
+		List<Colour> players = new ArrayList<>(count);
+		int[] locations = new int[COLOURS.length];
+		int[][] tickets = new int[COLOURS.length][TICKETS.length];
+		for (int i = 0; i < count; i++) {
+			Colour colour = COLOURS[in.readUnsignedByte()];
+			players.add(colour);
+			locations[colour.ordinal()] = in.readUnsignedShort();
+			for (Ticket ticket : TICKETS)
+				tickets[colour.ordinal()][ticket.ordinal()] = in.readUnsignedShort();
+		}
+		int winnerCount = in.readUnsignedByte();
+		Set<Colour> winners = new HashSet<>();
+		for (int i = 0; i < winnerCount; i++)
+			winners.add(COLOURS[in.readUnsignedByte()]);
+		boolean gameOver = in.readBoolean();
+		Colour current = COLOURS[in.readUnsignedByte()];
+		int round = in.readUnsignedShort();
+		int roundCount = in.readUnsignedShort();
+		List<Boolean> rounds = new ArrayList<>(roundCount);
+		for (int i = 0; i < roundCount; i++)
+			rounds.add(in.readBoolean());
+		return new RemoteView(players, locations, tickets, winners, gameOver, current, round,
+				rounds, graph);
+	}
+
+	// The colour is not written, every move of a request is for the same player
+	static void writeMove(DataOutput out, Move move) throws IOException {
+		IOException[] failure = new IOException[1];
+		move.visit(new MoveVisitor() {
+			@Override
+			public void visit(PassMove move) {
+				try {
+					out.writeByte(PASS_MOVE);
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			}
+
+			@Override
+			public void visit(TicketMove move) {
+				try {
+					out.writeByte(TICKET_MOVE);
+					writeTicketMove(out, move);
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			}
+
+			@Override
+			public void visit(DoubleMove move) {
+				try {
+					out.writeByte(DOUBLE_MOVE);
+					writeTicketMove(out, move.firstMove());
+					writeTicketMove(out, move.secondMove());
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			}
+		});
+		if (failure[0] != null) throw failure[0];
+	}
+
+	private static void writeTicketMove(DataOutput out, TicketMove move) throws IOException {
+		out.writeByte(move.ticket().ordinal());
+		out.writeShort(move.destination());
+	}
+
+	static Move readMove(DataInput in, Colour colour) throws IOException {
+		byte kind = in.readByte();
+		switch (kind) {
+			case PASS_MOVE:
+				return PassMove.of(colour);
+			case TICKET_MOVE:
+				return readTicketMove(in, colour);
+			case DOUBLE_MOVE:
+				return new DoubleMove(colour, readTicketMove(in, colour),
+						readTicketMove(in, colour));
+			default:
+				throw new IOException("Unknown move kind " + kind);
+		}
+	}
+
+	private static TicketMove readTicketMove(DataInput in, Colour colour) throws IOException {
+		return TicketMove.of(colour, TICKETS[in.readUnsignedByte()], in.readUnsignedShort());
+	}
+
+	static Colour readColour(DataInput in) throws IOException {
+		return COLOURS[in.readUnsignedByte()];
+	}
+
+}
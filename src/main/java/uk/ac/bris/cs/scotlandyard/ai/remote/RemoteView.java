@@ -0,0 +1,93 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Ticket;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * The snapshot of a view a {@link RemoteWorker} receives with each move
+ * request
+ */
+final class RemoteView implements ScotlandYardView {
+
+	private final List<Colour> players;
+	// Indexed by colour ordinal, only valid for colours in players
+	private final int[] locations;
+	private final int[][] tickets;
+	private final Set<Colour> winners;
+	private final boolean gameOver;
+	private final Colour current;
+	private final int round;
+	private final List<Boolean> rounds;
+	private final Graph<Integer, Transport> graph;
+
+	RemoteView(List<Colour> players, int[] locations, int[][] tickets, Set<Colour> winners,
+			boolean gameOver, Colour current, int round, List<Boolean> rounds,
+			Graph<Integer, Transport> graph) {
+		this.players = Collections.unmodifiableList(players);
+		this.locations = locations;
+		this.tickets = tickets;
+		this.winners = Collections.unmodifiableSet(winners);
+		this.gameOver = gameOver;
+		this.current = current;
+		this.round = round;
+		this.rounds = Collections.unmodifiableList(rounds);
+		this.graph = graph;
+	}
+
+	@Override
+	public List<Colour> getPlayers() {
+		return players;
+	}
+
+	@Override
+	public Set<Colour> getWinningPlayers() {
+		return winners;
+	}
+
+	@Override
+	public Optional<Integer> getPlayerLocation(Colour colour) {
+		return players.contains(colour) ? Optional.of(locations[colour.ordinal()])
+				: Optional.empty();
+	}
+
+	@Override
+	public Optional<Integer> getPlayerTickets(Colour colour, Ticket ticket) {
+		return players.contains(colour)
+				? Optional.of(tickets[colour.ordinal()][ticket.ordinal()])
+				: Optional.empty();
+	}
+
+	@Override
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	@Override
+	public Colour getCurrentPlayer() {
+		return current;
+	}
+
+	@Override
+	public int getCurrentRound() {
+		return round;
+	}
+
+	@Override
+	public List<Boolean> getRounds() {
+		return rounds;
+	}
+
+	@Override
+	public Graph<Integer, Transport> getGraph() {
+		return graph;
+	}
+
+}
@@ -0,0 +1,193 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.scotlandyard.StandardResources;
+import uk.ac.bris.cs.scotlandyard.ai.PlayerFactory;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * Hosts a {@link PlayerFactory} in its own process for games connecting with
+ * {@link RemoteConnection}. Every connection gets a new factory, which is
+ * readied with a {@link StandardResources} of the game's graph and finished
+ * when the game disconnects. <br>
+ * Usage: {@code RemoteWorker <port> <factory class>}, the worker only listens
+ * on the loopback address.
+ */
+public final class RemoteWorker {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RemoteWorker.class);
+
+	private final Supplier<PlayerFactory> factories;
+	private final ExecutorService service = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "remote-ai-worker");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @param factories creates a factory for every connection; not null
+	 */
+	public RemoteWorker(Supplier<PlayerFactory> factories) {
+		this.factories = requireNonNull(factories);
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length != 2)
+			throw new IllegalArgumentException("Usage: RemoteWorker <port> <factory class>");
+		int port = Integer.parseInt(args[0]);
+		Class<? extends PlayerFactory> type = Class.forName(args[1])
+				.asSubclass(PlayerFactory.class);
+		RemoteWorker worker = new RemoteWorker(() -> {
+			try {
+				return type.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalArgumentException("Unable to create " + type, e);
+			}
+		});
+		try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			LOG.info("Serving {} on {}", type.getName(), server.getLocalSocketAddress());
+			worker.serve(server);
+		}
+	}
+
+	/**
+	 * Accepts connections until the server socket is closed
+	 *
+	 * @param server the server socket; not null
+	 * @throws IOException if accepting fails for another reason than the
+	 *         server socket being closed
+	 */
+	public void serve(ServerSocket server) throws IOException {
+		while (!server.isClosed()) {
+			Socket socket;
+			try {
+				socket = server.accept();
+			} catch (IOException e) {
+				if (server.isClosed()) return;
+				throw e;
+			}
+			service.execute(() -> {
+				try (Socket closing = socket) {
+					closing.setTcpNoDelay(true);
+					handle(closing);
+				} catch (IOException e) {
+					LOG.warn("Connection from {} failed", socket.getRemoteSocketAddress(), e);
+				}
+			});
+		}
+	}
+
+	private void handle(Socket socket) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(socket.getOutputStream()));
+		if (in.readInt() != RemoteProtocol.MAGIC || in.readByte() != RemoteProtocol.HELLO)
+			throw new IOException("Not a game connection");
+		ImmutableGraph<Integer, Transport> graph = RemoteProtocol.readGraph(in);
+		PlayerFactory factory = factories.get();
+		factory.ready(new StandardResources(graph, Collections.emptyMap()));
+		Map<Colour, Player> players = Collections.synchronizedMap(new EnumMap<>(Colour.class));
+		try {
+			while (true) {
+				byte type;
+				try {
+					type = in.readByte();
+				} catch (EOFException e) {
+					return;
+				}
+				if (type != RemoteProtocol.MOVE)
+					throw new IOException("Unknown message type " + type);
+				int id = in.readInt();
+				Colour colour = RemoteProtocol.readColour(in);
+				int location = in.readUnsignedShort();
+				RemoteView view = RemoteProtocol.readView(in, graph);
+				int count = in.readUnsignedShort();
+				List<Move> moves = new ArrayList<>(count);
+				for (int i = 0; i < count; i++)
+					moves.add(RemoteProtocol.readMove(in, colour));
+				Player player = players.computeIfAbsent(colour, factory::createPlayer);
+				// Moves are made concurrently, the game matches answers by id
+				service.execute(() -> move(out, id, player, view, location, moves));
+			}
+		} finally {
+			factory.finish();
+		}
+	}
+
+	private void move(DataOutputStream out, int id, Player player, RemoteView view,
+			int location, List<Move> moves) {
+		AtomicBoolean answered = new AtomicBoolean();
+		Set<Move> set = ImmutableSet.copyOf(moves);
+		try {
+			player.makeMove(view, location, set, move -> {
+				if (!answered.compareAndSet(false, true))
+					throw new IllegalStateException("Move already made");
+				int index = moves.indexOf(move);
+				if (index == -1) error(out, id, "Illegal move " + move);
+				else result(out, id, index);
+			});
+		} catch (Throwable e) {
+			// Errors too, a bot running out of memory or stack must still be
+			// answered or the game waits forever
+			LOG.warn("Player failed to move", e);
+			if (answered.compareAndSet(false, true)) error(out, id, e.toString());
+		}
+	}
+
+	private static void result(DataOutputStream out, int id, int index) {
+		try {
+			synchronized (out) {
+				out.writeByte(RemoteProtocol.RESULT);
+				out.writeInt(id);
+				out.writeShort(index);
+				out.flush();
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to answer request {}", id, e);
+		}
+	}
+
+	private static void error(DataOutputStream out, int id, String message) {
+		try {
+			synchronized (out) {
+				out.writeByte(RemoteProtocol.ERROR);
+				out.writeInt(id);
+				out.writeUTF(message);
+				out.flush();
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to answer request {}", id, e);
+		}
+	}
+
+}
@@ -33,13 +33,20 @@ public class GameModelSequencePUMLCodeGen implements CodeGen {
 
 	private int maxRound = 0;
 	private List<String> interactions = new ArrayList<>();
+	// Consecutive snapshots share unchanged state with the previous one
+	private ImmutableScotlandYardView last;
+
+	private ImmutableScotlandYardView snapshot(ScotlandYardView view) {
+		last = ImmutableScotlandYardView.snapshot(view, last);
+		return last;
+	}
 
 	@Override public String name() { return "GameModelSequencePUMLCodeGen"; }
 	@Override
 	public void movePicked(ImmutableScotlandYardView seed,
 	                       ScotlandYardView view, int location, Set<Move> moves, Move picked) {
 
-		ImmutableScotlandYardView now = ImmutableScotlandYardView.snapshot(view);
+		ImmutableScotlandYardView now = snapshot(view);
 
 		String current = named(now.getCurrentPlayer());
 
@@ -64,7 +71,7 @@ public class GameModelSequencePUMLCodeGen implements CodeGen {
 	@Override public Spectator mkSpectator(ImmutableScotlandYardView seed) {
 		return new Spectator() {
 			@Override public void onMoveMade(ScotlandYardView view, Move move) {
-				ImmutableScotlandYardView now = ImmutableScotlandYardView.snapshot(view);
+				ImmutableScotlandYardView now = snapshot(view);
 				if (move.colour().isDetective() || move instanceof DoubleMove)
 					appendViewRNote(now, "");
 				interactions.add(format(
@@ -72,7 +79,7 @@ public class GameModelSequencePUMLCodeGen implements CodeGen {
 
 			}
 			@Override public void onRoundStarted(ScotlandYardView view, int round) {
-				ImmutableScotlandYardView now = ImmutableScotlandYardView.snapshot(view);
+				ImmutableScotlandYardView now = snapshot(view);
 				if (previousPlayer(now).isMrX()) appendViewRNote(now, "");
 				interactions.add(format(
 						"ScotlandYardModel->Spectator: onRoundStarted(V, %d)", round));
@@ -83,7 +90,7 @@ public class GameModelSequencePUMLCodeGen implements CodeGen {
 				interactions.add("end");
 			}
 			@Override public void onGameOver(ScotlandYardView view, Set<Colour> winningPlayers) {
-				ImmutableScotlandYardView now = ImmutableScotlandYardView.snapshot(view);
+				ImmutableScotlandYardView now = snapshot(view);
 				interactions.add(format("ScotlandYardModel->Spectator: onGameOver(V, [%s])",
 						now.players.stream().map(v -> named(v.colour)).collect(joining(","))));
 				appendViewRNote(now, ", GameOver=true");
@@ -15,7 +15,6 @@ import java.util.stream.Stream;
 
 import uk.ac.bris.cs.gamekit.graph.Graph;
 import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
-import uk.ac.bris.cs.gamekit.graph.UndirectedGraph;
 import uk.ac.bris.cs.scotlandyard.model.Colour;
 import uk.ac.bris.cs.scotlandyard.model.DoubleMove;
 import uk.ac.bris.cs.scotlandyard.model.Move;
@@ -79,6 +78,8 @@ public final class ImmutableScotlandYardView implements ScotlandYardView {
 		}
 	}
 
+	private static final Ticket[] TICKETS = Ticket.values();
+
 	private final ImmutableList<Colour> colours;
 	private final ImmutableList<Boolean> rounds;
 	private final ImmutableGraph<Integer, Transport> graph;
@@ -90,7 +91,23 @@ public final class ImmutableScotlandYardView implements ScotlandYardView {
 	final int currentRound;
 
 	public static ImmutableScotlandYardView snapshot(ScotlandYardView view) {
-		return new ImmutableScotlandYardView(view);
+		return snapshot(view, null);
+	}
+
+	/**
+	 * Takes a snapshot that shares everything that did not change since the
+	 * previous snapshot of the same game: players whose location and tickets
+	 * are the same are reused as are the colours, rounds and graph, so only
+	 * the changed players are copied
+	 *
+	 * @param view the view to snapshot
+	 * @param previous the previous snapshot of the same game, may be null
+	 * @return the snapshot
+	 */
+	public static ImmutableScotlandYardView snapshot(ScotlandYardView view,
+	                                                 ImmutableScotlandYardView previous) {
+		if (view instanceof ImmutableScotlandYardView) return (ImmutableScotlandYardView) view;
+		return new ImmutableScotlandYardView(view, previous);
 	}
 
 	private ImmutableScotlandYardView(
@@ -109,25 +126,50 @@ public final class ImmutableScotlandYardView implements ScotlandYardView {
 		this.currentPlayer = currentPlayer;
 		this.currentRound = currentRound;
 	}
-	private ImmutableScotlandYardView(ScotlandYardView view) {
+	private ImmutableScotlandYardView(ScotlandYardView view, ImmutableScotlandYardView previous) {
 //		Thread.dumpStack();
-		players = view.getPlayers()
-				.stream()
-				.map(p -> {
-					Integer location = view.getPlayerLocation(p).orElseThrow(AssertionError::new);
-					ImmutableMap<Ticket, Integer> tickets = Stream.of(Ticket.values())
-							.collect(ImmutableMap.toImmutableMap(identity(), t -> view
-									.getPlayerTickets(p, t)
-									.orElseThrow(AssertionError::new)));
-					return new ImmutablePlayer(p, location, tickets);
-				}).collect(ImmutableList.toImmutableList());
-		colours = ImmutableList.copyOf(view.getPlayers());
-		winning = ImmutableSet.copyOf(view.getWinningPlayers());
+		List<Colour> colours = view.getPlayers();
+		boolean samePlayers = previous != null && previous.colours.equals(colours);
+		this.colours = samePlayers ? previous.colours : ImmutableList.copyOf(colours);
+		ImmutableList.Builder<ImmutablePlayer> players =
+				ImmutableList.builderWithExpectedSize(colours.size());
+		for (int i = 0; i < this.colours.size(); i++) {
+			players.add(snapshotPlayer(view, this.colours.get(i),
+					samePlayers ? previous.players.get(i) : null));
+		}
+		this.players = players.build();
+		Set<Colour> winning = view.getWinningPlayers();
+		this.winning = previous != null && previous.winning.equals(winning)
+				? previous.winning : ImmutableSet.copyOf(winning);
 		gameOver = view.isGameOver();
 		currentRound = view.getCurrentRound();
 		currentPlayer = view.getCurrentPlayer();
-		rounds = ImmutableList.copyOf((view.getRounds()));
-		graph = new ImmutableGraph<>(new UndirectedGraph<>(view.getGraph()));
+		List<Boolean> rounds = view.getRounds();
+		this.rounds = previous != null && previous.rounds.equals(rounds)
+				? previous.rounds : ImmutableList.copyOf(rounds);
+		Graph<Integer, Transport> graph = view.getGraph();
+		this.graph = previous != null && previous.graph == graph
+				? previous.graph : ImmutableGraph.copyOf(graph);
+	}
+
+	// Reuses the previous record of the player if nothing has changed
+	private static ImmutablePlayer snapshotPlayer(ScotlandYardView view, Colour colour,
+	                                              ImmutablePlayer previous) {
+		int location = view.getPlayerLocation(colour).orElseThrow(AssertionError::new);
+		int[] counts = new int[TICKETS.length];
+		boolean same = previous != null && previous.location == location;
+		for (Ticket ticket : TICKETS) {
+			counts[ticket.ordinal()] = view.getPlayerTickets(colour, ticket)
+					.orElseThrow(AssertionError::new);
+			Integer count = same ? previous.tickets.get(ticket) : null;
+			same = count != null && count == counts[ticket.ordinal()];
+		}
+		if (same) return previous;
+		ImmutableMap.Builder<Ticket, Integer> tickets =
+				ImmutableMap.builderWithExpectedSize(TICKETS.length);
+		for (Ticket ticket : TICKETS)
+			tickets.put(ticket, counts[ticket.ordinal()]);
+		return new ImmutablePlayer(colour, location, tickets.build());
 	}
 
 	@Override public List<Colour> getPlayers() { return colours; }
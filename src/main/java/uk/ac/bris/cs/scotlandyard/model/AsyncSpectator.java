@@ -0,0 +1,293 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import uk.ac.bris.cs.scotlandyard.model.GameEvent.Type;
+
+/**
+ * A {@link Spectator} that forwards callbacks to another spectator
+ * asynchronously. Register the wrapper with
+ * {@link ScotlandYardGame#registerSpectator(Spectator)} in place of the
+ * wrapped spectator and the game thread only has to enqueue the callback as
+ * a {@link GameEvent}, a slow spectator no longer holds up the game.
+ *
+ * <br>
+ * Every wrapper has its own bounded queue and is drained by a single
+ * dispatcher at a time, so callbacks are delivered in the order they
+ * happened. The view passed to the wrapped spectator is the event itself,
+ * frozen at the time of the callback. When the queue is full the game thread
+ * waits for the dispatcher to catch up, or delivers the queued callbacks
+ * itself if the executor rejected the dispatcher; callbacks marked as
+ * coalescing replace
+ * any pending callback of the same kind instead, only the latest one is
+ * delivered.
+ *
+ * <br>
+ * The dispatcher defaults to a dedicated daemon thread that exits when idle.
+ * A custom {@link Executor} must not run tasks on the game thread while the
+ * queue can fill up, the game thread would wait on itself.
+ */
+public final class AsyncSpectator implements GameEventListener {
+
+	private final Spectator spectator;
+	private final int capacity;
+	private final Set<Type> coalescing;
+	private final Executor executor;
+	private final ArrayDeque<GameEvent> queue;
+	// Guarded by queue
+	private boolean dispatching;
+	// Only used by the game thread when the game does not create events itself
+	private GameEvent last;
+
+	private AsyncSpectator(Builder builder) {
+		this.spectator = builder.spectator;
+		this.capacity = builder.capacity;
+		this.coalescing = builder.coalescing;
+		this.executor = builder.executor != null ? builder.executor : newDispatcher();
+		this.queue = new ArrayDeque<>(capacity);
+	}
+
+	/**
+	 * Wraps a spectator with the default capacity, no coalescing and a
+	 * dedicated dispatcher thread
+	 *
+	 * @param spectator the spectator to forward to; not null
+	 * @return the wrapping spectator; never null
+	 */
+	public static AsyncSpectator of(Spectator spectator) {
+		return new Builder(spectator).build();
+	}
+
+	private static Executor newDispatcher() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(0, 1, 5, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "spectator-dispatcher");
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @return the wrapped spectator; never null
+	 */
+	public Spectator spectator() {
+		return spectator;
+	}
+
+	/**
+	 * @return the number of callbacks waiting to be delivered
+	 */
+	public int pending() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * Waits until all pending callbacks have been delivered
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void awaitIdle() throws InterruptedException {
+		while (true) {
+			synchronized (queue) {
+				while (dispatching)
+					queue.wait();
+				if (queue.isEmpty()) return;
+				// Left queued after the executor rejected the dispatcher
+				dispatching = true;
+			}
+			dispatch();
+		}
+	}
+
+	@Override
+	public void onEvent(GameEvent event) {
+		enqueue(requireNonNull(event));
+	}
+
+	@Override
+	public void onMoveMade(ScotlandYardView view, Move move) {
+		record(Type.MOVE_MADE, move, view);
+	}
+
+	@Override
+	public void onRoundStarted(ScotlandYardView view, int round) {
+		record(Type.ROUND_STARTED, null, view);
+	}
+
+	@Override
+	public void onRotationComplete(ScotlandYardView view) {
+		record(Type.ROTATION_COMPLETE, null, view);
+	}
+
+	@Override
+	public void onGameOver(ScotlandYardView view, Set<Colour> winningPlayers) {
+		record(Type.GAME_OVER, null, view);
+	}
+
+	private void record(Type type, Move move, ScotlandYardView view) {
+		last = GameEvent.of(type, move, view, last);
+		enqueue(last);
+	}
+
+	private void enqueue(GameEvent event) {
+		while (true) {
+			boolean full;
+			boolean schedule = false;
+			synchronized (queue) {
+				if (coalescing.contains(event.type())) {
+					Iterator<GameEvent> it = queue.iterator();
+					while (it.hasNext()) {
+						if (it.next().type() == event.type()) it.remove();
+					}
+				}
+				while (dispatching && queue.size() >= capacity) {
+					try {
+						queue.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException("Interrupted while waiting for " + spectator, e);
+					}
+				}
+				// Still full without a dispatcher since the executor rejected it,
+				// nothing else would make room so deliver on this thread
+				full = queue.size() >= capacity;
+				if (!full) {
+					queue.addLast(event);
+					schedule = !dispatching;
+				}
+				dispatching = true;
+			}
+			if (full) {
+				dispatch();
+				continue;
+			}
+			if (schedule) schedule();
+			return;
+		}
+	}
+
+	private void schedule() {
+		try {
+			executor.execute(this::dispatch);
+		} catch (RuntimeException | Error e) {
+			// The event stays queued, the next callback schedules again or
+			// delivers the queue itself once it is full
+			synchronized (queue) {
+				dispatching = false;
+				queue.notifyAll();
+			}
+			throw e;
+		}
+	}
+
+	private void dispatch() {
+		while (true) {
+			GameEvent event;
+			synchronized (queue) {
+				event = queue.pollFirst();
+				if (event == null) {
+					dispatching = false;
+					queue.notifyAll();
+					return;
+				}
+				queue.notifyAll();
+			}
+			try {
+				event.dispatchTo(spectator);
+			} catch (Throwable e) {
+				// Keep delivering the remaining callbacks in order, an Error
+				// must not leave the queue without a dispatcher
+				report(e);
+			}
+		}
+	}
+
+	private static void report(Throwable e) {
+		Thread thread = Thread.currentThread();
+		try {
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		} catch (Throwable ignored) {
+			// Nowhere left to report to
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AsyncSpectator{" + spectator + '}';
+	}
+
+	/**
+	 * Builder for {@link AsyncSpectator}
+	 */
+	public static final class Builder {
+
+		private final Spectator spectator;
+		private int capacity = 256;
+		private Set<Type> coalescing = EnumSet.noneOf(Type.class);
+		private Executor executor;
+
+		/**
+		 * @param spectator the spectator to forward to; not null
+		 */
+		public Builder(Spectator spectator) {
+			this.spectator = requireNonNull(spectator);
+		}
+
+		/**
+		 * @param capacity the maximum number of pending callbacks, must be
+		 *        &gt; 0
+		 * @return this builder
+		 */
+		public Builder capacity(int capacity) {
+			if (capacity < 1)
+				throw new IllegalArgumentException("Capacity must be > 0, got " + capacity);
+			this.capacity = capacity;
+			return this;
+		}
+
+		/**
+		 * @param types callbacks where only the latest pending one should be
+		 *        delivered, e.g. {@link Type#ROTATION_COMPLETE}
+		 * @return this builder
+		 */
+		public Builder coalescing(Type... types) {
+			Set<Type> set = EnumSet.noneOf(Type.class);
+			for (Type type : types)
+				set.add(requireNonNull(type));
+			this.coalescing = set;
+			return this;
+		}
+
+		/**
+		 * @param executor the executor to dispatch callbacks on, e.g.
+		 *        {@code Platform::runLater} for spectators that update the
+		 *        UI; not null
+		 * @return this builder
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = requireNonNull(executor);
+			return this;
+		}
+
+		/**
+		 * @return a new async spectator; never null
+		 */
+		public AsyncSpectator build() {
+			return new AsyncSpectator(this);
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+
+/**
+ * The edges of a graph grouped by destination, so that move generation
+ * visits every destination of a location exactly once no matter how many
+ * transports lead there.
+ *
+ * <br>
+ * Destinations of the location with index i in {@link ImmutableGraph#getNodes()}
+ * are at positions {@link #start(int)} until {@link #end(int)}. For every
+ * destination the table holds the tickets of the transports leading there and
+ * whether any of those transports can be taken with a secret ticket, i.e. is
+ * not a ferry.
+ */
+final class DestinationTable {
+
+	// The table of the last graph used, games on the same map share it
+	private static volatile DestinationTable last;
+
+	private final ImmutableGraph<Integer, Transport> graph;
+	private final int[] offsets;
+	private final int[] destinations;
+	// Bit set of Ticket.ordinal() per destination
+	private final int[] tickets;
+	private final boolean[] secret;
+
+	private DestinationTable(ImmutableGraph<Integer, Transport> graph) {
+		this.graph = graph;
+		List<Node<Integer>> nodes = graph.getNodes();
+		int capacity = graph.getEdges().size();
+		this.offsets = new int[nodes.size() + 1];
+		int[] destinations = new int[capacity];
+		int[] tickets = new int[capacity];
+		boolean[] secret = new boolean[capacity];
+		int count = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			offsets[i] = count;
+			for (Edge<Integer, Transport> edge : graph.getEdgesFrom(nodes.get(i))) {
+				int destination = edge.destination().value();
+				int k = offsets[i];
+				while (k < count && destinations[k] != destination)
+					k++;
+				if (k == count) {
+					if (count == destinations.length) {
+						destinations = Arrays.copyOf(destinations, count * 2 + 1);
+						tickets = Arrays.copyOf(tickets, count * 2 + 1);
+						secret = Arrays.copyOf(secret, count * 2 + 1);
+					}
+					destinations[count++] = destination;
+				}
+				tickets[k] |= 1 << Ticket.fromTransport(edge.data()).ordinal();
+				secret[k] |= edge.data() != Transport.FERRY;
+			}
+		}
+		offsets[nodes.size()] = count;
+		this.destinations = Arrays.copyOf(destinations, count);
+		this.tickets = Arrays.copyOf(tickets, count);
+		this.secret = Arrays.copyOf(secret, count);
+	}
+
+	/**
+	 * @param graph the graph; not null
+	 * @return the table for the given graph; never null
+	 */
+	static DestinationTable of(ImmutableGraph<Integer, Transport> graph) {
+		DestinationTable table = last;
+		if (table == null || table.graph != graph) {
+			table = new DestinationTable(graph);
+			last = table;
+		}
+		return table;
+	}
+
+	/**
+	 * @param location the location
+	 * @return the position of the first destination of the location
+	 */
+	int start(int location) {
+		int i = graph.indexOf(location);
+		return i == -1 ? 0 : offsets[i];
+	}
+
+	/**
+	 * @param location the location
+	 * @return the position after the last destination of the location, the
+	 *         same as {@link #start(int)} if the location is not on the graph
+	 */
+	int end(int location) {
+		int i = graph.indexOf(location);
+		return i == -1 ? 0 : offsets[i + 1];
+	}
+
+	/**
+	 * @param k the position
+	 * @return the destination at the given position
+	 */
+	int destination(int k) {
+		return destinations[k];
+	}
+
+	/**
+	 * @param k the position
+	 * @param ticket the ticket; not null
+	 * @return whether a transport matching the ticket leads to the
+	 *         destination at the given position
+	 */
+	boolean hasTransport(int k, Ticket ticket) {
+		return (tickets[k] & 1 << ticket.ordinal()) != 0;
+	}
+
+	/**
+	 * @param k the position
+	 * @return whether a transport other than a ferry leads to the destination
+	 *         at the given position
+	 */
+	boolean allowsSecret(int k) {
+		return secret[k];
+	}
+
+}
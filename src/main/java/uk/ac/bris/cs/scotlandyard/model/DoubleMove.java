@@ -36,8 +36,8 @@ public class DoubleMove extends Move {
 	public DoubleMove(Colour player, Ticket first, int firstDestination, Ticket second,
 			int secondDestination) {
 		super(player);
-		this.firstMove = new TicketMove(player, first, firstDestination);
-		this.secondMove = new TicketMove(player, second, secondDestination);
+		this.firstMove = TicketMove.of(player, first, firstDestination);
+		this.secondMove = TicketMove.of(player, second, secondDestination);
 	}
 
 	/**
@@ -84,9 +84,13 @@ public class DoubleMove extends Move {
 				&& Objects.equals(secondMove, that.secondMove);
 	}
 
+	/**
+	 * Combines the packed hashes of both ticket moves, see
+	 * {@link TicketMove#hashCode()}
+	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(super.hashCode(), firstMove, secondMove);
+		return 31 * Objects.hashCode(firstMove) + Objects.hashCode(secondMove);
 	}
 
 	@Override
@@ -0,0 +1,252 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of an in-progress {@link ScotlandYardModel}, see
+ * {@link ScotlandYardModel#checkpoint()}. A checkpoint can be encoded into a
+ * compact binary form with {@link #toBytes()} and decoded again with
+ * {@link #fromBytes(byte[])}.
+ *
+ * <br>
+ * The graph, the {@link Player} implementations and any registered
+ * {@link Spectator}s are not part of the checkpoint and must be supplied again
+ * when resuming, see
+ * {@link ScotlandYardModel#resume(GameCheckpoint, uk.ac.bris.cs.gamekit.graph.Graph, Map)}
+ */
+public final class GameCheckpoint {
+
+	private static final int MAGIC = 0x53594350;
+	private static final int VERSION = 1;
+	private static final Ticket[] TICKETS = Ticket.values();
+	private static final Colour[] COLOURS = Colour.values();
+
+	private final List<Boolean> rounds;
+	private final int currentRound;
+	private final int currentPlayer;
+	private final int previousPlayer;
+	private final int mrXLastKnownLocation;
+	private final Colour[] colours;
+	private final int[] locations;
+	private final int[][] tickets;
+
+	GameCheckpoint(List<Boolean> rounds, int currentRound, int currentPlayer,
+			int previousPlayer, int mrXLastKnownLocation, Colour[] colours, int[] locations,
+			int[][] tickets) {
+		this.rounds = unmodifiableList(new ArrayList<>(rounds));
+		this.currentRound = currentRound;
+		this.currentPlayer = currentPlayer;
+		this.previousPlayer = previousPlayer;
+		this.mrXLastKnownLocation = mrXLastKnownLocation;
+		this.colours = colours;
+		this.locations = locations;
+		this.tickets = tickets;
+	}
+
+	/**
+	 * @return the reveal rounds of the checkpointed game; never null
+	 */
+	public List<Boolean> rounds() {
+		return rounds;
+	}
+
+	/**
+	 * @return the round the game was in, see
+	 *         {@link ScotlandYardView#getCurrentRound()}
+	 */
+	public int currentRound() {
+		return currentRound;
+	}
+
+	/**
+	 * @return the colours of all players in order of play; never null
+	 */
+	public List<Colour> colours() {
+		return unmodifiableList(Arrays.asList(colours));
+	}
+
+	/**
+	 * @return the last location of MrX that was revealed to the detectives
+	 */
+	public int mrXLastKnownLocation() {
+		return mrXLastKnownLocation;
+	}
+
+	int currentPlayer() {
+		return currentPlayer;
+	}
+
+	int previousPlayer() {
+		return previousPlayer;
+	}
+
+	int playerCount() {
+		return colours.length;
+	}
+
+	Colour colour(int player) {
+		return colours[player];
+	}
+
+	int location(int player) {
+		return locations[player];
+	}
+
+	Map<Ticket, Integer> tickets(int player) {
+		Map<Ticket, Integer> map = new EnumMap<>(Ticket.class);
+		for (Ticket ticket : TICKETS) {
+			map.put(ticket, tickets[player][ticket.ordinal()]);
+		}
+		return map;
+	}
+
+	/**
+	 * Encodes this checkpoint into its binary form
+	 *
+	 * @return the encoded checkpoint; never null
+	 * @throws IllegalStateException if the number of rounds, the current
+	 *         round or a ticket count does not fit an unsigned short
+	 */
+	public byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + colours.length * 16);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			// Reveal rounds are packed as a bitset
+			writeUnsignedShort(out, rounds.size(), "Round count");
+			byte[] revealed = new byte[(rounds.size() + 7) / 8];
+			for (int i = 0; i < rounds.size(); i++) {
+				if (rounds.get(i)) revealed[i / 8] |= 1 << (i % 8);
+			}
+			out.write(revealed);
+			writeUnsignedShort(out, currentRound, "Current round");
+			out.writeByte(currentPlayer);
+			out.writeByte(previousPlayer);
+			out.writeInt(mrXLastKnownLocation);
+			out.writeByte(colours.length);
+			for (int i = 0; i < colours.length; i++) {
+				out.writeByte(colours[i].ordinal());
+				out.writeInt(locations[i]);
+				for (Ticket ticket : TICKETS) {
+					writeUnsignedShort(out, tickets[i][ticket.ordinal()],
+							colours[i] + " " + ticket + " count");
+				}
+			}
+		} catch (IOException e) {
+			// ByteArrayOutputStream does not throw
+			throw new AssertionError(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeUnsignedShort(DataOutputStream out, int value, String name)
+			throws IOException {
+		if (value < 0 || value > 0xFFFF)
+			throw new IllegalStateException(name + " " + value + " does not fit a checkpoint");
+		out.writeShort(value);
+	}
+
+	/**
+	 * Decodes a checkpoint previously encoded with {@link #toBytes()}
+	 *
+	 * @param bytes the encoded checkpoint; not null
+	 * @return the decoded checkpoint; never null
+	 * @throws IllegalArgumentException if the bytes are not a valid checkpoint
+	 */
+	public static GameCheckpoint fromBytes(byte[] bytes) {
+		try (DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(requireNonNull(bytes)))) {
+			if (in.readInt() != MAGIC)
+				throw new IllegalArgumentException("Not a game checkpoint");
+			int version = in.readUnsignedByte();
+			if (version != VERSION)
+				throw new IllegalArgumentException("Unsupported checkpoint version " + version);
+			int roundCount = in.readUnsignedShort();
+			byte[] revealed = new byte[(roundCount + 7) / 8];
+			in.readFully(revealed);
+			List<Boolean> rounds = new ArrayList<>(roundCount);
+			for (int i = 0; i < roundCount; i++) {
+				rounds.add((revealed[i / 8] & (1 << (i % 8))) != 0);
+			}
+			int currentRound = in.readUnsignedShort();
+			int currentPlayer = in.readUnsignedByte();
+			int previousPlayer = in.readUnsignedByte();
+			int mrXLastKnownLocation = in.readInt();
+			int playerCount = in.readUnsignedByte();
+			if (playerCount < 2)
+				throw new IllegalArgumentException("Need at least two players, got " + playerCount);
+			if (currentPlayer >= playerCount || previousPlayer >= playerCount)
+				throw new IllegalArgumentException("Player index out of range");
+			Colour[] colours = new Colour[playerCount];
+			int[] locations = new int[playerCount];
+			int[][] tickets = new int[playerCount][TICKETS.length];
+			for (int i = 0; i < playerCount; i++) {
+				int colour = in.readUnsignedByte();
+				if (colour >= COLOURS.length)
+					throw new IllegalArgumentException("Unknown colour ordinal " + colour);
+				colours[i] = COLOURS[colour];
+				locations[i] = in.readInt();
+				for (Ticket ticket : TICKETS) {
+					tickets[i][ticket.ordinal()] = in.readUnsignedShort();
+				}
+			}
+			return new GameCheckpoint(rounds, currentRound, currentPlayer, previousPlayer,
+					mrXLastKnownLocation, colours, locations, tickets);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Truncated game checkpoint", e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GameCheckpoint that = (GameCheckpoint) o;
+		return currentRound == that.currentRound
+				&& currentPlayer == that.currentPlayer
+				&& previousPlayer == that.previousPlayer
+				&& mrXLastKnownLocation == that.mrXLastKnownLocation
+				&& rounds.equals(that.rounds)
+				&& Arrays.equals(colours, that.colours)
+				&& Arrays.equals(locations, that.locations)
+				&& Arrays.deepEquals(tickets, that.tickets);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Objects.hash(rounds, currentRound, currentPlayer, previousPlayer,
+				mrXLastKnownLocation);
+		result = 31 * result + Arrays.hashCode(colours);
+		result = 31 * result + Arrays.hashCode(locations);
+		result = 31 * result + Arrays.deepHashCode(tickets);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("GameCheckpoint{");
+		sb.append("round=").append(currentRound);
+		sb.append(", current=").append(colours[currentPlayer]);
+		sb.append(", mrXLastKnownLocation=").append(mrXLastKnownLocation);
+		sb.append(", players=[");
+		for (int i = 0; i < colours.length; i++) {
+			if (i > 0) sb.append(", ");
+			sb.append(colours[i]).append('@').append(locations[i]).append(tickets(i));
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,296 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+
+/**
+ * An immutable record of a single spectator callback together with the state
+ * of the game visible to spectators at that time. An event is itself a
+ * {@link ScotlandYardView} frozen at the time of the callback, so it can be
+ * handed to other threads and kept around safely.
+ *
+ * <br>
+ * Events of the same game share everything that did not change: player
+ * states that are the same as in the previous event are reused (see
+ * {@link #changed()} for the ones that are not), as are the players, rounds
+ * and graph. Creating an event only copies the players that changed.
+ *
+ * <br>
+ * {@link ScotlandYardModel} hands events directly to spectators implementing
+ * {@link GameEventListener}
+ */
+public final class GameEvent implements ScotlandYardView {
+
+	/**
+	 * The spectator callback an event stands for
+	 */
+	public enum Type {
+		/**
+		 * {@link Spectator#onMoveMade(ScotlandYardView, Move)}
+		 */
+		MOVE_MADE,
+		/**
+		 * {@link Spectator#onRoundStarted(ScotlandYardView, int)}
+		 */
+		ROUND_STARTED,
+		/**
+		 * {@link Spectator#onRotationComplete(ScotlandYardView)}
+		 */
+		ROTATION_COMPLETE,
+		/**
+		 * {@link Spectator#onGameOver(ScotlandYardView, Set)}
+		 */
+		GAME_OVER;
+
+		// Calls the Spectator callback this type stands for, with the round
+		// and winners taken from the view
+		void invoke(Spectator spectator, ScotlandYardView view, Move move) {
+			switch (this) {
+				case MOVE_MADE:
+					spectator.onMoveMade(view, move);
+					break;
+				case ROUND_STARTED:
+					spectator.onRoundStarted(view, view.getCurrentRound());
+					break;
+				case ROTATION_COMPLETE:
+					spectator.onRotationComplete(view);
+					break;
+				case GAME_OVER:
+					spectator.onGameOver(view, view.getWinningPlayers());
+					break;
+			}
+		}
+	}
+
+	private final Type type;
+	private final long sequence;
+	private final Move move;
+	private final List<Colour> colours;
+	private final List<PlayerState> players;
+	private final List<PlayerState> changed;
+	private final Set<Colour> winningPlayers;
+	private final boolean gameOver;
+	private final Colour currentPlayer;
+	private final int currentRound;
+	private final List<Boolean> rounds;
+	private final ImmutableGraph<Integer, Transport> graph;
+
+	private GameEvent(Type type, long sequence, Move move, List<Colour> colours,
+			List<PlayerState> players, List<PlayerState> changed, Set<Colour> winningPlayers,
+			boolean gameOver, Colour currentPlayer, int currentRound, List<Boolean> rounds,
+			ImmutableGraph<Integer, Transport> graph) {
+		this.type = type;
+		this.sequence = sequence;
+		this.move = move;
+		this.colours = colours;
+		this.players = players;
+		this.changed = changed;
+		this.winningPlayers = winningPlayers;
+		this.gameOver = gameOver;
+		this.currentPlayer = currentPlayer;
+		this.currentRound = currentRound;
+		this.rounds = rounds;
+		this.graph = graph;
+	}
+
+	/**
+	 * Records a callback with the current state of the given view
+	 *
+	 * @param type the callback; not null
+	 * @param move the move for {@link Type#MOVE_MADE}, ignored otherwise
+	 * @param view the view of the game; not null
+	 * @param previous the previous event of the same game to share unchanged
+	 *        state with, may be null
+	 * @return the event; never null
+	 */
+	public static GameEvent of(Type type, Move move, ScotlandYardView view, GameEvent previous) {
+		requireNonNull(type);
+		requireNonNull(view);
+		if (type == Type.MOVE_MADE) requireNonNull(move);
+		else move = null;
+
+		List<Colour> colours = view.getPlayers();
+		List<Boolean> rounds = view.getRounds();
+		boolean samePlayers = previous != null && previous.colours.equals(colours);
+		colours = samePlayers ? previous.colours : List.copyOf(colours);
+		rounds = previous != null && previous.rounds.equals(rounds)
+				? previous.rounds : List.copyOf(rounds);
+
+		PlayerState[] states = new PlayerState[colours.size()];
+		List<PlayerState> changed = null;
+		for (int i = 0; i < states.length; i++) {
+			PlayerState last = samePlayers ? previous.players.get(i) : null;
+			states[i] = PlayerState.of(view, colours.get(i), last);
+			if (states[i] != last) {
+				if (changed == null) changed = new ArrayList<>(1);
+				changed.add(states[i]);
+			}
+		}
+
+		Set<Colour> winners = view.getWinningPlayers();
+		if (previous == null || !previous.winningPlayers.equals(winners)) {
+			Set<Colour> copy = EnumSet.noneOf(Colour.class);
+			copy.addAll(winners);
+			winners = unmodifiableSet(copy);
+		} else {
+			winners = previous.winningPlayers;
+		}
+
+		return new GameEvent(type, previous == null ? 0 : previous.sequence + 1, move,
+				colours, unmodifiableList(Arrays.asList(states)),
+				changed == null ? emptyList() : unmodifiableList(changed), winners,
+				view.isGameOver(), view.getCurrentPlayer(), view.getCurrentRound(), rounds,
+				ImmutableGraph.copyOf(view.getGraph()));
+	}
+
+	/**
+	 * Delivers this event to the given spectator, either as a whole if it is a
+	 * {@link GameEventListener} or through the matching {@link Spectator}
+	 * callback with this event as the view
+	 *
+	 * @param spectator the spectator; not null
+	 */
+	public void dispatchTo(Spectator spectator) {
+		if (spectator instanceof GameEventListener) {
+			((GameEventListener) spectator).onEvent(this);
+		} else {
+			type.invoke(spectator, this, move);
+		}
+	}
+
+	/**
+	 * @return the callback this event stands for; never null
+	 */
+	public Type type() {
+		return type;
+	}
+
+	/**
+	 * @return the position of this event in the sequence of events it was
+	 *         created from, starting at 0
+	 */
+	public long sequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the move for {@link Type#MOVE_MADE}, as shown to spectators;
+	 *         empty for other events
+	 */
+	public Optional<Move> move() {
+		return Optional.ofNullable(move);
+	}
+
+	/**
+	 * @return the state of all players in order of play; never null
+	 */
+	public List<PlayerState> players() {
+		return players;
+	}
+
+	/**
+	 * @return the state of the players that changed since the previous event,
+	 *         all players if there is no previous event; never null
+	 */
+	public List<PlayerState> changed() {
+		return changed;
+	}
+
+	/**
+	 * @param colour the colour of the player
+	 * @return the state of the player, empty if the player is not in the game
+	 */
+	public Optional<PlayerState> player(Colour colour) {
+		for (PlayerState player : players) {
+			if (player.colour() == colour) return Optional.of(player);
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public List<Colour> getPlayers() {
+		return colours;
+	}
+
+	@Override
+	public Set<Colour> getWinningPlayers() {
+		return winningPlayers;
+	}
+
+	@Override
+	public Optional<Integer> getPlayerLocation(Colour colour) {
+		return player(colour).map(PlayerState::location);
+	}
+
+	@Override
+	public Optional<Integer> getPlayerTickets(Colour colour, Ticket ticket) {
+		return player(colour).map(player -> player.tickets(ticket));
+	}
+
+	@Override
+	public int locationOf(Colour colour) {
+		for (PlayerState player : players) {
+			if (player.colour() == colour) return player.location();
+		}
+		return -1;
+	}
+
+	@Override
+	public int ticketsOf(Colour colour, Ticket ticket) {
+		for (PlayerState player : players) {
+			if (player.colour() == colour) return player.tickets(ticket);
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
+	@Override
+	public Colour getCurrentPlayer() {
+		return currentPlayer;
+	}
+
+	@Override
+	public int getCurrentRound() {
+		return currentRound;
+	}
+
+	@Override
+	public List<Boolean> getRounds() {
+		return rounds;
+	}
+
+	@Override
+	public Graph<Integer, Transport> getGraph() {
+		return graph;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("GameEvent{");
+		sb.append(type);
+		sb.append(", sequence=").append(sequence);
+		if (move != null) sb.append(", move=").append(move);
+		sb.append(", round=").append(currentRound);
+		sb.append(", current=").append(currentPlayer);
+		sb.append(", over=").append(gameOver);
+		sb.append(", changed=").append(changed);
+		sb.append('}');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,41 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import java.util.Set;
+
+/**
+ * A {@link Spectator} that receives callbacks as immutable {@link GameEvent}s
+ * instead of a live view. {@link ScotlandYardModel} creates one event per
+ * callback and shares it between all registered listeners; other
+ * {@link ScotlandYardGame} implementations reach the listener through the
+ * default {@link Spectator} methods, which record an event on the spot.
+ */
+public interface GameEventListener extends Spectator {
+
+	/**
+	 * Called for every spectator callback
+	 *
+	 * @param event the event; never null
+	 */
+	void onEvent(GameEvent event);
+
+	@Override
+	default void onMoveMade(ScotlandYardView view, Move move) {
+		onEvent(GameEvent.of(GameEvent.Type.MOVE_MADE, move, view, null));
+	}
+
+	@Override
+	default void onRoundStarted(ScotlandYardView view, int round) {
+		onEvent(GameEvent.of(GameEvent.Type.ROUND_STARTED, null, view, null));
+	}
+
+	@Override
+	default void onRotationComplete(ScotlandYardView view) {
+		onEvent(GameEvent.of(GameEvent.Type.ROTATION_COMPLETE, null, view, null));
+	}
+
+	@Override
+	default void onGameOver(ScotlandYardView view, Set<Colour> winningPlayers) {
+		onEvent(GameEvent.of(GameEvent.Type.GAME_OVER, null, view, null));
+	}
+
+}
@@ -0,0 +1,291 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A log of a deterministic game for replaying it bit for bit. <br>
+ * Players wrapped with {@link #record(Player)} are given their moves in
+ * {@link MoveOrder#CANONICAL} order and log every move they choose; as a
+ * registered {@link GameEventListener} the log also records every event with
+ * a digest of the game state. {@link #replay()} plays the logged moves back
+ * into a new game, and comparing the two logs with {@link #divergence(GameLog)}
+ * finds the first event where the games differ. A log can be encoded with
+ * {@link #toBytes()} and decoded again with {@link #fromBytes(byte[])}.
+ *
+ * <br>
+ * Players with random behaviour should draw from
+ * {@link StandardGame#generatePlayerRandom(long, Colour)} with the
+ * {@link #seed()} of the log.
+ */
+public final class GameLog implements GameEventListener {
+
+	private static final int MAGIC = 0x5359474C;
+	private static final int VERSION = 1;
+	private static final byte CHOICE = 0;
+	private static final GameEvent.Type[] TYPES = GameEvent.Type.values();
+	private static final Colour[] COLOURS = Colour.values();
+	private static final Ticket[] TICKETS = Ticket.values();
+
+	private final long seed;
+	private final List<Entry> entries;
+
+	/**
+	 * @param seed the seed of the game
+	 */
+	public GameLog(long seed) {
+		this(seed, new ArrayList<>());
+	}
+
+	private GameLog(long seed, List<Entry> entries) {
+		this.seed = seed;
+		this.entries = entries;
+	}
+
+	/**
+	 * @return the seed of the game
+	 */
+	public long seed() {
+		return seed;
+	}
+
+	/**
+	 * @return the number of moves chosen and events logged
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the moves chosen by the players in the order they were made;
+	 *         never null
+	 */
+	public synchronized List<Move> moves() {
+		List<Move> moves = new ArrayList<>();
+		for (Entry entry : entries)
+			if (entry.kind == CHOICE) moves.add(MoveOrder.fromKey(entry.colour, entry.key));
+		return moves;
+	}
+
+	/**
+	 * Wraps a player to be given its moves in canonical order and have its
+	 * choices logged
+	 *
+	 * @param player the player; not null
+	 * @return the wrapped player; never null
+	 */
+	public Player record(Player player) {
+		requireNonNull(player);
+		return (view, location, moves, callback) -> player.makeMove(view, location,
+				MoveList.of(moves), move -> {
+					log(new Entry(CHOICE, requireNonNull(move).colour(), MoveOrder.key(move), 0));
+					callback.accept(move);
+				});
+	}
+
+	/**
+	 * Creates a player that makes the logged moves in order, to be used for
+	 * every player of the replayed game. The replay is logged too when it is
+	 * {@link #record(Player) recorded}.
+	 *
+	 * @return the player; never null
+	 * @throws IllegalStateException from the player if the replayed game asks
+	 *         another player to move, or offers different moves, than the
+	 *         logged game
+	 */
+	public Player replay() {
+		List<Move> moves = moves();
+		int[] next = {0};
+		return (view, location, given, callback) -> {
+			Move move;
+			synchronized (next) {
+				if (next[0] == moves.size())
+					throw new IllegalStateException("No more moves in the log");
+				move = moves.get(next[0]++);
+			}
+			if (!given.contains(move))
+				throw new IllegalStateException("Logged move " + move + " is not valid here");
+			callback.accept(move);
+		};
+	}
+
+	@Override
+	public void onEvent(GameEvent event) {
+		Move move = event.move().orElse(null);
+		log(new Entry((byte) (event.type().ordinal() + 1), null,
+				move == null ? 0 : MoveOrder.key(move), digest(event)));
+	}
+
+	private synchronized void log(Entry entry) {
+		entries.add(entry);
+	}
+
+	// Everything a player can see, in a form that is stable across runs
+	private static long digest(ScotlandYardView view) {
+		long hash = 0xCBF29CE484222325L;
+		for (Colour colour : view.getPlayers()) {
+			hash = mix(hash, colour.ordinal());
+			hash = mix(hash, view.locationOf(colour));
+			for (Ticket ticket : TICKETS)
+				hash = mix(hash, view.ticketsOf(colour, ticket));
+		}
+		int winners = 0;
+		for (Colour colour : view.getWinningPlayers())
+			winners |= 1 << colour.ordinal();
+		hash = mix(hash, winners);
+		hash = mix(hash, view.getCurrentPlayer().ordinal());
+		hash = mix(hash, view.getCurrentRound());
+		return mix(hash, view.isGameOver() ? 1 : 0);
+	}
+
+	private static long mix(long hash, int value) {
+		return (hash ^ value) * 0x100000001B3L;
+	}
+
+	/**
+	 * @param other the log to compare with; not null
+	 * @return the index of the first entry that differs, the size of the
+	 *         shorter log if one is a prefix of the other, or -1 if both are
+	 *         identical
+	 */
+	public int divergence(GameLog other) {
+		List<Entry> mine = snapshot();
+		List<Entry> theirs = other.snapshot();
+		int common = Math.min(mine.size(), theirs.size());
+		for (int i = 0; i < common; i++)
+			if (!mine.get(i).equals(theirs.get(i))) return i;
+		return mine.size() == theirs.size() ? -1 : common;
+	}
+
+	private synchronized List<Entry> snapshot() {
+		return new ArrayList<>(entries);
+	}
+
+	/**
+	 * Encodes this log into its binary form
+	 *
+	 * @return the encoded log; never null
+	 */
+	public byte[] toBytes() {
+		List<Entry> entries = snapshot();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + entries.size() * 17);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(seed);
+			out.writeInt(entries.size());
+			for (Entry entry : entries) {
+				out.writeByte(entry.kind);
+				if (entry.kind == CHOICE) {
+					out.writeByte(entry.colour.ordinal());
+					out.writeLong(entry.key);
+				} else {
+					if (entry.kind == GameEvent.Type.MOVE_MADE.ordinal() + 1)
+						out.writeLong(entry.key);
+					out.writeLong(entry.digest);
+				}
+			}
+		} catch (IOException e) {
+			// ByteArrayOutputStream does not throw
+			throw new AssertionError(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decodes a log previously encoded with {@link #toBytes()}
+	 *
+	 * @param bytes the encoded log; not null
+	 * @return the decoded log; never null
+	 * @throws IllegalArgumentException if the bytes are not a valid log
+	 */
+	public static GameLog fromBytes(byte[] bytes) {
+		try (DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(requireNonNull(bytes)))) {
+			if (in.readInt() != MAGIC)
+				throw new IllegalArgumentException("Not a game log");
+			int version = in.readUnsignedByte();
+			if (version != VERSION)
+				throw new IllegalArgumentException("Unsupported game log version " + version);
+			long seed = in.readLong();
+			int count = in.readInt();
+			List<Entry> entries = new ArrayList<>(Math.min(count, 1 << 16));
+			for (int i = 0; i < count; i++) {
+				byte kind = in.readByte();
+				if (kind < 0 || kind > TYPES.length)
+					throw new IllegalArgumentException("Unknown entry kind " + kind);
+				if (kind == CHOICE) {
+					int colour = in.readUnsignedByte();
+					if (colour >= COLOURS.length)
+						throw new IllegalArgumentException("Unknown colour ordinal " + colour);
+					entries.add(new Entry(kind, COLOURS[colour], in.readLong(), 0));
+				} else {
+					long key = kind == GameEvent.Type.MOVE_MADE.ordinal() + 1 ? in.readLong() : 0;
+					entries.add(new Entry(kind, null, key, in.readLong()));
+				}
+			}
+			return new GameLog(seed, entries);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Truncated game log", e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GameLog that = (GameLog) o;
+		return seed == that.seed && divergence(that) == -1;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(seed) + snapshot().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "GameLog{seed=" + seed + ", entries=" + size() + "}";
+	}
+
+	// A chosen move or an event
+	private static final class Entry {
+
+		final byte kind;
+		final Colour colour;
+		final long key;
+		final long digest;
+
+		Entry(byte kind, Colour colour, long key, long digest) {
+			this.kind = kind;
+			this.colour = colour;
+			this.key = key;
+			this.digest = digest;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			Entry entry = (Entry) o;
+			return kind == entry.kind && colour == entry.colour && key == entry.key
+					&& digest == entry.digest;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * kind + (colour == null ? -1 : colour.ordinal());
+			hash = 31 * hash + Long.hashCode(key);
+			return 31 * hash + Long.hashCode(digest);
+		}
+
+	}
+
+}
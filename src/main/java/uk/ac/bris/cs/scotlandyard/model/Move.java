@@ -1,7 +1,6 @@
 package uk.ac.bris.cs.scotlandyard.model;
 
 import java.io.Serializable;
-import java.util.Objects;
 
 /**
  * Base class for all kind of move in the Scotland Yard game
@@ -44,6 +43,7 @@ public abstract class Move implements Serializable {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(colour);
+		// Fits in 3 bits, 7 is left for a missing colour
+		return colour == null ? 7 : colour.ordinal();
 	}
 }
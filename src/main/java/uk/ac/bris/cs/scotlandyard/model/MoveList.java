@@ -0,0 +1,192 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An immutable set of one player's moves in {@link MoveOrder#CANONICAL}
+ * order, backed by a sorted array of {@link MoveOrder#key(Move)}s. Moves can
+ * be looked up by position with {@link #get(int)} and {@link #indexOf(Move)},
+ * so AIs can use the positions as an action space without converting the
+ * set. Membership is a binary search, nothing is hashed. <br>
+ * See {@link ScotlandYardModel#setIndexedMoves(boolean)}.
+ */
+public final class MoveList extends AbstractSet<Move> {
+
+	private final Colour colour;
+	private final long[] keys;
+	// Moves are created from their keys on first access
+	private final Move[] moves;
+
+	private MoveList(Colour colour, long[] keys) {
+		this.colour = colour;
+		this.keys = keys;
+		this.moves = new Move[keys.length];
+	}
+
+	/**
+	 * @param moves the moves of a single player; not null, not empty
+	 * @return the moves in canonical order; never null
+	 * @throws IllegalArgumentException if the moves are of several players
+	 */
+	public static MoveList of(Collection<Move> moves) {
+		if (requireNonNull(moves).isEmpty())
+			throw new IllegalArgumentException("No moves");
+		if (moves instanceof MoveList) return (MoveList) moves;
+		Colour colour = moves.iterator().next().colour();
+		Builder builder = new Builder(colour);
+		for (Move move : moves) {
+			if (move.colour() != colour)
+				throw new IllegalArgumentException("Moves of " + colour + " and " + move.colour());
+			builder.add(MoveOrder.key(move));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return the colour of the player the moves are for; never null
+	 */
+	public Colour colour() {
+		return colour;
+	}
+
+	/**
+	 * @param index the position of the move
+	 * @return the move at the position; never null
+	 * @throws IndexOutOfBoundsException if there is no move at the position
+	 */
+	public Move get(int index) {
+		Move move = moves[index];
+		// Racing threads may both create the move, which is harmless as all
+		// fields are final and equality does not rely on identity
+		if (move == null) {
+			move = MoveOrder.fromKey(colour, keys[index]);
+			moves[index] = move;
+		}
+		return move;
+	}
+
+	/**
+	 * @param index the position of the move
+	 * @return the {@link MoveOrder#key(Move)} of the move at the position
+	 * @throws IndexOutOfBoundsException if there is no move at the position
+	 */
+	public long key(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * @param move the move
+	 * @return the position of the move, -1 if it is not in the list
+	 */
+	public int indexOf(Move move) {
+		if (move == null || move.colour() != colour || !MoveOrder.hasKey(move)) return -1;
+		int index = Arrays.binarySearch(keys, MoveOrder.key(move));
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * @return an unmodifiable list view of the moves in the same order; never
+	 *         null
+	 */
+	public List<Move> asList() {
+		return new Indexed();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return o instanceof Move && indexOf((Move) o) != -1;
+	}
+
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	@Override
+	public Iterator<Move> iterator() {
+		return new Iterator<Move>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < keys.length;
+			}
+
+			@Override
+			public Move next() {
+				if (next == keys.length) throw new NoSuchElementException();
+				return get(next++);
+			}
+		};
+	}
+
+	private final class Indexed extends AbstractList<Move> implements RandomAccess {
+
+		@Override
+		public Move get(int index) {
+			return MoveList.this.get(index);
+		}
+
+		@Override
+		public int indexOf(Object o) {
+			return o instanceof Move ? MoveList.this.indexOf((Move) o) : -1;
+		}
+
+		@Override
+		public int lastIndexOf(Object o) {
+			return indexOf(o);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return MoveList.this.contains(o);
+		}
+
+		@Override
+		public int size() {
+			return keys.length;
+		}
+
+	}
+
+	// Collects the keys of moves in any order
+	static final class Builder {
+
+		private final Colour colour;
+		private long[] keys = new long[32];
+		private int size;
+
+		Builder(Colour colour) {
+			this.colour = colour;
+		}
+
+		void add(long key) {
+			if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+			keys[size++] = key;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		MoveList build() {
+			long[] sorted = Arrays.copyOf(keys, size);
+			Arrays.sort(sorted);
+			int unique = 0;
+			for (int i = 0; i < sorted.length; i++)
+				if (i == 0 || sorted[i] != sorted[unique - 1]) sorted[unique++] = sorted[i];
+			return new MoveList(colour, unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique));
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The canonical order of moves, by ticket then destination of the first
+ * move, a ticket move before the double moves starting with it, then by
+ * ticket and destination of the second move; pass moves come last. The order
+ * depends on nothing but the moves themselves, unlike the iteration order of
+ * the sets given to {@link Player#makeMove(ScotlandYardView, int, Set, java.util.function.Consumer)}.
+ */
+public final class MoveOrder {
+
+	/**
+	 * Compares moves by their {@link #key(Move)}
+	 */
+	public static final Comparator<Move> CANONICAL = Comparator.comparingLong(MoveOrder::key);
+
+	private static final Ticket[] TICKETS = Ticket.values();
+	static final long PASS = Long.MAX_VALUE;
+
+	private MoveOrder() {}
+
+	/**
+	 * Encodes a move into a number ordered like {@link #CANONICAL}, the move
+	 * can be decoded again with {@link #fromKey(Colour, long)}. Destinations
+	 * must be below 65536.
+	 *
+	 * @param move the move; not null
+	 * @return the key of the move
+	 * @throws IllegalArgumentException if a destination is not within 0..65535
+	 *         or the move is not a ticket, double or pass move
+	 */
+	public static long key(Move move) {
+		if (requireNonNull(move) instanceof TicketMove) {
+			TicketMove single = (TicketMove) move;
+			return key(single.ticket(), single.destination());
+		}
+		if (move instanceof DoubleMove) {
+			TicketMove first = ((DoubleMove) move).firstMove();
+			TicketMove second = ((DoubleMove) move).secondMove();
+			return key(first.ticket(), first.destination(), second.ticket(), second.destination());
+		}
+		if (move instanceof PassMove) return PASS;
+		throw new IllegalArgumentException("Move " + move + " has no key");
+	}
+
+	// Whether the move is exactly a ticket, double or pass move with
+	// destinations that fit a key, i.e. whether it can equal a decoded move
+	static boolean hasKey(Move move) {
+		Class<?> type = move.getClass();
+		if (type == TicketMove.class) return fits(((TicketMove) move).destination());
+		if (type == DoubleMove.class) {
+			DoubleMove doubleMove = (DoubleMove) move;
+			return doubleMove.firstMove().getClass() == TicketMove.class
+					&& doubleMove.secondMove().getClass() == TicketMove.class
+					&& fits(doubleMove.firstMove().destination())
+					&& fits(doubleMove.secondMove().destination());
+		}
+		return type == PassMove.class;
+	}
+
+	// Ticket and destination of the move, 0 in place of a second ticket so
+	// that it sorts before the double moves starting with it
+	static long key(Ticket ticket, int destination) {
+		return (long) ticket.ordinal() << 40 | (long) checkDestination(destination) << 24;
+	}
+
+	static long key(Ticket first, int firstDestination, Ticket second, int secondDestination) {
+		return key(first, firstDestination)
+				| (long) (second.ordinal() + 1) << 16 | checkDestination(secondDestination);
+	}
+
+	// Destinations take 16 bits of the key, anything wider would spill into
+	// the tickets
+	private static int checkDestination(int destination) {
+		if (!fits(destination))
+			throw new IllegalArgumentException("Destination " + destination + " does not fit a move key");
+		return destination;
+	}
+
+	private static boolean fits(int destination) {
+		return destination >= 0 && destination <= 0xFFFF;
+	}
+
+	/**
+	 * Decodes a move encoded with {@link #key(Move)}
+	 *
+	 * @param colour the colour of the player making the move; not null
+	 * @param key the key of the move
+	 * @return the move; never null
+	 */
+	public static Move fromKey(Colour colour, long key) {
+		requireNonNull(colour);
+		if (key == PASS) return PassMove.of(colour);
+		TicketMove first = TicketMove.of(colour, TICKETS[(int) (key >>> 40)],
+				(int) (key >>> 24) & 0xFFFF);
+		int second = (int) (key >>> 16) & 0xFF;
+		if (second == 0) return first;
+		return new DoubleMove(colour, first,
+				TicketMove.of(colour, TICKETS[second - 1], (int) key & 0xFFFF));
+	}
+
+	/**
+	 * @param moves the moves; not null
+	 * @return an unmodifiable set of the moves, iterating in canonical order;
+	 *         never null
+	 */
+	public static Set<Move> sorted(Collection<Move> moves) {
+		Move[] array = moves.toArray(new Move[0]);
+		Arrays.sort(array, CANONICAL);
+		return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(array)));
+	}
+
+}
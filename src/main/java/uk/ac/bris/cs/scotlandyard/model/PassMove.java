@@ -8,6 +8,14 @@ import java.util.Objects;
 public class PassMove extends Move {
 
 	private static final long serialVersionUID = 3547117852693198139L;
+	private static final PassMove[] INTERNED = new PassMove[Colour.values().length];
+
+	static {
+		for (Colour colour : Colour.values()) {
+			INTERNED[colour.ordinal()] = new PassMove(colour);
+		}
+	}
+
 	/**
 	 * Create a new pass move
 	 *
@@ -17,16 +25,28 @@ public class PassMove extends Move {
 		super(colour);
 	}
 
+	/**
+	 * Returns the canonical pass move for the given colour
+	 *
+	 * @param colour the colour of the player playing this move; not null
+	 * @return the shared pass move; never null
+	 */
+	public static PassMove of(Colour colour) {
+		return INTERNED[Objects.requireNonNull(colour).ordinal()];
+	}
+
 	@Override
 	public void visit(MoveVisitor visitor) {
 		Objects.requireNonNull(visitor).visit(this);
 	}
 
+	private Object readResolve() {
+		return colour() == null ? this : of(colour());
+	}
+
 	@Override
 	public String toString() {
 		return "Pass[" + colour() + "]";
 	}
 
-
-
 }
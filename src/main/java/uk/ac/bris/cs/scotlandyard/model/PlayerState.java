@@ -0,0 +1,97 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import java.util.Arrays;
+
+/**
+ * The state of a single player as visible to spectators at one point in
+ * time, see {@link GameEvent#players()}. MrX's location is his last revealed
+ * location, as returned by {@link ScotlandYardView#getPlayerLocation(Colour)}
+ */
+public final class PlayerState {
+
+	private static final Ticket[] TICKETS = Ticket.values();
+
+	private final Colour colour;
+	private final int location;
+	// Indexed by Ticket.ordinal()
+	private final int[] tickets;
+
+	private PlayerState(Colour colour, int location, int[] tickets) {
+		this.colour = colour;
+		this.location = location;
+		this.tickets = tickets;
+	}
+
+	/**
+	 * Reads the state of a player from the given view, the given previous
+	 * state is returned instead if nothing has changed
+	 *
+	 * @param view the view to read from; not null
+	 * @param colour the colour of the player; not null
+	 * @param previous the previous state of the same player, may be null
+	 * @return the state; never null
+	 */
+	static PlayerState of(ScotlandYardView view, Colour colour, PlayerState previous) {
+		int location = view.locationOf(colour);
+		boolean same = previous != null && previous.colour == colour
+				&& previous.location == location;
+		int[] tickets = same ? null : new int[TICKETS.length];
+		for (Ticket ticket : TICKETS) {
+			int count = view.ticketsOf(colour, ticket);
+			if (same && previous.tickets[ticket.ordinal()] != count) {
+				same = false;
+				tickets = previous.tickets.clone();
+			}
+			if (!same) tickets[ticket.ordinal()] = count;
+		}
+		return same ? previous : new PlayerState(colour, location, tickets);
+	}
+
+	/**
+	 * @return the colour of the player; never null
+	 */
+	public Colour colour() {
+		return colour;
+	}
+
+	/**
+	 * @return the location of the player, for MrX this is his last revealed
+	 *         location or 0 if he has not been revealed yet
+	 */
+	public int location() {
+		return location;
+	}
+
+	/**
+	 * @param ticket the ticket; not null
+	 * @return the number of the given ticket the player has
+	 */
+	public int tickets(Ticket ticket) {
+		return tickets[ticket.ordinal()];
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		PlayerState that = (PlayerState) o;
+		return colour == that.colour && location == that.location
+				&& Arrays.equals(tickets, that.tickets);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * colour.hashCode() + location) + Arrays.hashCode(tickets);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(colour).append('@').append(location).append('{');
+		for (Ticket ticket : TICKETS) {
+			if (ticket.ordinal() > 0) sb.append(", ");
+			sb.append(ticket).append('=').append(tickets[ticket.ordinal()]);
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -21,22 +21,45 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
-import uk.ac.bris.cs.gamekit.graph.Edge;
 import uk.ac.bris.cs.gamekit.graph.Graph;
 import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.metrics.Histogram;
+import uk.ac.bris.cs.gamekit.metrics.MetricsRegistry;
 import uk.ac.bris.cs.gamekit.graph.Graph;
 
 public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, MoveVisitor {
+	// The tickets a single move can be made with
+	private static final Ticket[] MOVE_TICKETS = {TAXI, BUS, UNDERGROUND, SECRET};
 	private final List<Boolean> rounds;
-	private final Graph<Integer, Transport> graph;
+	private final ImmutableGraph<Integer, Transport> graph;
+	private final DestinationTable destinations;
 	private List<ScotlandYardPlayer> players = new ArrayList<>();
+	// Players indexed by Colour.ordinal(), null for colours not in the game
+	private final ScotlandYardPlayer[] playersByColour = new ScotlandYardPlayer[Colour.values().length];
+	private final List<Colour> colours;
 	private Integer currentPlayer = 0;
 	private Integer prevPlayer = 0;
 	private Integer currentRound = NOT_STARTED;
 	private Integer prevMrXLocation = 0;
 	private Set<Move> moves = new HashSet<>();
 	private Set<Colour> winners = new HashSet<>();
+	private final Set<Colour> winnersView = Collections.unmodifiableSet(winners);
 	private List<Spectator> spectators = new ArrayList<>();
+	// Timings in nanoseconds, all null when metrics are off, see setMetrics()
+	private MetricsRegistry metrics;
+	private Histogram moveGeneration;
+	private Histogram moveValidation;
+	// Callback timings of each spectator, in the same order as spectators
+	private List<Histogram> spectatorTimes = new ArrayList<>();
+	// The last event handed to GameEventListeners, later events share with it
+	private GameEvent lastEvent;
+	// Win conditions, kept up to date as moves are made so isGameOver() does
+	// not have to rescan every player
+	private boolean gameOver = false;
+	private boolean mrXCaptured = false;
+	private int stuckDetectives = 0;
+	// Whether players are given a MoveList instead of a HashSet
+	private boolean indexedMoves = false;
 
 	public ScotlandYardModel(List<Boolean> rounds, Graph<Integer, Transport> graph,
 			PlayerConfiguration mrX, PlayerConfiguration firstDetective,
@@ -51,7 +74,9 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		if (requireNonNull(graph).isEmpty()) {
 			throw new IllegalArgumentException("Empty graph/map");
 		}
-		this.graph = graph;
+		// Copy the graph once so that getGraph() can hand out the same instance
+		this.graph = ImmutableGraph.copyOf(graph);
+		this.destinations = DestinationTable.of(this.graph);
 
 		// Make sure the colour given for mrX is black
 		if (mrX.colour.isDetective()) {
@@ -98,6 +123,92 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		for (PlayerConfiguration config : configurations) {
 			players.add(new ScotlandYardPlayer(config.player, config.colour, config.location, config.tickets));
 		}
+		// Index the players by colour and cache the list of colours for the queries
+		List<Colour> order = new ArrayList<>();
+		for (ScotlandYardPlayer player : players) {
+			playersByColour[player.colour().ordinal()] = player;
+			order.add(player.colour());
+			if (player.isDetective() && !canTravel(player)) {
+				stuckDetectives += 1;
+			}
+		}
+		this.colours = unmodifiableList(order);
+	}
+
+	/**
+	 * Resumes a game from a checkpoint previously taken with {@link #checkpoint()}.
+	 * The returned model is at the start of a rotation, call {@link #startRotate()}
+	 * to continue the game.
+	 *
+	 * @param checkpoint the checkpoint to resume from; not null
+	 * @param graph the graph the checkpointed game was using; not null
+	 * @param players the player implementation for each colour in the
+	 *        checkpoint; not null
+	 * @return the resumed model; never null
+	 */
+	public static ScotlandYardModel resume(GameCheckpoint checkpoint,
+			Graph<Integer, Transport> graph, Map<Colour, Player> players) {
+		requireNonNull(checkpoint);
+		requireNonNull(players);
+		List<PlayerConfiguration> configurations = new ArrayList<>();
+		for (int i = 0; i < checkpoint.playerCount(); i++) {
+			Colour colour = checkpoint.colour(i);
+			Player player = players.get(colour);
+			if (player == null) {
+				throw new IllegalArgumentException("No player supplied for " + colour);
+			}
+			configurations.add(new PlayerConfiguration.Builder(colour)
+					.using(player)
+					.with(checkpoint.tickets(i))
+					.at(checkpoint.location(i))
+					.build());
+		}
+		ScotlandYardModel model = new ScotlandYardModel(checkpoint.rounds(), graph,
+				configurations.get(0), configurations.get(1),
+				configurations.subList(2, configurations.size())
+						.toArray(new PlayerConfiguration[0]));
+		model.currentRound = checkpoint.currentRound();
+		model.currentPlayer = checkpoint.currentPlayer();
+		model.prevPlayer = checkpoint.previousPlayer();
+		model.prevMrXLocation = checkpoint.mrXLastKnownLocation();
+		// isGameOver() is ran to ensure the winners set is restored.
+		model.isGameOver();
+		return model;
+	}
+
+	/**
+	 * Takes a checkpoint of the game that can later be resumed with
+	 * {@link #resume(GameCheckpoint, Graph, Map)}. Checkpoints can only be taken
+	 * between rotations, i.e. while it is MrX's turn, for example from
+	 * {@link Spectator#onRotationComplete(ScotlandYardView)}. A checkpoint
+	 * taken before the first rotation resumes as a game that has not started.
+	 * Finished games cannot be checkpointed, a captured MrX shares his location
+	 * with a detective, which no game can start from.
+	 *
+	 * @return the checkpoint; never null
+	 * @throws IllegalStateException if a rotation is in progress or the game
+	 *         is over
+	 */
+	public GameCheckpoint checkpoint() {
+		if (currentPlayer != 0) {
+			throw new IllegalStateException("Checkpoints can only be taken between rotations");
+		}
+		if (isGameOver()) {
+			throw new IllegalStateException("Cannot take a checkpoint of a finished game");
+		}
+		Colour[] colours = new Colour[players.size()];
+		int[] locations = new int[players.size()];
+		int[][] tickets = new int[players.size()][Ticket.values().length];
+		for (int i = 0; i < players.size(); i++) {
+			ScotlandYardPlayer player = players.get(i);
+			colours[i] = player.colour();
+			locations[i] = player.location();
+			for (Ticket ticket : Ticket.values()) {
+				tickets[i][ticket.ordinal()] = player.ticketCount(ticket);
+			}
+		}
+		return new GameCheckpoint(rounds, currentRound, currentPlayer, prevPlayer,
+				prevMrXLocation, colours, locations, tickets);
 	}
 
 	// Returns whether a detective is in the supplied location
@@ -110,85 +221,196 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		return false;
 	}
 
-	// Generates a set of valid double moves given a first move
-	private Set<Move> doubleMoves(Colour colour, Integer location, Ticket prevTicket) {
-		HashSet<Move> moves = new HashSet<>();
-		// Check if the player can make double moves before generating anything
-		if (colour.isMrX() && getPlayerTickets(colour, DOUBLE).get() > 0 && currentRound < getRounds().size() - 1) {
-			// Iterate over the list of edges from the current position of the player
-			// Each of these edges is a potential move that can be made
-			for (Edge<Integer,Transport> edge : graph.getEdgesFrom(graph.getNode(location))) {
-				Transport transport = edge.data();
-				Integer destination = edge.destination().value();
-				if (!locationOccupiedByDetective(destination)) {
-					// Ticket used in first half of double move is not actually
-					// subtracted from the players ticket count. If a ticket type
-					// used in the first half will be used in the second, make
-					// sure the player has enough.
-					Integer minimumTicketCount = (Ticket.fromTransport(transport) == prevTicket) ? 1 : 0;
-					if (getPlayerTickets(colour, Ticket.fromTransport(transport)).get() > minimumTicketCount) {
-						moves.add(new DoubleMove(colour, prevTicket, location, Ticket.fromTransport(transport), destination));
-					}
-					// Don't forget the possibility of using secret tickets. They
-					// can be used for any type of transport.
-					minimumTicketCount = (prevTicket == SECRET) ? 1 : 0;
-					if (getPlayerTickets(colour, SECRET).get() > 0 && transport != Transport.FERRY) {
-						moves.add(new DoubleMove(colour, prevTicket, location, SECRET, destination));
+	// Returns whether a detective can still use any of their tickets
+	private static boolean canTravel(ScotlandYardPlayer detective) {
+		return detective.hasTickets(BUS) || detective.hasTickets(TAXI) || detective.hasTickets(UNDERGROUND);
+	}
+
+	// Returns whether the given ticket can be used to reach the destination at
+	// position k of the destination table. prevTicket is the ticket used for
+	// the first half of a double move, null for single moves.
+	private boolean canUseTicket(Colour colour, int k, Ticket ticket, Ticket prevTicket) {
+		// Ticket used in first half of double move is not actually
+		// subtracted from the players ticket count. If a ticket type
+		// used in the first half will be used in the second, make
+		// sure the player has enough.
+		if (destinations.hasTransport(k, ticket) && ticketsOf(colour, ticket) > (ticket == prevTicket ? 1 : 0)) {
+			return true;
+		}
+		// Don't forget the possibility of using secret tickets. They
+		// can be used for any type of transport.
+		return ticket == SECRET && destinations.allowsSecret(k) && ticketsOf(colour, SECRET) > 0;
+	}
+
+	// Adds the valid double moves given a first move
+	private void addDoubleMoves(MoveList.Builder moves, Colour colour, int location, Ticket prevTicket) {
+		// Every destination appears once in the table however many transports
+		// lead there, so no move is generated twice
+		int end = destinations.end(location);
+		for (int k = destinations.start(location); k < end; k++) {
+			int destination = destinations.destination(k);
+			if (!locationOccupiedByDetective(destination)) {
+				for (Ticket ticket : MOVE_TICKETS) {
+					if (canUseTicket(colour, k, ticket, prevTicket)) {
+						moves.add(MoveOrder.key(prevTicket, location, ticket, destination));
 					}
 				}
 			}
 		}
-		return moves;
 	}
 
-	// Generates the set of valid moves for the given colour. Includes doubles.
+	// Generates the set of valid moves for the given colour as players are
+	// given them, see setIndexedMoves(). Includes doubles.
 	private Set<Move> validMoves(Colour colour) {
-		HashSet<Move> moves = new HashSet<>();
-		Integer location = getPlayer(colour).get().location();
-		// Iterate over the list of edges from the current position of the player
-		// Each of these edges is a potential move that can be made
-		for (Edge<Integer,Transport> edge : graph.getEdgesFrom(graph.getNode(location))) {
-			Transport transport = edge.data();
-			Integer destination = edge.destination().value();
+		long start = moveGeneration == null ? 0 : System.nanoTime();
+		MoveList list = moveList(colour);
+		Set<Move> moves = indexedMoves ? list : new HashSet<>(list);
+		if (moveGeneration != null) moveGeneration.recordSince(start);
+		return moves;
+	}
+
+	// Generates the valid moves for the given colour in canonical order.
+	// Includes doubles.
+	private MoveList moveList(Colour colour) {
+		MoveList.Builder moves = new MoveList.Builder(colour);
+		int location = playersByColour[colour.ordinal()].location();
+		// Check if the player can make double moves before generating anything
+		boolean doubles = canDoubleMove(colour);
+		int end = destinations.end(location);
+		for (int k = destinations.start(location); k < end; k++) {
+			int destination = destinations.destination(k);
 			if (!locationOccupiedByDetective(destination)) {
-				// Don't forget to generate the potential double moves from the
-				// position of the first move.
-				if (getPlayerTickets(colour, Ticket.fromTransport(transport)).get() > 0) {
-					moves.add(new TicketMove(colour, Ticket.fromTransport(transport), destination));
-					moves.addAll(doubleMoves(colour, destination, Ticket.fromTransport(transport)));
-				}
-				// Don't forget the possibility of using secret tickets. They
-				// can be used for any type of transport.
-				if (getPlayerTickets(colour, SECRET).get() > 0 && transport != Transport.FERRY) {
-					moves.add(new TicketMove(colour, SECRET, destination));
-					moves.addAll(doubleMoves(colour, destination, SECRET));
+				for (Ticket ticket : MOVE_TICKETS) {
+					if (canUseTicket(colour, k, ticket, null)) {
+						moves.add(MoveOrder.key(ticket, destination));
+						// Don't forget to generate the potential double moves from the
+						// position of the first move.
+						if (doubles) {
+							addDoubleMoves(moves, colour, destination, ticket);
+						}
+					}
 				}
 			}
 		}
 		// If no possible moves are generated, add a passmove
 		if (moves.isEmpty()){
-			moves.add(new PassMove(colour));
+			moves.add(MoveOrder.PASS);
 		}
-		return moves;
+		return moves.build();
 	}
 
-	// Returns the ScotlandYardPlayer with given colour is it exists
-	private Optional<ScotlandYardPlayer> getPlayer(Colour colour) {
-		for (ScotlandYardPlayer player : players) {
-			if (player.colour() == colour) {
-				return Optional.of(player);
+	/**
+	 * Sets whether players are given their moves as a {@link MoveList}, sorted
+	 * in {@link MoveOrder#CANONICAL} order and indexable by position, instead
+	 * of a {@link HashSet}. Defaults to false.
+	 *
+	 * @param indexed whether to give players a {@link MoveList}
+	 */
+	public void setIndexedMoves(boolean indexed) {
+		this.indexedMoves = indexed;
+	}
+
+	/**
+	 * Sets where the model records its timings: move generation as
+	 * {@code model.validMoves}, move validation as {@code model.accept} and
+	 * every spectator callback as {@code model.spectator.<class>}. Nothing is
+	 * recorded by default; pass {@link MetricsRegistry#global()} to measure
+	 * along with the AI pool, or a registry of its own to measure a game
+	 * apart from others, e.g. on a server hosting many.
+	 *
+	 * @param metrics the registry to record into, null to record nothing
+	 */
+	public void setMetrics(MetricsRegistry metrics) {
+		this.metrics = metrics;
+		this.moveGeneration = metrics == null ? null : metrics.histogram("model.validMoves");
+		this.moveValidation = metrics == null ? null : metrics.histogram("model.accept");
+		for (int i = 0; i < spectatorTimes.size(); i++)
+			spectatorTimes.set(i, spectatorTimes(spectators.get(i)));
+	}
+
+	private Histogram spectatorTimes(Spectator spectator) {
+		return metrics == null ? null
+				: metrics.histogram("model.spectator." + spectator.getClass().getName());
+	}
+
+	/**
+	 * Returns whether the given player can make a move other than a
+	 * {@link PassMove}. Stops at the first move found and does not allocate.
+	 *
+	 * @param colour the colour of the player; not null
+	 * @return true if the player has at least one legal move
+	 * @throws IllegalArgumentException if the player is not in the game
+	 */
+	public boolean hasAnyLegalMove(Colour colour) {
+		// Double moves always start with a ticket move, no need to look at them
+		return countMoves(colour, requirePlayer(colour).location(), null, false, 1) > 0;
+	}
+
+	/**
+	 * Counts the moves the given player could make, the same moves the player
+	 * would be offered if it was their turn. The {@link PassMove} offered to a
+	 * player without any other move is not counted. Does not allocate.
+	 *
+	 * @param colour the colour of the player; not null
+	 * @param includeDoubles whether to count double moves
+	 * @return the number of legal moves, 0 if the player can only pass
+	 * @throws IllegalArgumentException if the player is not in the game
+	 */
+	public int countLegalMoves(Colour colour, boolean includeDoubles) {
+		return countMoves(colour, requirePlayer(colour).location(), null,
+				includeDoubles && canDoubleMove(colour), Integer.MAX_VALUE);
+	}
+
+	private ScotlandYardPlayer requirePlayer(Colour colour) {
+		ScotlandYardPlayer player = playersByColour[requireNonNull(colour).ordinal()];
+		if (player == null) {
+			throw new IllegalArgumentException(colour + " is not in the game");
+		}
+		return player;
+	}
+
+	// Returns whether the given player may make a double move this round
+	private boolean canDoubleMove(Colour colour) {
+		return colour.isMrX() && ticketsOf(colour, DOUBLE) > 0 && currentRound < getRounds().size() - 1;
+	}
+
+	// Counts the moves validMoves() or addDoubleMoves() would generate from the
+	// given location, up to the given limit. prevTicket is the ticket used for
+	// the first half of a double move, null for single moves.
+	private int countMoves(Colour colour, int location, Ticket prevTicket, boolean doubles, int limit) {
+		int count = 0;
+		int end = destinations.end(location);
+		for (int k = destinations.start(location); k < end; k++) {
+			int destination = destinations.destination(k);
+			if (locationOccupiedByDetective(destination)) {
+				continue;
+			}
+			for (Ticket ticket : MOVE_TICKETS) {
+				if (!canUseTicket(colour, k, ticket, prevTicket)) {
+					continue;
+				}
+				count += 1;
+				if (doubles) {
+					count += countMoves(colour, destination, ticket, false, limit - count);
+				}
+				if (count >= limit) {
+					return count;
+				}
 			}
 		}
-		return Optional.empty();
+		return count;
+	}
+
+	// Returns the ScotlandYardPlayer with given colour is it exists
+	private Optional<ScotlandYardPlayer> getPlayer(Colour colour) {
+		return Optional.ofNullable(playersByColour[colour.ordinal()]);
 	}
 
 	// Notify all spectators that a move has been made
 	private void notifyOnMoveMade(Move move) {
 		// isGameOver() is ran to ensure the winners set is updated.
 		isGameOver();
-		for (Spectator spectator : spectators) {
-			spectator.onMoveMade(this, move);
-		}
+		notifySpectators(GameEvent.Type.MOVE_MADE, move);
 	}
 
 	// Notify all spectators that a new round has started
@@ -198,11 +420,33 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 			this.prevMrXLocation = players.get(0).location();
 		}
 		currentRound += 1;
-		for (Spectator spectator : spectators) {
-			spectator.onRoundStarted(this, currentRound);
+		notifySpectators(GameEvent.Type.ROUND_STARTED, null);
+	}
+
+	// Notify all spectators of a callback, spectators that are
+	// GameEventListeners all receive the same event
+	private void notifySpectators(GameEvent.Type type, Move move) {
+		GameEvent event = null;
+		for (int i = 0; i < spectators.size(); i++) {
+			Spectator spectator = spectators.get(i);
+			if (spectator instanceof GameEventListener && event == null) {
+				event = GameEvent.of(type, move, this, lastEvent);
+				lastEvent = event;
+			}
+			Histogram times = spectatorTimes.get(i);
+			long start = times == null ? 0 : System.nanoTime();
+			notifySpectator(spectator, type, move, event);
+			if (times != null) times.recordSince(start);
 		}
 	}
 
+	// Notify a single spectator of a callback, with the model itself as the
+	// view unless the spectator takes events
+	private void notifySpectator(Spectator spectator, GameEvent.Type type, Move move, GameEvent event) {
+		if (spectator instanceof GameEventListener) event.dispatchTo(spectator);
+		else type.invoke(spectator, this, move);
+	}
+
 
 	@Override
 	// Start player rotation
@@ -220,9 +464,11 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 	// Player has chosen a move
 	public void accept(Move m) {
 		// Make sure the move given is valid and not null
-		if (!validMoves(getCurrentPlayer()).contains(requireNonNull(m))){
+		long start = moveValidation == null ? 0 : System.nanoTime();
+		if (!moveList(getCurrentPlayer()).contains(requireNonNull(m))){
 			throw new IllegalArgumentException("Move not in MOVES");
 		}
+		if (moveValidation != null) moveValidation.recordSince(start);
 		// Uppdate prevPlayer and currentPlayer trackers
 		prevPlayer = currentPlayer;
 		currentPlayer += 1;
@@ -233,9 +479,7 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		m.visit(this);
 		// If after making a move the game is over, stop rotating and notify spectators
 		if (isGameOver()) {
-			for (Spectator spectator : spectators) {
-				spectator.onGameOver(this, winners);
-			}
+			notifySpectators(GameEvent.Type.GAME_OVER, null);
 		}
 		// Continue rotation
 		else if (players.get(currentPlayer).isDetective()) {
@@ -244,9 +488,7 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		}
 		// Rotation ended.
 		else {
-			for (Spectator spectator : spectators) {
-				spectator.onRotationComplete(this);
-			}
+			notifySpectators(GameEvent.Type.ROTATION_COMPLETE, null);
 		}
 	}
 
@@ -258,9 +500,9 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		// Make sure destinations are only shown if the round they are played in
 		// is a reveal round. Otherwise just show the previous known location of MrX.
 		Integer destination = (rounds.get(currentRound)) ? move.firstMove().destination() : prevMrXLocation;
-		TicketMove firstMove = new TicketMove(player, move.firstMove().ticket(), destination);
+		TicketMove firstMove = TicketMove.of(player, move.firstMove().ticket(), destination);
 		destination = (rounds.get(currentRound + 1)) ? move.secondMove().destination() : firstMove.destination();
-		TicketMove secondMove = new TicketMove(player, move.secondMove().ticket(), destination);
+		TicketMove secondMove = TicketMove.of(player, move.secondMove().ticket(), destination);
 
 		players.get(prevPlayer).removeTicket(DOUBLE);
 		// Send notification to spectators and make the moves in the doublemove
@@ -284,6 +526,15 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		ScotlandYardPlayer player = players.get(prevPlayer);
 		player.removeTicket(move.ticket());
 		player.location(move.destination());
+		// Only the piece that moved can have caused a capture or got stuck
+		if (player.isMrX()) {
+			mrXCaptured |= locationOccupiedByDetective(player.location());
+		} else {
+			mrXCaptured |= player.location() == players.get(0).location();
+			if (!canTravel(player)) {
+				stuckDetectives += 1;
+			}
+		}
 
 		// If the player making the move is MrX, start a new round.
 		if (player.isMrX()) {
@@ -294,7 +545,7 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 			players.get(0).addTicket(move.ticket());
 		}
 		Integer destination = (player.isMrX()) ? prevMrXLocation : player.location();
-		notifyOnMoveMade(new TicketMove(player.colour(), move.ticket(), destination));
+		notifyOnMoveMade(TicketMove.of(player.colour(), move.ticket(), destination));
 	}
 
 	@Override
@@ -305,6 +556,7 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 			throw new IllegalArgumentException("Spectators already contains SPECTATOR");
 		}
 		spectators.add(spectator);
+		spectatorTimes.add(spectatorTimes(spectator));
 	}
 
 	@Override
@@ -314,6 +566,7 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		if (!spectators.contains(requireNonNull(spectator))) {
 			throw new IllegalArgumentException("Spectators list does not contain SPECTATOR");
 		}
+		spectatorTimes.remove(spectators.indexOf(spectator));
 		spectators.remove(spectator);
 	}
 
@@ -326,39 +579,47 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 	@Override
 	// Return an immutable list of the player colours in the game
 	public List<Colour> getPlayers() {
-		List<Colour> colours = new ArrayList<>();
-		for (ScotlandYardPlayer player : players){
-			colours.add(player.colour());
-		}
-		return Collections.unmodifiableList(colours);
+		return colours;
 	}
 
 	@Override
 	// Return an immutable list of the players that won.
 	public Set<Colour> getWinningPlayers() {
-		return Collections.unmodifiableSet(winners);
+		return winnersView;
 	}
 
 	@Override
 	// Return the previously known location of a player if they exist in the game
 	public Optional<Integer> getPlayerLocation(Colour colour) {
-		if (colour.isMrX()){
-			return Optional.of(prevMrXLocation);
-		}
-		// If the ScotlandYardPlayer associated with the colour exists, return its location
-		if (!getPlayer(colour).equals(Optional.empty())) {
-			return Optional.of(getPlayer(colour).get().location());
-		}
-		return Optional.empty();
+		int location = locationOf(colour);
+		return location == -1 ? Optional.empty() : Optional.of(location);
 	}
 
 	@Override
 	// Return the map of player tickets if the given player exists
 	public Optional<Integer> getPlayerTickets(Colour colour, Ticket ticket) {
-		if (!getPlayer(colour).equals(Optional.empty())) {
-			return Optional.of(getPlayer(colour).get().tickets().get(ticket));
+		if (playersByColour[colour.ordinal()] == null) {
+			return Optional.empty();
 		}
-		return Optional.empty();
+		return Optional.of(ticketsOf(colour, ticket));
+	}
+
+	@Override
+	// Return the previously known location of a player, -1 if they are not in the game
+	public int locationOf(Colour colour) {
+		if (colour.isMrX()) {
+			return prevMrXLocation;
+		}
+		ScotlandYardPlayer player = playersByColour[colour.ordinal()];
+		return player == null ? -1 : player.location();
+	}
+
+	@Override
+	// Return the number of tickets of a player, -1 if they are not in the game
+	public int ticketsOf(Colour colour, Ticket ticket) {
+		requireNonNull(ticket);
+		ScotlandYardPlayer player = playersByColour[colour.ordinal()];
+		return player == null ? -1 : player.ticketCount(ticket);
 	}
 
 	// Adds all the detectives to the winners set
@@ -372,14 +633,18 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 
 	@Override
 	public boolean isGameOver() {
+		// Nothing changes once the game is over
+		if (gameOver) {
+			return true;
+		}
 		// WINNERS: Detectives
 		// CASE: Mr.X is captured
 		// CASE: Mr.X is cornered
 		// CASE: Mr.X cannot move
-		if (locationOccupiedByDetective(players.get(0).location())){
+		if (mrXCaptured) {
 			// MrX has been captured!
 			addDetectivesToWinners();
-			return true;
+			return gameOver = true;
 		}
 		if (prevPlayer == players.size() - 1) {
 			ScotlandYardPlayer mrX = players.get(0);
@@ -387,12 +652,12 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 			// MrX cannot move!
 			if (!mrXHasTickets) {
 				addDetectivesToWinners();
-				return true;
+				return gameOver = true;
 			}
 			// MrX has been cornered by the detectives!
-			if (validMoves(players.get(0).colour()).size() == 1 && mrXHasTickets) {
+			if (!hasAnyLegalMove(mrX.colour())) {
 				addDetectivesToWinners();
-				return true;
+				return gameOver = true;
 			}
 		}
 
@@ -402,17 +667,12 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 		if (prevPlayer == players.size() - 1 && currentRound == rounds.size()) {
 			// MrX has evaded capture for the entire game!
 			winners.add(players.get(0).colour());
-			return true;
+			return gameOver = true;
 		}
-		allDetectivesStuck: {
-			for (ScotlandYardPlayer player : players) {
-				if (player.isDetective() && (player.hasTickets(BUS) || player.hasTickets(TAXI) || player.hasTickets(UNDERGROUND))) {
-					break allDetectivesStuck;
-				}
-			}
+		if (stuckDetectives == players.size() - 1) {
 			// All of the detectives have got themselves stuck
 			winners.add(players.get(0).colour());
-			return true;
+			return gameOver = true;
 		}
 		// No one has won
 		return false;
@@ -435,6 +695,6 @@ public class ScotlandYardModel implements ScotlandYardGame, Consumer<Move>, Move
 
 	@Override
 	public Graph<Integer, Transport> getGraph() {
-		return new ImmutableGraph<>(graph);
+		return graph;
 	}
 }
@@ -1,7 +1,11 @@
 package uk.ac.bris.cs.scotlandyard.model;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * A class that contains all the information about a particular player.
@@ -11,7 +15,11 @@ public class ScotlandYardPlayer {
 	private final Player player;
 	private final Colour colour;
 	private int location;
-	private final Map<Ticket, Integer> tickets;
+	// Ticket counts indexed by Ticket.ordinal()
+	private final int[] tickets = new int[TICKETS.length];
+	private final Map<Ticket, Integer> ticketsView = new TicketsView();
+
+	private static final Ticket[] TICKETS = Ticket.values();
 
 	/**
 	 * Constructs a new ScotlandYardPlayer object.
@@ -26,7 +34,7 @@ public class ScotlandYardPlayer {
 		this.player = player;
 		this.colour = colour;
 		this.location = location;
-		this.tickets = new HashMap<>(tickets);
+		tickets.forEach((ticket, count) -> this.tickets[ticket.ordinal()] = count);
 	}
 
 	/**
@@ -78,10 +86,18 @@ public class ScotlandYardPlayer {
 	}
 
 	/**
-	 * @return the player's current tickets.
+	 * @return a read-only view of the player's current tickets.
 	 */
 	public Map<Ticket, Integer> tickets() {
-		return tickets;
+		return ticketsView;
+	}
+
+	/**
+	 * @param ticket the ticket to count; not null
+	 * @return the number of the given ticket the player currently has.
+	 */
+	public int ticketCount(Ticket ticket) {
+		return tickets[ticket.ordinal()];
 	}
 
 	/**
@@ -103,10 +119,7 @@ public class ScotlandYardPlayer {
 	}
 
 	private void adjustTicketCount(Ticket ticket, int by) {
-		Integer ticketCount = tickets.get(ticket);
-		ticketCount += by;
-		tickets.remove(ticket);
-		tickets.put(ticket, ticketCount);
+		tickets[ticket.ordinal()] += by;
 	}
 
 	/**
@@ -116,7 +129,7 @@ public class ScotlandYardPlayer {
 	 * @return true if the player has the given ticket, false otherwise
 	 */
 	public boolean hasTickets(Ticket ticket) {
-		return tickets.get(ticket) != 0;
+		return tickets[ticket.ordinal()] != 0;
 	}
 
 	/**
@@ -129,7 +142,7 @@ public class ScotlandYardPlayer {
 	 *         otherwise
 	 */
 	public boolean hasTickets(Ticket ticket, int quantityInclusive) {
-		return tickets.get(ticket) >= quantityInclusive;
+		return tickets[ticket.ordinal()] >= quantityInclusive;
 	}
 
 	@Override
@@ -138,8 +151,58 @@ public class ScotlandYardPlayer {
 		sb.append("player=").append(player);
 		sb.append(", colour=").append(colour);
 		sb.append(", location=").append(location);
-		sb.append(", tickets=").append(tickets);
+		sb.append(", tickets=").append(ticketsView);
 		sb.append('}');
 		return sb.toString();
 	}
+
+	// Read-only map over the ticket array, entries are in ticket declaration order
+	private final class TicketsView extends AbstractMap<Ticket, Integer> {
+
+		private final Set<Entry<Ticket, Integer>> entries = new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<Ticket, Integer>> iterator() {
+				return new Iterator<>() {
+					private int next = 0;
+
+					@Override
+					public boolean hasNext() {
+						return next < TICKETS.length;
+					}
+
+					@Override
+					public Entry<Ticket, Integer> next() {
+						if (!hasNext()) throw new NoSuchElementException();
+						Ticket ticket = TICKETS[next++];
+						return new SimpleImmutableEntry<>(ticket, tickets[ticket.ordinal()]);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return TICKETS.length;
+			}
+		};
+
+		@Override
+		public Integer get(Object key) {
+			return key instanceof Ticket ? tickets[((Ticket) key).ordinal()] : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Ticket;
+		}
+
+		@Override
+		public int size() {
+			return TICKETS.length;
+		}
+
+		@Override
+		public Set<Entry<Ticket, Integer>> entrySet() {
+			return entries;
+		}
+	}
 }
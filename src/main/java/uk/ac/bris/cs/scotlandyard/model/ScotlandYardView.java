@@ -63,6 +63,34 @@ public interface ScotlandYardView {
 	 */
 	Optional<Integer> getPlayerTickets(Colour colour, Ticket ticket);
 
+	/**
+	 * Same as {@link #getPlayerLocation(Colour)} but without wrapping the
+	 * result, implementations should override this with a direct lookup.
+	 *
+	 * @param colour The colour of the player whose location is requested; not
+	 * null
+	 * @return The last known location of the player as defined by
+	 * {@link #getPlayerLocation(Colour)}, or -1 if the game does not have a
+	 * player with the specified colour
+	 */
+	default int locationOf(Colour colour) {
+		return getPlayerLocation(colour).orElse(-1);
+	}
+
+	/**
+	 * Same as {@link #getPlayerTickets(Colour, Ticket)} but without wrapping
+	 * the result, implementations should override this with a direct lookup.
+	 *
+	 * @param colour The colour of the player whose tickets are requested; not
+	 * null
+	 * @param ticket The type of tickets that is being requested; not null
+	 * @return The number of tickets of the given type, or -1 if the game does
+	 * not have a player with the specified colour
+	 */
+	default int ticketsOf(Colour colour, Ticket ticket) {
+		return getPlayerTickets(colour, ticket).orElse(-1);
+	}
+
 	/**
 	 * The game is over when Mr.X has been found or that all detectives are
 	 * stuck.
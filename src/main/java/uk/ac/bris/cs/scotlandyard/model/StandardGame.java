@@ -100,6 +100,21 @@ public class StandardGame {
 		return MRX_LOCATIONS.get(new Random(seed).nextInt(MRX_LOCATIONS.size()));
 	}
 
+	/**
+	 * Creates the random source of a player in a game with the given seed,
+	 * every player gets a different sequence which only depends on the seed
+	 * and its colour
+	 *
+	 * @param seed the game seed
+	 * @param colour the colour of the player; not null
+	 * @return a new random source
+	 */
+	public static Random generatePlayerRandom(long seed, Colour colour) {
+		// Spread the colours apart, Random only scrambles its seed lightly
+		long mixed = (seed + (colour.ordinal() + 1) * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+		return new Random(mixed ^ (mixed >>> 31));
+	}
+
 	/**
 	 * @return mutable map of default tickets for mrX
 	 */
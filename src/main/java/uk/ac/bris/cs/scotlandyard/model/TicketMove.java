@@ -8,6 +8,13 @@ import java.util.Objects;
 public class TicketMove extends Move {
 
 	private static final long serialVersionUID = -8579140322766860934L;
+
+	// Destinations below this bound are interned, which covers the standard map
+	private static final int INTERNED_DESTINATIONS = 512;
+	private static final int TICKETS = Ticket.values().length;
+	private static final TicketMove[] INTERNED = new TicketMove[
+			Colour.values().length * TICKETS * INTERNED_DESTINATIONS];
+
 	private final Ticket ticket;
 	private final int destination;
 
@@ -24,6 +31,33 @@ public class TicketMove extends Move {
 		this.ticket = ticket;
 	}
 
+	/**
+	 * Returns the canonical ticket move for the given colour, ticket and
+	 * destination. Interned moves are shared so equal moves are usually the
+	 * same instance; moves that cannot be interned(e.g. destinations beyond
+	 * the interning table) are created as usual.
+	 *
+	 * @param colour the colour of the player playing this move
+	 * @param ticket the ticket for this move
+	 * @param destination the destination for this move
+	 * @return the ticket move; never null
+	 */
+	public static TicketMove of(Colour colour, Ticket ticket, int destination) {
+		if (colour == null || ticket == null
+				|| destination < 0 || destination >= INTERNED_DESTINATIONS)
+			return new TicketMove(colour, ticket, destination);
+		int i = (colour.ordinal() * TICKETS + ticket.ordinal()) * INTERNED_DESTINATIONS
+				+ destination;
+		TicketMove move = INTERNED[i];
+		// Racing threads may both create the move, which is harmless as all
+		// fields are final and equality does not rely on identity
+		if (move == null) {
+			move = new TicketMove(colour, ticket, destination);
+			INTERNED[i] = move;
+		}
+		return move;
+	}
+
 	/**
 	 * @return the ticket used for this move
 	 */
@@ -52,9 +86,19 @@ public class TicketMove extends Move {
 		return destination == that.destination && ticket == that.ticket;
 	}
 
+	/**
+	 * Packed from the destination and the ticket and colour ordinals, so it is
+	 * cheap to compute and stable across runs
+	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(super.hashCode(), ticket, destination);
+		// Colour and ticket ordinals both fit in 3 bits, 7 is left for null
+		int ticketBits = ticket == null ? 7 : ticket.ordinal();
+		return (destination << 6) | (ticketBits << 3) | super.hashCode();
+	}
+
+	private Object readResolve() {
+		return of(colour(), ticket, destination);
 	}
 
 	@Override
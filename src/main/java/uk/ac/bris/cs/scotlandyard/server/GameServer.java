@@ -0,0 +1,146 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.PlayerConfiguration;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGame;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGameFactory;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+/**
+ * Hosts many concurrent games in one process. Games take turns on a shared
+ * executor, each through its own lock-free {@link SerialExecutor}, so no game
+ * holds a thread while it waits for a move. <br>
+ * Seats are either played by a player in this process or, when configured
+ * with {@link #submitted()}, by moves submitted through
+ * {@link ServerGame#awaitTurn(uk.ac.bris.cs.scotlandyard.model.Colour)}.
+ * Finished games stay on the server for a retention period, so their result
+ * can still be read, and are removed on a later access after that.
+ */
+public final class GameServer {
+
+	private static final Player SUBMITTED = (view, location, moves, callback) -> {
+		throw new IllegalStateException("Submitted seats are not asked directly");
+	};
+
+	/**
+	 * How long finished games are kept by default
+	 */
+	public static final Duration DEFAULT_RETENTION = Duration.ofMinutes(10);
+
+	private final ScotlandYardGameFactory factory;
+	private final Executor executor;
+	private final long retention;
+	private final AtomicInteger ids = new AtomicInteger();
+	// Running and retained games
+	private final Map<Integer, ServerGame> games = new ConcurrentHashMap<>();
+	// When each finished game expires, in System.nanoTime()
+	private final Map<Integer, Long> expiries = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a server keeping finished games for {@link #DEFAULT_RETENTION}
+	 *
+	 * @param factory the factory for the models of the games; not null
+	 * @param executor the executor all games take turns on; not null
+	 */
+	public GameServer(ScotlandYardGameFactory factory, Executor executor) {
+		this(factory, executor, DEFAULT_RETENTION);
+	}
+
+	/**
+	 * @param factory the factory for the models of the games; not null
+	 * @param executor the executor all games take turns on; not null
+	 * @param retention how long finished games are kept; not null, not
+	 *        negative
+	 */
+	public GameServer(ScotlandYardGameFactory factory, Executor executor, Duration retention) {
+		this.factory = requireNonNull(factory);
+		this.executor = requireNonNull(executor);
+		if (requireNonNull(retention).isNegative())
+			throw new IllegalArgumentException("Negative retention " + retention);
+		this.retention = retention.toNanos();
+	}
+
+	/**
+	 * @return the player to configure seats whose moves are submitted with
+	 *         {@link ServerGame.Turn#choose(int)}; never null
+	 */
+	public static Player submitted() {
+		return SUBMITTED;
+	}
+
+	/**
+	 * Creates and starts a game, arguments are as
+	 * {@link ScotlandYardGameFactory#createGame(List, Graph, PlayerConfiguration, PlayerConfiguration, PlayerConfiguration...)}
+	 *
+	 * @return the started game; never null
+	 */
+	public ServerGame newGame(List<Boolean> rounds, Graph<Integer, Transport> graph,
+			PlayerConfiguration mrX, PlayerConfiguration firstDetective,
+			PlayerConfiguration... restOfTheDetectives) {
+		ServerGame game = new ServerGame(ids.incrementAndGet(), new SerialExecutor(executor));
+		PlayerConfiguration[] rest = new PlayerConfiguration[restOfTheDetectives.length];
+		for (int i = 0; i < rest.length; i++)
+			rest[i] = seat(game, restOfTheDetectives[i]);
+		ScotlandYardGame model = factory.createGame(rounds, graph, seat(game, mrX),
+				seat(game, firstDetective), rest);
+		removeExpired();
+		games.put(game.id(), game);
+		game.result().whenComplete((winners, e) ->
+				expiries.put(game.id(), System.nanoTime() + retention));
+		game.start(model);
+		return game;
+	}
+
+	private static PlayerConfiguration seat(ServerGame game, PlayerConfiguration configuration) {
+		requireNonNull(configuration);
+		Player player = configuration.player == SUBMITTED
+				? game.submittedPlayer(configuration.colour)
+				: game.hostedPlayer(configuration.player);
+		return new PlayerConfiguration.Builder(configuration.colour)
+				.using(player)
+				.with(configuration.tickets)
+				.at(configuration.location)
+				.build();
+	}
+
+	/**
+	 * @param id the id of the game
+	 * @return the game if it is still running or finished within the
+	 *         retention period
+	 */
+	public Optional<ServerGame> game(int id) {
+		removeExpired();
+		return Optional.ofNullable(games.get(id));
+	}
+
+	/**
+	 * @return the games still running; never null
+	 */
+	public Collection<ServerGame> games() {
+		removeExpired();
+		return games.values().stream()
+				.filter(game -> !game.result().isDone())
+				.collect(toUnmodifiableList());
+	}
+
+	private void removeExpired() {
+		long now = System.nanoTime();
+		expiries.forEach((id, expiry) -> {
+			if (now - expiry >= 0 && expiries.remove(id, expiry)) games.remove(id);
+		});
+	}
+
+}
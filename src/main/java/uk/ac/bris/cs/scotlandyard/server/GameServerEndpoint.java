@@ -0,0 +1,164 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+
+/**
+ * A line based API to submit moves to the games of a {@link GameServer}, for
+ * clients on the same machine. Requests and their answers, answers may
+ * arrive in any order:
+ *
+ * <pre>
+ * WAIT &lt;game&gt; &lt;colour&gt;          TURN &lt;game&gt; &lt;colour&gt; &lt;location&gt; &lt;move&gt;...
+ * MOVE &lt;game&gt; &lt;colour&gt; &lt;index&gt;  OK &lt;game&gt; &lt;colour&gt;
+ * RESULT &lt;game&gt;                 OVER &lt;game&gt; &lt;colour&gt;...
+ * </pre>
+ *
+ * The index of a MOVE is into the moves of the last TURN of that seat on the
+ * same connection. Failures are answered with {@code ERROR <game> <message>}.
+ */
+public final class GameServerEndpoint {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GameServerEndpoint.class);
+
+	private final GameServer server;
+	// Reads requests, one thread per connection rather than per game
+	private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "game-server-connection");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @param server the server to submit moves to; not null
+	 */
+	public GameServerEndpoint(GameServer server) {
+		this.server = requireNonNull(server);
+	}
+
+	/**
+	 * Accepts connections until the server socket is closed, the socket
+	 * should be bound to the loopback address
+	 *
+	 * @param socket the server socket; not null
+	 * @throws IOException if accepting fails for another reason than the
+	 *         server socket being closed
+	 */
+	public void serve(ServerSocket socket) throws IOException {
+		while (!socket.isClosed()) {
+			Socket client;
+			try {
+				client = socket.accept();
+			} catch (IOException e) {
+				if (socket.isClosed()) return;
+				throw e;
+			}
+			connections.execute(() -> {
+				try (Socket closing = client) {
+					handle(closing);
+				} catch (IOException e) {
+					LOG.warn("Connection from {} failed", client.getRemoteSocketAddress(), e);
+				}
+			});
+		}
+	}
+
+	private void handle(Socket socket) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+		Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+		Map<String, ServerGame.Turn> turns = new ConcurrentHashMap<>();
+		String line;
+		while ((line = in.readLine()) != null) {
+			String[] words = line.trim().split("\\s+");
+			String game = words.length > 1 ? words[1] : "-";
+			try {
+				switch (words[0]) {
+					case "WAIT":
+						expect(words, 3);
+						Colour colour = Colour.valueOf(words[2]);
+						game(game).awaitTurn(colour).whenComplete((turn, e) -> {
+							if (e != null) {
+								write(out, "ERROR " + game + " " + message(e));
+								return;
+							}
+							turns.put(game + " " + colour, turn);
+							write(out, "TURN " + game + " " + colour + " " + turn.location() + " "
+									+ turn.moves().stream().map(Move::toString).collect(joining(" ")));
+						});
+						break;
+					case "MOVE":
+						expect(words, 4);
+						ServerGame.Turn turn = turns.remove(game + " " + words[2]);
+						if (turn == null) throw new IllegalStateException(
+								"No turn of " + words[2] + " waited for in game " + game);
+						turn.choose(Integer.parseInt(words[3])).whenComplete((done, e) -> write(out,
+								e != null ? "ERROR " + game + " " + message(e)
+										: "OK " + game + " " + turn.colour()));
+						break;
+					case "RESULT":
+						expect(words, 2);
+						game(game).result().whenComplete((winners, e) -> write(out,
+								e != null ? "ERROR " + game + " " + message(e)
+										: "OVER " + game + " " + winners.stream()
+												.map(Colour::toString).sorted().collect(joining(" "))));
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown request " + words[0]);
+				}
+			} catch (RuntimeException e) {
+				write(out, "ERROR " + game + " " + message(e));
+			}
+		}
+	}
+
+	private ServerGame game(String id) {
+		return server.game(Integer.parseInt(id)).orElseThrow(
+				() -> new IllegalArgumentException("No game " + id));
+	}
+
+	private static void expect(String[] words, int count) {
+		if (words.length != count) throw new IllegalArgumentException(
+				words[0] + " takes " + (count - 1) + " arguments");
+	}
+
+	private static String message(Throwable e) {
+		Throwable cause = e instanceof CompletionException && e.getCause() != null
+				? e.getCause() : e;
+		return String.valueOf(cause.getMessage());
+	}
+
+	// Answers are written from whichever thread completes them
+	private static void write(Writer out, String line) {
+		try {
+			synchronized (out) {
+				out.write(line);
+				out.write('\n');
+				out.flush();
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to answer {}", line, e);
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs tasks one at a time in submission order on a shared executor, without
+ * locks or a thread of its own. At most {@link #BATCH} tasks run per turn on
+ * the shared executor, so a busy game cannot starve the others. <br>
+ * A task that throws, even an {@link Error}, is logged and the next task runs.
+ * If the shared executor rejects a turn, the tasks are run on the thread
+ * submitting them instead, as with
+ * {@link java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy}.
+ */
+final class SerialExecutor implements Executor {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SerialExecutor.class);
+
+	static final int BATCH = 64;
+
+	private final Executor executor;
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+	// Tasks submitted but not yet run; the submitter raising it from 0 schedules the drain
+	private final AtomicInteger pending = new AtomicInteger();
+
+	SerialExecutor(Executor executor) {
+		this.executor = requireNonNull(executor);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		tasks.add(requireNonNull(task));
+		if (pending.getAndIncrement() == 0) schedule();
+	}
+
+	private void schedule() {
+		try {
+			executor.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			// The count is already raised, nobody else will schedule the drain
+			LOG.warn("Executor rejected a turn, running it on the caller", e);
+			drain();
+		}
+	}
+
+	private void drain() {
+		for (int i = 0; i < BATCH; i++) {
+			// Never null, every count is preceded by its add
+			Runnable task = tasks.poll();
+			try {
+				task.run();
+			} catch (Throwable e) {
+				// Any escape here would leave the tasks counted but never run
+				LOG.error("Task failed", e);
+			}
+			if (pending.decrementAndGet() == 0) return;
+		}
+		// Yield to other games, the remaining tasks stay counted
+		schedule();
+	}
+
+}
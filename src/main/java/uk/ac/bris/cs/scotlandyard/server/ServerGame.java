@@ -0,0 +1,245 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGame;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Spectator;
+
+/**
+ * A game hosted by a {@link GameServer}. <br>
+ * Everything touching the model runs on the game's {@link SerialExecutor}, so
+ * the model needs no locking and the fields below are confined to it.
+ */
+public final class ServerGame {
+
+	private final int id;
+	private final SerialExecutor sequencer;
+	private final CompletableFuture<Set<Colour>> result = new CompletableFuture<>();
+	private ScotlandYardGame game;
+	// The seat asked to move whose move has not been submitted yet
+	private Turn turn;
+	private final Map<Colour, List<CompletableFuture<Turn>>> waiters = new EnumMap<>(Colour.class);
+
+	ServerGame(int id, SerialExecutor sequencer) {
+		this.id = id;
+		this.sequencer = sequencer;
+	}
+
+	// Called once by the server before the game is published
+	void start(ScotlandYardGame game) {
+		this.game = game;
+		game.registerSpectator(new Spectator() {
+			@Override
+			public void onRotationComplete(ScotlandYardView view) {
+				// Queued instead of called, so rotations do not nest
+				run(ServerGame.this::rotate);
+			}
+
+			@Override
+			public void onGameOver(ScotlandYardView view, Set<Colour> winners) {
+				finish(winners);
+			}
+		});
+		run(this::rotate);
+	}
+
+	/**
+	 * @return the id of the game on its server
+	 */
+	public int id() {
+		return id;
+	}
+
+	/**
+	 * @return a future completing with the winners once the game is over, or
+	 *         exceptionally if the game failed; never null
+	 */
+	public CompletableFuture<Set<Colour>> result() {
+		return result;
+	}
+
+	/**
+	 * Waits for a seat whose moves are {@link GameServer#submitted()} to be
+	 * asked to move
+	 *
+	 * @param colour the seat; not null
+	 * @return a future completing with the turn, or exceptionally with an
+	 *         {@link IllegalStateException} if the game ends first; never null
+	 */
+	public CompletableFuture<Turn> awaitTurn(Colour colour) {
+		requireNonNull(colour);
+		CompletableFuture<Turn> future = new CompletableFuture<>();
+		run(() -> {
+			if (result.isDone()) future.completeExceptionally(new IllegalStateException(
+					"Game " + id + " is over"));
+			else if (turn != null && turn.colour == colour) future.complete(turn);
+			else waiters.computeIfAbsent(colour, c -> new ArrayList<>()).add(future);
+		});
+		return future;
+	}
+
+	// Runs a task on the sequencer, failing the game if it throws
+	private void run(Runnable task) {
+		sequencer.execute(() -> {
+			try {
+				task.run();
+			} catch (Throwable e) {
+				fail(e);
+			}
+		});
+	}
+
+	private void rotate() {
+		if (!game.isGameOver()) game.startRotate();
+	}
+
+	private void finish(Set<Colour> winners) {
+		result.complete(winners);
+		failWaiters();
+	}
+
+	private void fail(Throwable e) {
+		result.completeExceptionally(e);
+		failWaiters();
+	}
+
+	private void failWaiters() {
+		turn = null;
+		waiters.values().forEach(futures -> futures.forEach(future -> future
+				.completeExceptionally(new IllegalStateException("Game " + id + " is over"))));
+		waiters.clear();
+	}
+
+	// The player of a seat whose moves are submitted through a turn
+	Player submittedPlayer(Colour colour) {
+		requireNonNull(colour);
+		return (view, location, moves, callback) -> {
+			turn = new Turn(colour, location, ImmutableList.copyOf(moves), callback);
+			List<CompletableFuture<Turn>> futures = waiters.remove(turn.colour);
+			if (futures != null) futures.forEach(future -> future.complete(turn));
+		};
+	}
+
+	// The player of a seat played by a player in the server's process
+	Player hostedPlayer(Player player) {
+		requireNonNull(player);
+		// The move is queued instead of accepted inline, so that a player
+		// answering on another thread never touches the model concurrently
+		return (view, location, moves, callback) -> player.makeMove(view, location, moves,
+				move -> run(() -> callback.accept(move)));
+	}
+
+	/**
+	 * A seat being asked to move
+	 */
+	public final class Turn {
+
+		private final Colour colour;
+		private final int location;
+		private final List<Move> moves;
+		private final Consumer<Move> callback;
+
+		private Turn(Colour colour, int location, List<Move> moves, Consumer<Move> callback) {
+			this.colour = colour;
+			this.location = location;
+			this.moves = moves;
+			this.callback = callback;
+		}
+
+		/**
+		 * @return the game of the turn; never null
+		 */
+		public ServerGame game() {
+			return ServerGame.this;
+		}
+
+		/**
+		 * @return the seat asked to move; never null
+		 */
+		public Colour colour() {
+			return colour;
+		}
+
+		/**
+		 * @return the location of the seat as seen by the seat itself
+		 */
+		public int location() {
+			return location;
+		}
+
+		/**
+		 * @return the valid moves, in a fixed order for this turn; never null
+		 */
+		public List<Move> moves() {
+			return moves;
+		}
+
+		/**
+		 * Submits the move for this turn
+		 *
+		 * @param move one of {@link #moves()}; not null
+		 * @return a future completing once the move is made, or exceptionally
+		 *         with an {@link IllegalArgumentException} if the move is not
+		 *         valid or an {@link IllegalStateException} if this turn is no
+		 *         longer current; never null
+		 */
+		public CompletableFuture<Void> choose(Move move) {
+			requireNonNull(move);
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			run(() -> {
+				if (turn != this) {
+					future.completeExceptionally(new IllegalStateException(
+							"Turn of " + colour + " in game " + id + " is no longer current"));
+				} else if (!moves.contains(move)) {
+					future.completeExceptionally(new IllegalArgumentException(
+							move + " is not a valid move"));
+				} else {
+					turn = null;
+					try {
+						callback.accept(move);
+					} catch (Throwable e) {
+						future.completeExceptionally(e);
+						throw e;
+					}
+					future.complete(null);
+				}
+			});
+			return future;
+		}
+
+		/**
+		 * Submits the move at the given index of {@link #moves()}
+		 *
+		 * @param index the index of the move
+		 * @return see {@link #choose(Move)}
+		 */
+		public CompletableFuture<Void> choose(int index) {
+			if (index < 0 || index >= moves.size()) {
+				return CompletableFuture.failedFuture(new IllegalArgumentException(
+						"Move " + index + " of " + moves.size() + " does not exist"));
+			}
+			return choose(moves.get(index));
+		}
+
+		@Override
+		public String toString() {
+			return "Turn{game=" + id + ", colour=" + colour + ", moves=" + moves.size() + "}";
+		}
+
+	}
+
+}
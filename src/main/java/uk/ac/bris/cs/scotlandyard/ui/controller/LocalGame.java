@@ -22,6 +22,7 @@ import javafx.scene.control.TabPane;
 import javafx.scene.control.TabPane.TabClosingPolicy;
 import javafx.scene.control.TextArea;
 import javafx.stage.Stage;
+import uk.ac.bris.cs.gamekit.metrics.MetricsRegistry;
 import uk.ac.bris.cs.scotlandyard.ResourceManager;
 import uk.ac.bris.cs.scotlandyard.ResourceManager.ImageResource;
 import uk.ac.bris.cs.scotlandyard.ai.AIPool;
@@ -147,7 +148,7 @@ public final class LocalGame extends BaseGame implements Spectator {
 					mrX,
 					detectives.get(0),
 					detectives.stream().skip(1).toArray(PlayerConfiguration[]::new));
-
+			model.setMetrics(MetricsRegistry.global());
 
 			recorder.snap(model);
 
@@ -38,7 +38,7 @@ public class ModelProperty implements ModelConfiguration {
 	public static ModelProperty createDefault(ResourceManager manager) {
 		return new ModelProperty(Duration.ofMinutes(1), StandardGame.ROUNDS,
 				of(Colour.values()).map(PlayerProperty::new).collect(toList()),
-				new ImmutableGraph<>(manager.getGraph()));
+				ImmutableGraph.copyOf(manager.getGraph()));
 	}
 
 	@Override
@@ -0,0 +1,143 @@
+package uk.ac.bris.cs.gamekit.graph;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests copying, indexing and equality of {@link ImmutableGraph}
+ */
+public class ImmutableGraphTest {
+
+	// A square 1-2-3-4-1 with the edge data naming the edge
+	private static UndirectedGraph<Integer, String> square() {
+		UndirectedGraph<Integer, String> graph = new UndirectedGraph<>();
+		for (int i = 1; i <= 4; i++)
+			graph.addNode(new Node<>(i));
+		for (int i = 1; i <= 4; i++) {
+			int j = i % 4 + 1;
+			graph.addEdge(new Edge<>(graph.getNode(i), graph.getNode(j), i + "-" + j));
+		}
+		return graph;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T roundTrip(T value) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (T) in.readObject();
+		}
+	}
+
+	@Test
+	public void testCopyOfImmutableGraphIsSameInstance() {
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(square());
+		assertThat(ImmutableGraph.copyOf(graph)).isSameAs(graph);
+		assertThat(ImmutableGraph.copyOf((Graph<Integer, String>) graph)).isSameAs(graph);
+	}
+
+	@Test
+	public void testCopyOfMutableGraphIsNewInstance() {
+		UndirectedGraph<Integer, String> source = square();
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(source);
+		assertThat(ImmutableGraph.copyOf(source)).isNotSameAs(graph);
+
+		// Later changes to the source are not seen by the copy
+		source.addNode(new Node<>(5));
+		assertThat(graph.size()).isEqualTo(4);
+		assertThat(graph.containsNode(5)).isFalse();
+	}
+
+	@Test
+	public void testConstructorSharesStructuresOfImmutableGraph() {
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(square());
+		ImmutableGraph<Integer, String> copy = new ImmutableGraph<>(graph);
+		assertThat(copy).isNotSameAs(graph);
+		assertThat(copy.getNodes()).isSameAs(graph.getNodes());
+		assertThat(copy.getEdges()).isSameAs(graph.getEdges());
+		assertThat(copy.getEdgesFrom(new Node<>(1))).isSameAs(graph.getEdgesFrom(new Node<>(1)));
+		assertThat(copy).isEqualTo(graph);
+		assertThat(copy.hashCode()).isEqualTo(graph.hashCode());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testCopyOfNullShouldThrow() {
+		ImmutableGraph.copyOf(null);
+	}
+
+	@Test
+	public void testIndexOfMatchesNodeOrder() {
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(square());
+		List<Node<Integer>> nodes = graph.getNodes();
+		for (int i = 0; i < nodes.size(); i++)
+			assertThat(graph.indexOf(nodes.get(i).value())).isEqualTo(i);
+	}
+
+	@Test
+	public void testUnknownNodes() {
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(square());
+		for (int value : new int[] { 0, 5, -1 }) {
+			assertThat(graph.indexOf(value)).isEqualTo(-1);
+			assertThat(graph.containsNode(value)).isFalse();
+			assertThat(graph.getNode(value)).isNull();
+			assertThat(graph.getEdgesFrom(new Node<>(value))).isEmpty();
+			assertThat(graph.getEdgesTo(new Node<>(value))).isEmpty();
+		}
+		assertThat(graph.indexOf(null)).isEqualTo(-1);
+		assertThat(graph.containsNode(null)).isFalse();
+	}
+
+	@Test
+	public void testEqualsWithCachedHashes() throws Exception {
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(square());
+		ImmutableGraph<Integer, String> other = ImmutableGraph.copyOf(square());
+		assertThat(other).isNotSameAs(graph);
+
+		// Compare before and after both hashes are cached
+		assertThat(other).isEqualTo(graph);
+		int hash = graph.hashCode();
+		assertThat(other.hashCode()).isEqualTo(hash);
+		assertThat(graph.hashCode()).isEqualTo(hash);
+		assertThat(other).isEqualTo(graph);
+		assertThat(graph).isEqualTo(other);
+
+		UndirectedGraph<Integer, String> changed = square();
+		changed.addEdge(new Edge<>(changed.getNode(1), changed.getNode(3), "1-3"));
+		ImmutableGraph<Integer, String> different = ImmutableGraph.copyOf(changed);
+		assertThat(different).isNotEqualTo(graph);
+		assertThat(graph).isNotEqualTo(different);
+		assertThat(different.hashCode()).isNotEqualTo(hash);
+
+		// The cached hash is transient and recomputed after deserialisation
+		ImmutableGraph<Integer, String> read = roundTrip(graph);
+		assertThat(read).isEqualTo(graph);
+		assertThat(read.hashCode()).isEqualTo(hash);
+		assertThat(read.indexOf(3)).isEqualTo(graph.indexOf(3));
+	}
+
+	@Test
+	public void testMutatorsShouldThrow() {
+		ImmutableGraph<Integer, String> graph = ImmutableGraph.copyOf(square());
+		assertThatThrownBy(() -> graph.addNode(new Node<>(5)))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> graph.addEdge(
+				new Edge<>(graph.getNode(1), graph.getNode(3), "1-3")))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> graph.getNodes().add(new Node<>(5)))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThat(graph.size()).isEqualTo(4);
+	}
+
+}
@@ -0,0 +1,139 @@
+package uk.ac.bris.cs.gamekit.matrix;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.gamekit.matrix.MatrixOperations.INFINITY;
+import static uk.ac.bris.cs.gamekit.matrix.MatrixOperations.PARALLEL_THRESHOLD;
+import static uk.ac.bris.cs.gamekit.matrix.MatrixOperations.add;
+
+/**
+ * Tests {@link MatrixOperations}, comparing the sequential results with the
+ * parallel ones just below and above {@link MatrixOperations#PARALLEL_THRESHOLD}
+ */
+public class MatrixOperationsTest {
+
+	// A pool of its own so the parallel path splits even on a single core
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	private static final int[] SIZES = {
+			PARALLEL_THRESHOLD - 1, PARALLEL_THRESHOLD, PARALLEL_THRESHOLD + 67 };
+
+	private final MatrixOperations sequential = MatrixOperations.sequential();
+	private final MatrixOperations parallel = MatrixOperations.parallel(POOL);
+
+	@AfterClass
+	public static void shutdownPool() {
+		POOL.shutdown();
+	}
+
+	private static DoubleSquareMatrix doubles(int size, Random random) {
+		DoubleSquareMatrix m = new DoubleSquareMatrix(size, 0);
+		for (int i = 0; i < size; i++)
+			for (int j = 0; j < size; j++)
+				if (random.nextInt(4) == 0) m.put(i, j, random.nextDouble());
+		return m;
+	}
+
+	// Distances up to a million with about a third of the cells unreachable
+	private static IntSquareMatrix distances(int size, Random random) {
+		IntSquareMatrix m = new IntSquareMatrix(size, INFINITY);
+		for (int i = 0; i < size; i++)
+			for (int j = 0; j < size; j++)
+				if (random.nextInt(3) != 0) m.put(i, j, random.nextInt(1_000_000));
+		return m;
+	}
+
+	private static double[] doubleVector(int size, Random random) {
+		double[] vector = new double[size];
+		for (int i = 0; i < size; i++)
+			vector[i] = random.nextDouble();
+		return vector;
+	}
+
+	private static int[] intVector(int size, Random random) {
+		int[] vector = new int[size];
+		for (int i = 0; i < size; i++)
+			vector[i] = random.nextInt(5) == 0 ? INFINITY : random.nextInt(1_000_000);
+		return vector;
+	}
+
+	@Test
+	public void testDoubleOperationsMatchSequential() {
+		for (int size : SIZES) {
+			Random random = new Random(size);
+			DoubleSquareMatrix m = doubles(size, random);
+			double[] vector = doubleVector(size, random);
+			assertThat(parallel.multiply(m, vector, null))
+					.isEqualTo(sequential.multiply(m, vector, null));
+			assertThat(parallel.multiply(vector, m, null))
+					.isEqualTo(sequential.multiply(vector, m, null));
+			assertThat(parallel.rowSums(m, null)).isEqualTo(sequential.rowSums(m, null));
+
+			DoubleSquareMatrix normalised = new DoubleSquareMatrix(m);
+			sequential.normaliseRows(m);
+			parallel.normaliseRows(normalised);
+			assertThat(normalised).isEqualTo(m);
+		}
+	}
+
+	@Test
+	public void testIntOperationsMatchSequential() {
+		for (int size : SIZES) {
+			Random random = new Random(size);
+			IntSquareMatrix a = distances(size, random);
+			IntSquareMatrix b = distances(size, random);
+			int[] vector = intVector(size, random);
+			assertThat(parallel.minPlus(a, b, null)).isEqualTo(sequential.minPlus(a, b, null));
+			assertThat(parallel.minPlus(a, vector, null))
+					.isEqualTo(sequential.minPlus(a, vector, null));
+			assertThat(parallel.rowMinima(a, null)).isEqualTo(sequential.rowMinima(a, null));
+			assertThat(parallel.rowMaxima(a, null)).isEqualTo(sequential.rowMaxima(a, null));
+		}
+	}
+
+	@Test
+	public void testMinPlusMatchesNaiveProduct() {
+		Random random = new Random(42);
+		int size = 17;
+		IntSquareMatrix a = distances(size, random);
+		IntSquareMatrix b = distances(size, random);
+		IntSquareMatrix product = sequential.minPlus(a, b, null);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				long min = INFINITY;
+				for (int k = 0; k < size; k++) {
+					if (a.getInt(i, k) == INFINITY || b.getInt(k, j) == INFINITY) continue;
+					min = Math.min(min, (long) a.getInt(i, k) + b.getInt(k, j));
+				}
+				assertThat(product.getInt(i, j)).isEqualTo((int) min);
+			}
+		}
+	}
+
+	@Test
+	public void testMinPlusSaturatesLargeFiniteSums() {
+		IntSquareMatrix a = new IntSquareMatrix(2, INFINITY - 1);
+		IntSquareMatrix b = new IntSquareMatrix(2, 5);
+		assertThat(sequential.minPlus(a, b, null)).isEqualTo(new IntSquareMatrix(2, INFINITY));
+		assertThat(sequential.minPlus(a, new int[] { 5, INFINITY - 2 }, null))
+				.isEqualTo(new int[] { INFINITY, INFINITY });
+
+		a.put(0, 1, 3);
+		assertThat(sequential.minPlus(a, b, null).getInt(0, 0)).isEqualTo(8);
+	}
+
+	@Test
+	public void testAddSaturates() {
+		assertThat(add(1, 2)).isEqualTo(3);
+		assertThat(add(INFINITY - 1, 1)).isEqualTo(INFINITY);
+		assertThat(add(INFINITY / 2 + 1, INFINITY / 2 + 1)).isEqualTo(INFINITY);
+		assertThat(add(Integer.MIN_VALUE, -1)).isEqualTo(Integer.MIN_VALUE);
+		assertThat(add(INFINITY - 1, -5)).isEqualTo(INFINITY - 6);
+	}
+
+}
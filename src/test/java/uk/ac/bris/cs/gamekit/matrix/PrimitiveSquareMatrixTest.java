@@ -0,0 +1,88 @@
+package uk.ac.bris.cs.gamekit.matrix;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests the primitive square matrices against the boxed {@link SquareMatrix}
+ */
+public class PrimitiveSquareMatrixTest {
+
+	private static final int SIZE = 3;
+
+	private static SquareMatrix<Integer> boxed() {
+		SquareMatrix<Integer> matrix = new SquareMatrix<>(SIZE, 0);
+		for (int row = 0; row < SIZE; row++)
+			for (int column = 0; column < SIZE; column++)
+				matrix.put(row, column, row * SIZE + column);
+		return matrix;
+	}
+
+	private static IntSquareMatrix ints() {
+		IntSquareMatrix matrix = new IntSquareMatrix(SIZE, 0);
+		for (int row = 0; row < SIZE; row++)
+			for (int column = 0; column < SIZE; column++)
+				matrix.put(row, column, row * SIZE + column);
+		return matrix;
+	}
+
+	@Test
+	public void testViewsMatchBoxedMatrix() {
+		SquareMatrix<Integer> expected = boxed();
+		IntSquareMatrix matrix = ints();
+		for (int i = 0; i < SIZE; i++) {
+			assertThat(matrix.row(i)).isEqualTo(expected.row(i));
+			assertThat(matrix.column(i)).isEqualTo(expected.column(i));
+		}
+		assertThat(matrix.mainDiagonal()).isEqualTo(expected.mainDiagonal());
+		assertThat(matrix.antiDiagonal()).isEqualTo(expected.antiDiagonal());
+		assertThat(matrix.asList()).isEqualTo(expected.asList());
+		assertThat(matrix.column(1).toIntArray()).isEqualTo(new int[] { 1, 4, 7 });
+	}
+
+	@Test
+	public void testEqualsAndHashCodeMatchBoxedMatrix() {
+		IntSquareMatrix matrix = ints();
+		assertThat(matrix).isEqualTo(boxed());
+		assertThat(matrix).isEqualTo(new IntSquareMatrix(matrix));
+		assertThat(matrix.hashCode()).isEqualTo(boxed().hashCode());
+
+		DoubleSquareMatrix doubles = new DoubleSquareMatrix(SIZE, 0.5);
+		assertThat(doubles.hashCode()).isEqualTo(new SquareMatrix<>(SIZE, 0.5).hashCode());
+		ByteSquareMatrix bytes = new ByteSquareMatrix(SIZE, (byte) 7);
+		assertThat(bytes.hashCode()).isEqualTo(new SquareMatrix<>(SIZE, (byte) 7).hashCode());
+		assertThat(bytes).isNotEqualTo(new ByteSquareMatrix(SIZE, (byte) 8));
+	}
+
+	@Test
+	public void testSettersWriteThroughToViews() {
+		DoubleSquareMatrix matrix = new DoubleSquareMatrix(SIZE, 0);
+		DoubleSquareMatrix.Line row = matrix.row(2);
+		matrix.row(2, new double[] { 1, 2, 3 });
+		assertThat(row.toDoubleArray()).isEqualTo(new double[] { 1, 2, 3 });
+		matrix.column(0, List.of(4.0, 5.0, 6.0));
+		assertThat(row.getDouble(0)).isEqualTo(6.0);
+		matrix.put(1, 1, Double.valueOf(9));
+		assertThat(matrix.mainDiagonal()).containsExactly(4.0, 9.0, 3.0);
+		assertThat(matrix.toString()).isEqualTo("[4.0, 0.0, 0.0\n5.0, 9.0, 0.0\n6.0, 2.0, 3.0]");
+	}
+
+	@Test
+	public void testOutOfBoundsThrows() {
+		ByteSquareMatrix matrix = new ByteSquareMatrix(SIZE, (byte) 0);
+		assertThatThrownBy(() -> matrix.get(SIZE, 0))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> matrix.row(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> matrix.row(0).get(SIZE))
+				.isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> matrix.row(0, new byte[SIZE + 1]))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> matrix.put(0, 0, (Byte) null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+}
@@ -0,0 +1,120 @@
+package uk.ac.bris.cs.gamekit.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.gamekit.metrics.Histogram.BUCKETS;
+import static uk.ac.bris.cs.gamekit.metrics.Histogram.SUB_BUCKETS;
+import static uk.ac.bris.cs.gamekit.metrics.Histogram.bucketOf;
+import static uk.ac.bris.cs.gamekit.metrics.Histogram.highestValueOf;
+import static uk.ac.bris.cs.gamekit.metrics.Histogram.lowestValueOf;
+
+/**
+ * Tests the bucket and percentile maths of {@link Histogram}
+ */
+public class HistogramTest {
+
+	@Test
+	public void testSmallValuesHaveOwnBucket() {
+		for (int value = 0; value < SUB_BUCKETS; value++) {
+			assertThat(bucketOf(value)).isEqualTo(value);
+			assertThat(lowestValueOf(value)).isEqualTo(value);
+			assertThat(highestValueOf(value)).isEqualTo(value);
+		}
+	}
+
+	@Test
+	public void testBucketsAreContiguous() {
+		assertThat(lowestValueOf(0)).isEqualTo(0);
+		for (int bucket = 0; bucket < BUCKETS - 1; bucket++)
+			assertThat(lowestValueOf(bucket + 1)).isEqualTo(highestValueOf(bucket) + 1);
+		assertThat(highestValueOf(BUCKETS - 1)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testEveryBoundaryFallsIntoItsBucket() {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			assertThat(bucketOf(lowestValueOf(bucket))).isEqualTo(bucket);
+			assertThat(bucketOf(highestValueOf(bucket))).isEqualTo(bucket);
+		}
+		assertThat(bucketOf(Long.MAX_VALUE)).isEqualTo(BUCKETS - 1);
+	}
+
+	@Test
+	public void testBucketWidthIsWithinAnEighthOfItsValues() {
+		for (int bucket = SUB_BUCKETS; bucket < BUCKETS; bucket++) {
+			long lowest = lowestValueOf(bucket);
+			long width = highestValueOf(bucket) - lowest;
+			assertThat(width).isLessThanOrEqualTo(lowest / SUB_BUCKETS);
+		}
+	}
+
+	@Test
+	public void testPercentilesOfUniformValues() {
+		Histogram histogram = new Histogram("uniform");
+		for (int value = 1; value <= 1000; value++)
+			histogram.record(value);
+		Histogram.Snapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.count()).isEqualTo(1000);
+		assertThat(snapshot.sum()).isEqualTo(500500);
+		assertThat(snapshot.mean()).isEqualTo(500.5);
+		assertThat(snapshot.min()).isEqualTo(1);
+		assertThat(snapshot.max()).isEqualTo(1000);
+		for (int percentile : new int[]{1, 10, 50, 90, 99}) {
+			long exact = percentile * 10;
+			assertThat(snapshot.percentile(percentile))
+					.isGreaterThanOrEqualTo(exact)
+					.isLessThanOrEqualTo(exact + exact / SUB_BUCKETS);
+		}
+		assertThat(snapshot.percentile(0)).isEqualTo(1);
+		assertThat(snapshot.percentile(100)).isEqualTo(1000);
+	}
+
+	@Test
+	public void testPercentileIsClampedToRecordedRange() {
+		Histogram histogram = new Histogram("single");
+		histogram.record(1001);
+		Histogram.Snapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.percentile(0)).isEqualTo(1001);
+		assertThat(snapshot.percentile(50)).isEqualTo(1001);
+		assertThat(snapshot.percentile(100)).isEqualTo(1001);
+	}
+
+	@Test
+	public void testNegativeValuesAreRecordedAsZero() {
+		Histogram histogram = new Histogram("negative");
+		histogram.record(-5);
+		Histogram.Snapshot snapshot = histogram.snapshot();
+		assertThat(snapshot.count()).isEqualTo(1);
+		assertThat(snapshot.min()).isEqualTo(0);
+		assertThat(snapshot.max()).isEqualTo(0);
+	}
+
+	@Test
+	public void testEmptyAndResetSnapshotsAreZero() {
+		Histogram histogram = new Histogram("empty");
+		assertEmpty(histogram.snapshot());
+		histogram.record(42);
+		histogram.reset();
+		assertEmpty(histogram.snapshot());
+	}
+
+	private static void assertEmpty(Histogram.Snapshot snapshot) {
+		assertThat(snapshot.count()).isEqualTo(0);
+		assertThat(snapshot.min()).isEqualTo(0);
+		assertThat(snapshot.max()).isEqualTo(0);
+		assertThat(snapshot.mean()).isEqualTo(0.0);
+		assertThat(snapshot.percentile(50)).isEqualTo(0);
+	}
+
+	@Test
+	public void testPercentileOutOfRangeShouldThrow() {
+		Histogram.Snapshot snapshot = new Histogram("range").snapshot();
+		assertThatThrownBy(() -> snapshot.percentile(-1))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> snapshot.percentile(100.5))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
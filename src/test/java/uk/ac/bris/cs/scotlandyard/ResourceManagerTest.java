@@ -0,0 +1,94 @@
+package uk.ac.bris.cs.scotlandyard;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import javafx.scene.image.Image;
+import uk.ac.bris.cs.scotlandyard.model.StandardGame;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests how {@link ResourceManager} loads its resources, without a JavaFX
+ * toolkit: images are "loaded" by a function that records the paths asked for
+ */
+public class ResourceManagerTest {
+
+	private final List<String> loaded = new CopyOnWriteArrayList<>();
+
+	// Records the path and returns no image
+	private final Function<String, Image> recording = path -> {
+		loaded.add(path);
+		return null;
+	};
+
+	@Test
+	public void testGraphAndCoordinatesDecodeNoImages() throws IOException {
+		ResourceManager manager = new ResourceManager(recording);
+		assertThat(manager.getGraph()).isEqualTo(StandardGame.standardGraph());
+		assertThat(manager.coordinateX(1)).isNotEqualTo(-1);
+		assertThat(manager.distances().getInt(0, 0)).isEqualTo(0);
+		assertThat(loaded).isEmpty();
+
+		manager.getMap();
+		assertThat(loaded).containsExactly("/map_large.png");
+	}
+
+	@Test
+	public void testImagesAreLoadedOnce() throws IOException {
+		ResourceManager manager = new ResourceManager(recording);
+		manager.loadAllResources();
+		int count = loaded.size();
+		manager.loadAllResources();
+		manager.getMap();
+		assertThat(loaded).hasSize(count);
+		assertThat(loaded).doesNotHaveDuplicates();
+		assertThat(loaded).doesNotContain("/uob_logo.png");
+	}
+
+	@Test
+	public void testMissingResourceSurfacesAsIOException() {
+		IOException missing = new IOException("missing");
+		ResourceManager manager = new ResourceManager(path -> {
+			if (path.equals("/map_large.png")) throw new UncheckedIOException(missing);
+			return null;
+		});
+		try {
+			manager.loadAllResources();
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertThat(e).isSameAs(missing);
+		}
+		// The failed future is kept, so later calls fail the same way
+		try {
+			manager.loadAllResources();
+			fail("IOException expected");
+		} catch (IOException e) {
+			assertThat(e).isSameAs(missing);
+		}
+	}
+
+	@Test
+	public void testOtherFailuresAreRethrownUnchanged() throws IOException {
+		IllegalStateException broken = new IllegalStateException("broken");
+		ResourceManager manager = new ResourceManager(path -> {
+			throw broken;
+		});
+		try {
+			manager.loadAllResources();
+			fail("CompletionException expected");
+		} catch (CompletionException e) {
+			assertThat(e.getCause()).isSameAs(broken);
+		}
+		// Resources that do not need images are still available
+		assertThat(manager.getGraph()).isNotNull();
+	}
+
+}
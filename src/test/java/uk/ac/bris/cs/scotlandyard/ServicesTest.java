@@ -0,0 +1,41 @@
+package uk.ac.bris.cs.scotlandyard;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraphTest;
+import uk.ac.bris.cs.gamekit.matrix.MatrixOperationsTest;
+import uk.ac.bris.cs.gamekit.matrix.PrimitiveSquareMatrixTest;
+import uk.ac.bris.cs.gamekit.metrics.HistogramTest;
+import uk.ac.bris.cs.scotlandyard.ai.AIPoolTest;
+import uk.ac.bris.cs.scotlandyard.ai.ManagedAIProcessorTest;
+import uk.ac.bris.cs.scotlandyard.ai.MrXLocationBeliefTest;
+import uk.ac.bris.cs.scotlandyard.ai.remote.RemoteProtocolTest;
+import uk.ac.bris.cs.scotlandyard.ai.remote.RemoteWorkerTest;
+import uk.ac.bris.cs.scotlandyard.harness.ImmutableScotlandYardViewTest;
+import uk.ac.bris.cs.scotlandyard.server.GameServerEndpointTest;
+import uk.ac.bris.cs.scotlandyard.server.GameServerTest;
+import uk.ac.bris.cs.scotlandyard.server.SerialExecutorTest;
+
+/**
+ * Includes all test for the game kit, AI and server code built around the
+ * game model
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+		HistogramTest.class,
+		ImmutableGraphTest.class,
+		PrimitiveSquareMatrixTest.class,
+		MatrixOperationsTest.class,
+		MrXLocationBeliefTest.class,
+		AIPoolTest.class,
+		ManagedAIProcessorTest.class,
+		RemoteProtocolTest.class,
+		RemoteWorkerTest.class,
+		ImmutableScotlandYardViewTest.class,
+		SerialExecutorTest.class,
+		GameServerTest.class,
+		GameServerEndpointTest.class,
+		ResourceManagerTest.class,
+		StandardResourcesTest.class})
+public class ServicesTest {}
@@ -0,0 +1,102 @@
+package uk.ac.bris.cs.scotlandyard;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+import uk.ac.bris.cs.gamekit.graph.UndirectedGraph;
+import uk.ac.bris.cs.gamekit.matrix.IntSquareMatrix;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.gamekit.matrix.MatrixOperations.INFINITY;
+
+/**
+ * Tests the distances and coordinates of {@link StandardResources}
+ */
+public class StandardResourcesTest {
+
+	private static Entry<Integer, Integer> at(int x, int y) {
+		return new SimpleImmutableEntry<>(x, y);
+	}
+
+	// A path 1-2-3 and a separate pair 4-5
+	private static StandardResources twoComponents() {
+		UndirectedGraph<Integer, Transport> graph = new UndirectedGraph<>();
+		for (int i = 1; i <= 5; i++)
+			graph.addNode(new Node<>(i));
+		graph.addEdge(new Edge<>(graph.getNode(1), graph.getNode(2), Transport.TAXI));
+		graph.addEdge(new Edge<>(graph.getNode(2), graph.getNode(3), Transport.BUS));
+		graph.addEdge(new Edge<>(graph.getNode(4), graph.getNode(5), Transport.TAXI));
+		return new StandardResources(graph, Map.of(1, at(10, 20), 3, at(30, 40)));
+	}
+
+	private static void assertSymmetricWithZeroDiagonal(IntSquareMatrix distances) {
+		for (int i = 0; i < distances.size(); i++) {
+			assertThat(distances.getInt(i, i)).isEqualTo(0);
+			for (int j = 0; j < distances.size(); j++)
+				assertThat(distances.getInt(i, j)).isEqualTo(distances.getInt(j, i));
+		}
+	}
+
+	@Test
+	public void testDistancesOfStandardGraph() throws IOException {
+		StandardResources resources = StandardResources.load();
+		ImmutableGraph<Integer, Transport> graph = ImmutableGraph.copyOf(resources.getGraph());
+		IntSquareMatrix distances = resources.distances();
+		assertThat(distances.size()).isEqualTo(graph.size());
+		assertSymmetricWithZeroDiagonal(distances);
+		for (Edge<Integer, Transport> edge : graph.getEdges()) {
+			int i = graph.indexOf(edge.source().value());
+			int j = graph.indexOf(edge.destination().value());
+			if (i != j) assertThat(distances.getInt(i, j)).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testUnreachablePairsAreInfinity() {
+		StandardResources resources = twoComponents();
+		ImmutableGraph<Integer, Transport> graph = ImmutableGraph.copyOf(resources.getGraph());
+		IntSquareMatrix distances = resources.distances();
+		assertSymmetricWithZeroDiagonal(distances);
+		int one = graph.indexOf(1), two = graph.indexOf(2), three = graph.indexOf(3);
+		int four = graph.indexOf(4), five = graph.indexOf(5);
+		assertThat(distances.getInt(one, two)).isEqualTo(1);
+		assertThat(distances.getInt(one, three)).isEqualTo(2);
+		assertThat(distances.getInt(four, five)).isEqualTo(1);
+		for (int i : new int[] { one, two, three }) {
+			assertThat(distances.getInt(i, four)).isEqualTo(INFINITY);
+			assertThat(distances.getInt(i, five)).isEqualTo(INFINITY);
+		}
+	}
+
+	@Test
+	public void testDistancesAreCopied() {
+		StandardResources resources = twoComponents();
+		IntSquareMatrix distances = resources.distances();
+		distances.fill(7);
+		assertThat(resources.distances()).isNotSameAs(distances);
+		assertThat(resources.distances().getInt(0, 0)).isEqualTo(0);
+	}
+
+	@Test
+	public void testCoordinates() {
+		StandardResources resources = twoComponents();
+		assertThat(resources.coordinateX(1)).isEqualTo(10);
+		assertThat(resources.coordinateY(1)).isEqualTo(20);
+		assertThat(resources.coordinateX(3)).isEqualTo(30);
+		assertThat(resources.coordinateY(3)).isEqualTo(40);
+		// Nodes without coordinates, inside and outside the table
+		for (int node : new int[] { 0, 2, 4, 5, -1, Integer.MIN_VALUE, Integer.MAX_VALUE }) {
+			assertThat(resources.coordinateX(node)).isEqualTo(-1);
+			assertThat(resources.coordinateY(node)).isEqualTo(-1);
+		}
+	}
+
+}
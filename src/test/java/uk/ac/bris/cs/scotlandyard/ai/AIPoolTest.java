@@ -0,0 +1,129 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.bris.cs.gamekit.metrics.Histogram;
+import uk.ac.bris.cs.scotlandyard.ai.AIPool.ThreadedPlayer;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.bus;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.taxi;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests the think time budgets of players created by {@link AIPool}
+ */
+public class AIPoolTest {
+
+	// The fallback is the first in canonical order, the players pick the other
+	private static final Move FIRST = taxi(RED, 1);
+	private static final Move CHOSEN = bus(RED, 2);
+	private static final Set<Move> MOVES = Set.of(FIRST, CHOSEN);
+
+	private final AIUsage usage = new AIUsage();
+	private final AtomicInteger errors = new AtomicInteger();
+
+	private ThreadedPlayer budgeted(Player player, long soft, long hard) {
+		return new ThreadedPlayer(player, e -> errors.incrementAndGet(),
+				new Histogram("think"), usage, "test(RED)",
+				TimeUnit.MILLISECONDS.toNanos(soft), TimeUnit.MILLISECONDS.toNanos(hard), false);
+	}
+
+	private static CompletableFuture<Move> makeMove(Player player, AtomicInteger calls) {
+		CompletableFuture<Move> made = new CompletableFuture<>();
+		player.makeMove(null, 1, MOVES, move -> {
+			calls.incrementAndGet();
+			made.complete(move);
+		});
+		return made;
+	}
+
+	@Test
+	public void testMoveWithinBudgetsIsPlayed() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		Player player = budgeted((view, location, moves, callback) -> callback.accept(CHOSEN),
+				1000, 5000);
+		assertThat(makeMove(player, calls).get(10, TimeUnit.SECONDS)).isEqualTo(CHOSEN);
+		assertThat(usage.moves()).isEqualTo(1);
+		assertThat(usage.softOverruns()).isZero();
+		assertThat(usage.hardOverruns()).isZero();
+	}
+
+	@Test
+	public void testSlowMoveOverSoftBudgetIsCountedAndPlayed() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		Player player = budgeted((view, location, moves, callback) -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+			callback.accept(CHOSEN);
+		}, 10, 0);
+		assertThat(makeMove(player, calls).get(10, TimeUnit.SECONDS)).isEqualTo(CHOSEN);
+		assertThat(usage.moves()).isEqualTo(1);
+		assertThat(usage.softOverruns()).isEqualTo(1);
+		assertThat(usage.hardOverruns()).isZero();
+		assertThat(errors.get()).isZero();
+	}
+
+	@Test
+	public void testSlowMoveOverHardBudgetIsReplacedByFallback() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch late = new CountDownLatch(1);
+		Player player = budgeted((view, location, moves, callback) -> {
+			try {
+				Thread.sleep(10_000);
+			} catch (InterruptedException e) {
+				// Cut off, the move made now must be dropped
+			}
+			callback.accept(CHOSEN);
+			late.countDown();
+		}, 10, 100);
+		assertThat(makeMove(player, calls).get(10, TimeUnit.SECONDS)).isEqualTo(FIRST);
+		assertThat(late.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(calls.get()).isEqualTo(1);
+		assertThat(usage.hardOverruns()).isEqualTo(1);
+		assertThat(usage.moves()).isZero();
+		assertThat(errors.get()).isZero();
+	}
+
+	@Test
+	public void testEveryStartedMoveOverHardBudgetIsInterrupted() throws Exception {
+		AtomicInteger started = new AtomicInteger();
+		AtomicInteger finished = new AtomicInteger();
+		AtomicInteger uninterrupted = new AtomicInteger();
+		Player player = budgeted((view, location, moves, callback) -> {
+			started.incrementAndGet();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+			while (!Thread.currentThread().isInterrupted()) {
+				if (System.nanoTime() > deadline) {
+					uninterrupted.incrementAndGet();
+					break;
+				}
+			}
+			finished.incrementAndGet();
+			callback.accept(CHOSEN);
+		}, 0, 1);
+		// The watchdog races the start of each move, whichever way it goes the
+		// AI must either not run at all or be interrupted
+		for (int i = 0; i < 200; i++) {
+			AtomicInteger calls = new AtomicInteger();
+			assertThat(makeMove(player, calls).get(10, TimeUnit.SECONDS)).isEqualTo(FIRST);
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (finished.get() < started.get() && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertThat(finished.get()).isEqualTo(started.get());
+		assertThat(uninterrupted.get()).isZero();
+	}
+
+}
@@ -0,0 +1,127 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import uk.ac.bris.cs.scotlandyard.ai.remote.RemotePlayerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the {@link AI#INDEX} written by {@link ManagedAIProcessor} and how
+ * {@link AI} reads it
+ */
+public class ManagedAIProcessorTest {
+
+	private Path folder;
+
+	@Before
+	public void createFolder() throws IOException {
+		folder = Files.createTempDirectory("managed-ai");
+	}
+
+	@After
+	public void deleteFolder() throws IOException {
+		try (Stream<Path> paths = Files.walk(folder)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	private Path newFolder(String name) throws IOException {
+		return Files.createDirectory(folder.resolve(name));
+	}
+
+	private static Path write(Path root, String name, String content) throws IOException {
+		Path file = root.resolve(name);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	// Compiles the sources with the processor, returning the errors reported
+	private List<Diagnostic<? extends JavaFileObject>> compile(Path output, Path... sources)
+			throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, null)) {
+			compiler.getTask(null, files, diagnostics,
+					List.of("-d", output.toString(),
+							"-cp", System.getProperty("java.class.path"),
+							"-processor", ManagedAIProcessor.class.getName()),
+					null, files.getJavaFileObjects(sources)).call();
+		}
+		return diagnostics.getDiagnostics().stream()
+				.filter(d -> d.getKind() == Diagnostic.Kind.ERROR).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testProcessorIndexesTopLevelFactories() throws IOException {
+		Path sources = newFolder("src");
+		Path output = newFolder("out");
+		String header = "package test;\nimport uk.ac.bris.cs.scotlandyard.ai.*;\n";
+		assertThat(compile(output,
+				write(sources, "test/Beta.java", header
+						+ "@ManagedAI(\"Beta\") public abstract class Beta implements PlayerFactory {}"),
+				write(sources, "test/Alpha.java", header
+						+ "@ManagedAI(\"Alpha\") public abstract class Alpha implements PlayerFactory {}")))
+				.isEmpty();
+		assertThat(Files.readAllLines(output.resolve(AI.INDEX)))
+				.containsExactly("test.Alpha", "test.Beta");
+	}
+
+	@Test
+	public void testProcessorRejectsNestedAndNonFactoryClasses() throws IOException {
+		Path sources = newFolder("src");
+		Path output = newFolder("out");
+		String header = "package test;\nimport uk.ac.bris.cs.scotlandyard.ai.*;\n";
+		assertThat(compile(output,
+				write(sources, "test/Outer.java", header + "public class Outer {\n"
+						+ "@ManagedAI(\"Nested\") public abstract static class Nested"
+						+ " implements PlayerFactory {}\n}"),
+				write(sources, "test/Plain.java", header
+						+ "@ManagedAI(\"Plain\") public class Plain {}")))
+				.hasSize(2);
+		assertThat(output.resolve(AI.INDEX).toFile().exists()).isFalse();
+	}
+
+	@Test
+	public void testIndicesAreMergedAndUnknownNamesSkipped() throws IOException {
+		Path first = newFolder("first");
+		Path second = newFolder("second");
+		write(first, AI.INDEX, RemotePlayerFactory.class.getName() + "\ntest.Deleted\n");
+		write(second, AI.INDEX, "\n" + RemotePlayerFactory.class.getName() + "\n"
+				+ String.class.getName() + "\n");
+		try (URLClassLoader loader = new URLClassLoader(
+				new URL[] { first.toUri().toURL(), second.toUri().toURL() },
+				AI.class.getClassLoader())) {
+			assertThat(AI.readIndex(loader)).contains(
+					RemotePlayerFactory.class.getName(), "test.Deleted", String.class.getName());
+			List<AI> ais = AI.load(List.of(RemotePlayerFactory.class.getName(), "test.Deleted",
+					String.class.getName()), loader);
+			assertThat(ais).hasSize(1);
+			assertThat(ais.get(0).getName())
+					.isEqualTo(RemotePlayerFactory.class.getAnnotation(ManagedAI.class).value());
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+package uk.ac.bris.cs.scotlandyard.ai;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.ModelFactories.ImperativeModelFactory;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.PlayerConfiguration;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGame;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Spectator;
+import uk.ac.bris.cs.scotlandyard.model.TicketMove;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.bus;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.defaultGraph;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.firstMovePlayer;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.rounds;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.taxi;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests {@link MrXLocationBelief} on short scripted games on the standard
+ * graph
+ */
+public class MrXLocationBeliefTest {
+
+	private static final double EPSILON = 1e-9;
+
+	private final Map<Colour, Deque<Move>> scripts = new EnumMap<>(Colour.class);
+
+	// Plays the next move of its colour's script
+	private final Player scripted = (view, location, moves, callback) -> callback
+			.accept(scripts.get(view.getCurrentPlayer()).pop());
+
+	private void script(Colour colour, Move... moves) {
+		scripts.put(colour, new ArrayDeque<>(List.of(moves)));
+	}
+
+	private static PlayerConfiguration player(Colour colour, Player player, int location) {
+		return new PlayerConfiguration.Builder(colour).using(player)
+				.with(colour.isMrX() ? mrXTickets() : detectiveTickets())
+				.at(location).build();
+	}
+
+	// Records the belief right after each of MrX's moves is reported
+	private static final class AfterMrX implements Spectator {
+		final MrXLocationBelief belief;
+		final List<double[]> distributions = new ArrayList<>();
+
+		AfterMrX(MrXLocationBelief belief) {
+			this.belief = belief;
+		}
+
+		@Override
+		public void onMoveMade(ScotlandYardView view, Move move) {
+			if (move.colour().isMrX() && move instanceof TicketMove)
+				distributions.add(belief.copyInto(null));
+		}
+	}
+
+	private static double probabilityAt(MrXLocationBelief belief, double[] distribution,
+			int location) {
+		return distribution[belief.indexOf(location)];
+	}
+
+	private static void assertSpread(MrXLocationBelief belief, double[] distribution,
+			int... locations) {
+		double sum = 0;
+		for (double p : distribution)
+			sum += p;
+		assertThat(sum).isCloseTo(1, offset(EPSILON));
+		for (int location : locations)
+			assertThat(probabilityAt(belief, distribution, location))
+					.isCloseTo(1.0 / locations.length, offset(EPSILON));
+	}
+
+	@Test
+	public void testBeliefCollapsesOnRevealRounds() {
+		// Reveal, hide, reveal: 35 -> 22 -> 23 -> 12 by taxi
+		script(BLACK, taxi(BLACK, 22), taxi(BLACK, 23), taxi(BLACK, 12));
+		ScotlandYardGame game = new ImperativeModelFactory().createGame(
+				rounds(true, false, true), defaultGraph(),
+				player(BLACK, scripted, 35),
+				player(RED, firstMovePlayer(), 174),
+				player(BLUE, firstMovePlayer(), 155));
+		MrXLocationBelief belief = new MrXLocationBelief(game);
+		AfterMrX after = new AfterMrX(belief);
+		game.registerSpectator(belief);
+		game.registerSpectator(after);
+
+		// Nothing revealed yet: every free location is equally likely
+		assertThat(belief.probabilityAt(35)).isCloseTo(1.0 / (belief.size() - 2), offset(EPSILON));
+		assertThat(belief.probabilityAt(174)).isZero();
+
+		while (!game.isGameOver()) game.startRotate();
+		assertThat(after.distributions).hasSize(3);
+		assertThat(probabilityAt(belief, after.distributions.get(0), 22)).isEqualTo(1.0);
+		assertThat(probabilityAt(belief, after.distributions.get(1), 22)).isZero();
+		assertThat(probabilityAt(belief, after.distributions.get(2), 12)).isEqualTo(1.0);
+		assertThat(belief.mostLikelyLocation()).isEqualTo(12);
+	}
+
+	@Test
+	public void testHiddenMoveSpreadsOverNeighboursOfTheTransport() {
+		// 22 leads to 3, 23, 34 and 65 by bus, but to 11, 23, 34 and 35 by taxi
+		script(BLACK, taxi(BLACK, 22), bus(BLACK, 65));
+		ScotlandYardGame game = new ImperativeModelFactory().createGame(
+				rounds(true, false), defaultGraph(),
+				player(BLACK, scripted, 35),
+				player(RED, firstMovePlayer(), 174),
+				player(BLUE, firstMovePlayer(), 155));
+		MrXLocationBelief belief = new MrXLocationBelief(game);
+		AfterMrX after = new AfterMrX(belief);
+		game.registerSpectator(belief);
+		game.registerSpectator(after);
+
+		while (!game.isGameOver()) game.startRotate();
+		double[] hidden = after.distributions.get(1);
+		assertSpread(belief, hidden, 3, 23, 34, 65);
+		assertThat(probabilityAt(belief, hidden, 11)).isZero();
+		assertThat(probabilityAt(belief, hidden, 35)).isZero();
+	}
+
+	@Test
+	public void testDetectiveLocationsAreExcludedAndRenormalised() {
+		// MrX hides by taxi from 22 while blue stands on 34, then red steps
+		// onto 11, leaving 23 and 35
+		script(BLACK, taxi(BLACK, 22), taxi(BLACK, 23));
+		script(RED, taxi(RED, 3), taxi(RED, 11));
+		script(BLUE, taxi(BLUE, 34), taxi(BLUE, 10));
+		ScotlandYardGame game = new ImperativeModelFactory().createGame(
+				rounds(true, false), defaultGraph(),
+				player(BLACK, scripted, 35),
+				player(RED, scripted, 4),
+				player(BLUE, scripted, 47));
+		MrXLocationBelief belief = new MrXLocationBelief(game);
+		AfterMrX after = new AfterMrX(belief);
+		game.registerSpectator(belief);
+		game.registerSpectator(after);
+
+		game.startRotate();
+		game.startRotate();
+		double[] hidden = after.distributions.get(1);
+		assertSpread(belief, hidden, 11, 23, 35);
+		assertThat(probabilityAt(belief, hidden, 34)).isZero();
+
+		double[] now = belief.copyInto(null);
+		assertSpread(belief, now, 23, 35);
+		assertThat(probabilityAt(belief, now, 11)).isZero();
+	}
+
+}
@@ -0,0 +1,141 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.DoubleMove;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.PassMove;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.PlayerConfiguration;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardModel;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Ticket;
+import uk.ac.bris.cs.scotlandyard.model.TicketMove;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.defaultGraph;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests that {@link RemoteProtocol} reads back what it writes
+ */
+public class RemoteProtocolTest {
+
+	private interface Writer {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	private static DataInputStream roundTrip(Writer writer) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			writer.write(out);
+		}
+		return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	private static Set<String> edges(Graph<Integer, Transport> graph) {
+		Set<String> edges = new HashSet<>();
+		for (Edge<Integer, Transport> edge : graph.getEdges())
+			edges.add(edge.source().value() + "-" + edge.destination().value() + " " + edge.data());
+		return edges;
+	}
+
+	private static Set<Integer> nodes(Graph<Integer, Transport> graph) {
+		Set<Integer> nodes = new HashSet<>();
+		for (Node<Integer> node : graph.getNodes())
+			nodes.add(node.value());
+		return nodes;
+	}
+
+	// A game after mrX's first move, with the moves given to red
+	private static ScotlandYardModel playFirstMove(List<Set<Move>> given) {
+		Player player = (view, location, moves, callback) -> {
+			given.add(moves);
+			if (view.getCurrentPlayer().isMrX()) callback.accept(moves.iterator().next());
+		};
+		ScotlandYardModel game = new ScotlandYardModel(ofRounds(23, DEFAULT_REVEAL), defaultGraph(),
+				new PlayerConfiguration.Builder(BLACK).using(player)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(player)
+						.with(detectiveTickets()).at(26).build(),
+				new PlayerConfiguration.Builder(BLUE).using(player)
+						.with(detectiveTickets()).at(50).build());
+		game.startRotate();
+		return game;
+	}
+
+	@Test
+	public void testGraphRoundTrips() throws IOException {
+		Graph<Integer, Transport> graph = defaultGraph();
+		Graph<Integer, Transport> read = RemoteProtocol.readGraph(
+				roundTrip(out -> RemoteProtocol.writeGraph(out, graph)));
+		assertThat(nodes(read)).isEqualTo(nodes(graph));
+		assertThat(edges(read)).isEqualTo(edges(graph));
+	}
+
+	@Test
+	public void testViewRoundTrips() throws IOException {
+		ScotlandYardView view = playFirstMove(new ArrayList<>());
+		RemoteView read = RemoteProtocol.readView(
+				roundTrip(out -> RemoteProtocol.writeView(out, view)), defaultGraph());
+		assertThat(read.getPlayers()).isEqualTo(view.getPlayers());
+		for (Colour colour : view.getPlayers()) {
+			assertThat(read.getPlayerLocation(colour)).isEqualTo(view.getPlayerLocation(colour));
+			for (Ticket ticket : Ticket.values())
+				assertThat(read.getPlayerTickets(colour, ticket))
+						.isEqualTo(view.getPlayerTickets(colour, ticket));
+		}
+		assertThat(read.getWinningPlayers()).isEqualTo(view.getWinningPlayers());
+		assertThat(read.isGameOver()).isEqualTo(view.isGameOver());
+		assertThat(read.getCurrentPlayer()).isEqualTo(view.getCurrentPlayer());
+		assertThat(read.getCurrentRound()).isEqualTo(view.getCurrentRound());
+		assertThat(read.getRounds()).isEqualTo(view.getRounds());
+		assertThat(read.getGraph()).isSameAs(defaultGraph());
+	}
+
+	@Test
+	public void testMovesRoundTripAsInternedMoves() throws IOException {
+		List<Set<Move>> given = new ArrayList<>();
+		playFirstMove(given);
+		List<Move> moves = new ArrayList<>(given.get(0));
+		moves.add(PassMove.of(BLACK));
+		assertThat(moves.stream().anyMatch(DoubleMove.class::isInstance)).isTrue();
+		DataInputStream in = roundTrip(out -> {
+			for (Move move : moves)
+				RemoteProtocol.writeMove(out, move);
+		});
+		for (Move move : moves) {
+			Move read = RemoteProtocol.readMove(in, BLACK);
+			assertThat(read).isEqualTo(move);
+			if (read instanceof TicketMove) {
+				TicketMove single = (TicketMove) read;
+				assertThat(read).isSameAs(
+						TicketMove.of(BLACK, single.ticket(), single.destination()));
+			}
+		}
+		assertThat(RemoteProtocol.readMove(roundTrip(out -> RemoteProtocol
+				.writeMove(out, PassMove.of(RED))), RED)).isSameAs(PassMove.of(RED));
+	}
+
+}
@@ -0,0 +1,128 @@
+package uk.ac.bris.cs.scotlandyard.ai.remote;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import uk.ac.bris.cs.scotlandyard.ai.PlayerFactory;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.Move;
+import uk.ac.bris.cs.scotlandyard.model.PassMove;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.PlayerConfiguration;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.defaultGraph;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests games played through {@link RemoteConnection} against a
+ * {@link RemoteWorker} on loopback
+ */
+public class RemoteWorkerTest {
+
+	private ServerSocket socket;
+	private RemoteConnection connection;
+
+	// Mr.X chooses the last move it is given, red chooses a move it was not
+	// given and blue runs out of stack
+	private static final class TestFactory implements PlayerFactory {
+		@Override
+		public Player createPlayer(Colour colour) {
+			return (view, location, moves, callback) -> {
+				if (colour == BLUE) throw new StackOverflowError("bot");
+				if (colour == RED) {
+					callback.accept(PassMove.of(RED));
+					return;
+				}
+				List<Move> list = new ArrayList<>(moves);
+				callback.accept(list.get(list.size() - 1));
+			};
+		}
+	}
+
+	@Before
+	public void initialise() throws IOException {
+		socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		RemoteWorker worker = new RemoteWorker(TestFactory::new);
+		CompletableFuture.runAsync(() -> {
+			try {
+				worker.serve(socket);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		connection = RemoteConnection.connect(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), socket.getLocalPort()), defaultGraph());
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		connection.close();
+		socket.close();
+	}
+
+	// Asks a remote player for one move in the first round
+	private Move moveOf(Colour colour, List<Move> offered) {
+		List<Move> made = new ArrayList<>();
+		Player recording = (view, location, moves, callback) -> {
+			offered.addAll(moves);
+			connection.player(colour).makeMove(view, location, moves, made::add);
+		};
+		Player idle = (view, location, moves, callback) -> {};
+		ScotlandYardModel game = new ScotlandYardModel(ofRounds(23, DEFAULT_REVEAL), defaultGraph(),
+				new PlayerConfiguration.Builder(BLACK).using(recording)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(idle)
+						.with(detectiveTickets()).at(26).build(),
+				new PlayerConfiguration.Builder(BLUE).using(idle)
+						.with(detectiveTickets()).at(50).build());
+		game.startRotate();
+		assertThat(made).hasSize(1);
+		return made.get(0);
+	}
+
+	@Test
+	public void testRemotePlayerMakesTheMoveItChose() {
+		List<Move> offered = new ArrayList<>();
+		Move move = moveOf(BLACK, offered);
+		assertThat(move).isEqualTo(offered.get(offered.size() - 1));
+	}
+
+	@Test
+	public void testErrorInTheWorkerIsAnswered() {
+		CompletableFuture<Move> move = CompletableFuture.supplyAsync(
+				() -> moveOf(BLUE, new ArrayList<>()));
+		assertThatThrownBy(() -> move.get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(UncheckedIOException.class)
+				.hasMessageContaining("StackOverflowError");
+	}
+
+	@Test
+	public void testIllegalMoveInTheWorkerIsAnswered() {
+		CompletableFuture<Move> move = CompletableFuture.supplyAsync(
+				() -> moveOf(RED, new ArrayList<>()));
+		assertThatThrownBy(() -> move.get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(UncheckedIOException.class)
+				.hasMessageContaining("Illegal move");
+	}
+
+}
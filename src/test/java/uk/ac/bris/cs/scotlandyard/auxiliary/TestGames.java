@@ -2,7 +2,13 @@ package uk.ac.bris.cs.scotlandyard.auxiliary;
 
 import com.google.common.collect.ImmutableMap;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -12,19 +18,23 @@ import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
+import uk.ac.bris.cs.gamekit.graph.Graph;
 import uk.ac.bris.cs.scotlandyard.auxiliary.AnonymousMoves.AnonymousDoubleMove;
 import uk.ac.bris.cs.scotlandyard.auxiliary.AnonymousMoves.AnonymousPassMove;
 import uk.ac.bris.cs.scotlandyard.auxiliary.AnonymousMoves.AnonymousTicketMove;
 import uk.ac.bris.cs.scotlandyard.harness.Requirement;
 import uk.ac.bris.cs.scotlandyard.model.Colour;
 import uk.ac.bris.cs.scotlandyard.model.DoubleMove;
+import uk.ac.bris.cs.scotlandyard.model.Move;
 import uk.ac.bris.cs.scotlandyard.model.PassMove;
 import uk.ac.bris.cs.scotlandyard.model.Player;
 import uk.ac.bris.cs.scotlandyard.model.PlayerConfiguration;
 import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGame;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardGraphReader;
 import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
 import uk.ac.bris.cs.scotlandyard.model.Ticket;
 import uk.ac.bris.cs.scotlandyard.model.TicketMove;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
@@ -62,6 +72,31 @@ public class TestGames {
 	 */
 	public static final List<Integer> MRX_LOCATIONS = unmodifiableList(
 			asList(35, 45, 51, 71, 78, 104, 106, 127, 132, 166, 170, 172));
+
+	// Read once on first use; tests may run concurrently and only ever read
+	// the graph
+	private static final class DefaultGraph {
+		static final Graph<Integer, Transport> GRAPH = read();
+
+		private static Graph<Integer, Transport> read() {
+			try {
+				return ScotlandYardGraphReader.fromLines(Files.readAllLines(
+						Paths.get(TestGames.class.getResource("/game_graph.txt").toURI())));
+			} catch (IOException | URISyntaxException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the default graph used in the actual game
+	 *
+	 * @return the graph; never null
+	 */
+	public static Graph<Integer, Transport> defaultGraph() {
+		return DefaultGraph.GRAPH;
+	}
+
 	/**
 	 * The default amount of tickets for a detective, which is:
 	 * <p>
@@ -363,6 +398,19 @@ public class TestGames {
 		};
 	}
 
+	/**
+	 * A player that always picks the smallest single move by its string form,
+	 * so games between such players play out the same every time
+	 *
+	 * @return the player
+	 */
+	public static Player firstMovePlayer() {
+		return (view, location, moves, callback) -> callback
+				.accept(Collections.min(moves, Comparator
+						.comparing((Move move) -> move instanceof DoubleMove)
+						.thenComparing(Move::toString)));
+	}
+
 	/**
 	 * Any given valid Mr.X configuration that does nothing
 	 */
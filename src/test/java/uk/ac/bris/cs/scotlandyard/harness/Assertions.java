@@ -43,7 +43,12 @@ final class Assertions {
 
 	}
 
-	static void disableSystemExit() {
+	// The security manager is global to the JVM, so it stays installed while
+	// any harness of a concurrently running test still needs it
+	private static int exitGuards = 0;
+
+	static synchronized void disableSystemExit() {
+		if (exitGuards++ > 0) return;
 		System.setSecurityManager(new SecurityManager() {
 			@Override public void checkPermission(Permission perm) {
 				if (perm.getName().startsWith("exitVM")) {
@@ -53,7 +58,8 @@ final class Assertions {
 		});
 	}
 
-	static void enableSystemExit() {
+	static synchronized void enableSystemExit() {
+		if (exitGuards == 0 || --exitGuards > 0) return;
 		System.setSecurityManager(null);
 	}
 
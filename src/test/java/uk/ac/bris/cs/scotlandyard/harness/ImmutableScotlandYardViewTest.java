@@ -0,0 +1,162 @@
+package uk.ac.bris.cs.scotlandyard.harness;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.UndirectedGraph;
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.ScotlandYardView;
+import uk.ac.bris.cs.scotlandyard.model.Ticket;
+import uk.ac.bris.cs.scotlandyard.model.Transport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.defaultGraph;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.TAXI;
+
+/**
+ * Tests that {@link ImmutableScotlandYardView#snapshot(ScotlandYardView,
+ * ImmutableScotlandYardView)} shares the unchanged parts of the previous
+ * snapshot and copies the changed ones
+ */
+public class ImmutableScotlandYardViewTest {
+
+	private static final ImmutableGraph<Integer, Transport> GRAPH =
+			ImmutableGraph.copyOf(defaultGraph());
+
+	// A view whose state the tests change between snapshots
+	private static class MutableView implements ScotlandYardView {
+		List<Colour> colours = new ArrayList<>(List.of(BLACK, RED, BLUE));
+		final Map<Colour, Integer> locations = new EnumMap<>(Colour.class);
+		final Map<Colour, Map<Ticket, Integer>> tickets = new EnumMap<>(Colour.class);
+		Set<Colour> winning = new HashSet<>();
+		List<Boolean> rounds = ofRounds(10, DEFAULT_REVEAL);
+		Graph<Integer, Transport> graph = GRAPH;
+		int round = NOT_STARTED;
+
+		MutableView() {
+			locations.put(BLACK, 45);
+			locations.put(RED, 26);
+			locations.put(BLUE, 50);
+			tickets.put(BLACK, new EnumMap<>(mrXTickets()));
+			tickets.put(RED, new EnumMap<>(detectiveTickets()));
+			tickets.put(BLUE, new EnumMap<>(detectiveTickets()));
+		}
+
+		@Override public List<Colour> getPlayers() { return colours; }
+		@Override public Set<Colour> getWinningPlayers() { return winning; }
+		@Override public Optional<Integer> getPlayerLocation(Colour colour) {
+			return Optional.ofNullable(locations.get(colour));
+		}
+		@Override public Optional<Integer> getPlayerTickets(Colour colour, Ticket ticket) {
+			return Optional.ofNullable(tickets.get(colour)).map(t -> t.get(ticket));
+		}
+		@Override public boolean isGameOver() { return false; }
+		@Override public Colour getCurrentPlayer() { return colours.get(0); }
+		@Override public int getCurrentRound() { return round; }
+		@Override public List<Boolean> getRounds() { return rounds; }
+		@Override public Graph<Integer, Transport> getGraph() { return graph; }
+	}
+
+	@Test
+	public void testUnchangedViewSharesEverything() {
+		MutableView view = new MutableView();
+		ImmutableScotlandYardView first = ImmutableScotlandYardView.snapshot(view);
+		ImmutableScotlandYardView second = ImmutableScotlandYardView.snapshot(view, first);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second).isEqualTo(first);
+		assertThat(second.getPlayers()).isSameAs(first.getPlayers());
+		assertThat(second.getRounds()).isSameAs(first.getRounds());
+		assertThat(second.getGraph()).isSameAs(first.getGraph());
+		assertThat(second.getWinningPlayers()).isSameAs(first.getWinningPlayers());
+		for (int i = 0; i < first.players.size(); i++)
+			assertThat(second.players.get(i)).isSameAs(first.players.get(i));
+	}
+
+	@Test
+	public void testOnlyChangedPlayersAreCopied() {
+		MutableView view = new MutableView();
+		ImmutableScotlandYardView first = ImmutableScotlandYardView.snapshot(view);
+
+		view.locations.put(RED, 15);
+		view.tickets.get(BLUE).merge(TAXI, -1, Integer::sum);
+		view.round = 1;
+		ImmutableScotlandYardView second = ImmutableScotlandYardView.snapshot(view, first);
+		assertThat(second.players.get(0)).isSameAs(first.players.get(0));
+		assertThat(second.players.get(1)).isNotSameAs(first.players.get(1));
+		assertThat(second.players.get(2)).isNotSameAs(first.players.get(2));
+		assertThat(second.getPlayerLocation(RED)).contains(15);
+		assertThat(second.getPlayerTickets(BLUE, TAXI))
+				.contains(detectiveTickets().get(TAXI) - 1);
+		assertThat(second.getCurrentRound()).isEqualTo(1);
+		assertThat(second.getPlayers()).isSameAs(first.getPlayers());
+		assertThat(second.getRounds()).isSameAs(first.getRounds());
+		assertThat(second.getGraph()).isSameAs(first.getGraph());
+
+		// The earlier snapshot is left as it was
+		assertThat(first.getPlayerLocation(RED)).contains(26);
+		assertThat(first.getPlayerTickets(BLUE, TAXI)).contains(detectiveTickets().get(TAXI));
+	}
+
+	@Test
+	public void testEqualButSeparateListsAreShared() {
+		MutableView view = new MutableView();
+		ImmutableScotlandYardView first = ImmutableScotlandYardView.snapshot(view);
+
+		view.colours = new ArrayList<>(view.colours);
+		view.rounds = new ArrayList<>(view.rounds);
+		view.winning = new HashSet<>(view.winning);
+		ImmutableScotlandYardView second = ImmutableScotlandYardView.snapshot(view, first);
+		assertThat(second.getPlayers()).isSameAs(first.getPlayers());
+		assertThat(second.getRounds()).isSameAs(first.getRounds());
+		assertThat(second.getWinningPlayers()).isSameAs(first.getWinningPlayers());
+		assertThat(second.players.get(1)).isSameAs(first.players.get(1));
+	}
+
+	@Test
+	public void testChangedPartsAreNotShared() {
+		MutableView view = new MutableView();
+		ImmutableScotlandYardView first = ImmutableScotlandYardView.snapshot(view);
+
+		view.rounds = ofRounds(5, DEFAULT_REVEAL);
+		view.winning = Set.of(BLACK);
+		view.graph = new UndirectedGraph<>(GRAPH);
+		ImmutableScotlandYardView second = ImmutableScotlandYardView.snapshot(view, first);
+		assertThat(second.getRounds()).isNotSameAs(first.getRounds());
+		assertThat(second.getRounds()).hasSize(5);
+		assertThat(second.getWinningPlayers()).isNotSameAs(first.getWinningPlayers());
+		assertThat(second.getWinningPlayers()).containsExactly(BLACK);
+		assertThat(second.getGraph()).isNotSameAs(first.getGraph());
+		assertThat(second.getPlayers()).isSameAs(first.getPlayers());
+	}
+
+	@Test
+	public void testChangedPlayersAreAllCopied() {
+		MutableView view = new MutableView();
+		ImmutableScotlandYardView first = ImmutableScotlandYardView.snapshot(view);
+
+		// A different line-up can't be matched up with the previous records
+		view.colours = new ArrayList<>(List.of(BLACK, RED));
+		ImmutableScotlandYardView second = ImmutableScotlandYardView.snapshot(view, first);
+		assertThat(second.getPlayers()).isNotSameAs(first.getPlayers());
+		assertThat(second.getPlayers()).containsExactly(BLACK, RED);
+		assertThat(second.players.get(0)).isNotSameAs(first.players.get(0));
+		assertThat(second.players.get(0)).isEqualTo(first.players.get(0));
+	}
+
+}
@@ -77,6 +77,10 @@ import static uk.ac.bris.cs.scotlandyard.model.Ticket.UNDERGROUND;
  * To change the default number of runs of each test from 10, pass the system property captureN,
  * e.g. captureN=5<br>
  * For example: <code>-DprintInteractions=true</code>
+ * <p>
+ * A harness is confined to the thread that calls {@link #play(ScotlandYardGame)}, the game must
+ * interact with its players and spectators on that thread. Separate harnesses share no state
+ * and may run concurrently.
  */
 public class TestHarness {
 
@@ -95,6 +99,11 @@ public class TestHarness {
 	private Consumer<ScotlandYardGame> finalContinuation;
 	private final CodeGenRecorder recorder =
 			new CodeGenRecorder(ImmutableList.of(new GameModelSequencePUMLCodeGen()));
+	// Captures share unchanged state with the previous snapshot
+	private ImmutableScotlandYardView lastSnapshot;
+	private Thread owner;
+	// Whether this harness still holds its guard against System.exit()
+	private boolean exitGuarded;
 
 	private static boolean getBooleanFlag(String flagName) {
 		return Optional.ofNullable(System.getProperty(flagName))
@@ -129,6 +138,7 @@ public class TestHarness {
 	}
 	public TestHarness(int captureN, boolean printInteractions) {
 		Assertions.disableSystemExit();
+		this.exitGuarded = true;
 		this.captureN = captureN;
 		this.printInteractions = printInteractions;
 		this.callingClass = Arrays.stream(Thread.currentThread().getStackTrace())
@@ -167,6 +177,7 @@ public class TestHarness {
 
 	public Assert play(ScotlandYardGame game) {
 		this.game = game;
+		this.owner = Thread.currentThread();
 		if (printInteractions) recorder.snap(game);
 		return new TestAssert();
 	}
@@ -175,7 +186,7 @@ public class TestHarness {
 		private TestAssert previousRound;
 		private Interaction<?>[] interactions;
 		private List<Requirement<ScotlandYardGame>> reqs = new ArrayList<>();
-		Consumer<ScotlandYardGame> continuation = game -> Assertions.enableSystemExit();
+		Consumer<ScotlandYardGame> continuation = game -> releaseExitGuard();
 
 		private TestAssert(Interaction<?>... interactions) {
 			this(null, interactions);
@@ -258,6 +269,12 @@ public class TestHarness {
 	}
 
 	public void forceReleaseShutdownLock() {
+		releaseExitGuard();
+	}
+
+	private void releaseExitGuard() {
+		if (!exitGuarded) return;
+		exitGuarded = false;
 		Assertions.enableSystemExit();
 	}
 
@@ -284,9 +301,21 @@ public class TestHarness {
 		}
 	}
 
+	private ImmutableScotlandYardView snapshot(ScotlandYardView view) {
+		lastSnapshot = ImmutableScotlandYardView.snapshot(view, lastSnapshot);
+		return lastSnapshot;
+	}
+
 	private <C> void captureAndAssertInteraction(Comparable<?> key,
 	                                             Class<? extends Interaction<C>> interactionClazz,
 	                                             Supplier<C> unsafeCapture) {
+		if (Thread.currentThread() != owner) {
+			throw new AssertionError(format("Interaction %s happened on thread %s but the game " +
+							"was started on %s; the game must not call players or spectators " +
+							"from other threads",
+					key, Thread.currentThread().getName(),
+					owner == null ? "no thread" : owner.getName()));
+		}
 		// TODO wrap exceptions
 		C initial = unsafeCapture.get();
 		List<C> captures = Stream.generate(unsafeCapture)
@@ -421,7 +450,7 @@ public class TestHarness {
 				.using((view, location, moves, callback) -> captureAndAssertInteraction(
 						mkPlayerKey(colour),
 						MakeMoveInteraction.class,
-						() -> new MakeMove(view, location, moves, callback)))
+						() -> new MakeMove(snapshot(view), location, moves, callback)))
 				.build();
 
 		// XXX will throw the harness needs to assert all events first
@@ -450,25 +479,25 @@ public class TestHarness {
 				if (printInteractions) that.onMoveMade(view, move);
 				if (!listenEvents.contains(ON_MOVE_MADE)) return;
 				captureAndAssertInteraction(k, MoveMadeInteraction.class,
-						() -> new MoveMade(view, move));
+						() -> new MoveMade(snapshot(view), move));
 			}
 			@Override public void onRoundStarted(ScotlandYardView view, int round) {
 				if (printInteractions) that.onRoundStarted(view, round);
 				if (!listenEvents.contains(ON_ROUND_STARTED)) return;
 				captureAndAssertInteraction(k, RoundStartedInteraction.class,
-						() -> new RoundStarted(view, round));
+						() -> new RoundStarted(snapshot(view), round));
 			}
 			@Override public void onRotationComplete(ScotlandYardView view) {
 				if (printInteractions) that.onRotationComplete(view);
 				if (!listenEvents.contains(ON_ROTATION_COMPLETE)) return;
 				captureAndAssertInteraction(k, RotationCompleteInteraction.class,
-						() -> new RotationComplete(view));
+						() -> new RotationComplete(snapshot(view)));
 			}
 			@Override public void onGameOver(ScotlandYardView view, Set<Colour> winningPlayers) {
 				if (printInteractions) that.onGameOver(view, winningPlayers);
 				if (!listenEvents.contains(ON_GAME_OVER)) return;
 				captureAndAssertInteraction(k, GameOverInteraction.class,
-						() -> new GameOver(view, winningPlayers));
+						() -> new GameOver(snapshot(view), winningPlayers));
 			}
 		};
 	}
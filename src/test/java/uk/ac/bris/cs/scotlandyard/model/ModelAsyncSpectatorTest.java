@@ -0,0 +1,196 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import uk.ac.bris.cs.scotlandyard.model.GameEvent.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.firstMovePlayer;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests asynchronous spectator dispatch with {@link AsyncSpectator}
+ */
+public class ModelAsyncSpectatorTest extends ParameterisedModelTestBase {
+
+	private ScotlandYardGame createGame(int rounds) {
+		return createGame(ofRounds(rounds, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(firstMovePlayer())
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(firstMovePlayer())
+						.with(detectiveTickets()).at(174).build(),
+				new PlayerConfiguration.Builder(BLUE).using(firstMovePlayer())
+						.with(detectiveTickets()).at(155).build());
+	}
+
+	// Records every callback along with the state of the view at that time
+	private static final class Recorder implements Spectator {
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+		private static String state(ScotlandYardView view) {
+			return "round=" + view.getCurrentRound() + " current=" + view.getCurrentPlayer()
+					+ " black=" + view.getPlayerLocation(BLACK).orElseThrow()
+					+ " red=" + view.getPlayerLocation(RED).orElseThrow()
+					+ " blue=" + view.getPlayerLocation(BLUE).orElseThrow()
+					+ " taxi=" + view.getPlayerTickets(BLACK, Ticket.TAXI).orElseThrow();
+		}
+
+		@Override
+		public void onMoveMade(ScotlandYardView view, Move move) {
+			events.add("move " + move + " " + state(view));
+		}
+
+		@Override
+		public void onRoundStarted(ScotlandYardView view, int round) {
+			events.add("round " + round + " " + state(view));
+		}
+
+		@Override
+		public void onRotationComplete(ScotlandYardView view) {
+			events.add("rotation " + state(view));
+		}
+
+		@Override
+		public void onGameOver(ScotlandYardView view, Set<Colour> winningPlayers) {
+			events.add("over " + winningPlayers + " " + state(view));
+		}
+	}
+
+	@Test
+	public void testCallbacksAreDeliveredInOrderWithViewAtTheTime() throws InterruptedException {
+		ScotlandYardGame game = createGame(6);
+		Recorder direct = new Recorder();
+		Recorder delayed = new Recorder();
+		AsyncSpectator async = new AsyncSpectator.Builder(delayed).capacity(2).build();
+		game.registerSpectator(direct);
+		game.registerSpectator(async);
+		while (!game.isGameOver()) game.startRotate();
+		async.awaitIdle();
+		assertThat(delayed.events).isEqualTo(direct.events);
+	}
+
+	@Test
+	public void testCoalescedCallbacksOnlyDeliverTheLatest() {
+		ScotlandYardGame game = createGame(6);
+		Recorder direct = new Recorder();
+		Recorder delayed = new Recorder();
+		List<Runnable> tasks = new ArrayList<>();
+		AsyncSpectator async = new AsyncSpectator.Builder(delayed)
+				.coalescing(Type.ROTATION_COMPLETE)
+				.executor(tasks::add).build();
+		game.registerSpectator(direct);
+		game.registerSpectator(async);
+		game.startRotate();
+		game.startRotate();
+		assertThat(async.pending()).isEqualTo(direct.events.size() - 1);
+		tasks.forEach(Runnable::run);
+		List<String> expected = new ArrayList<>(direct.events);
+		expected.remove(expected.indexOf(direct.events.stream()
+				.filter(e -> e.startsWith("rotation")).findFirst().orElseThrow()));
+		assertThat(delayed.events).isEqualTo(expected);
+	}
+
+	@Test
+	public void testErrorInSpectatorDoesNotStopDispatch() throws InterruptedException {
+		ScotlandYardGame game = createGame(6);
+		Recorder direct = new Recorder();
+		Recorder delayed = new Recorder();
+		boolean[] thrown = {false};
+		AsyncSpectator async = new AsyncSpectator.Builder(new Spectator() {
+			@Override
+			public void onMoveMade(ScotlandYardView view, Move move) {
+				if (!thrown[0]) {
+					thrown[0] = true;
+					throw new StackOverflowError("spectator");
+				}
+				delayed.onMoveMade(view, move);
+			}
+
+			@Override
+			public void onRoundStarted(ScotlandYardView view, int round) {
+				delayed.onRoundStarted(view, round);
+			}
+		}).capacity(1).build();
+		game.registerSpectator(direct);
+		game.registerSpectator(async);
+		Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {});
+		try {
+			while (!game.isGameOver()) game.startRotate();
+			async.awaitIdle();
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(handler);
+		}
+		// Everything but the failed move and the callbacks it does not forward
+		List<String> expected = new ArrayList<>();
+		for (String event : direct.events)
+			if (event.startsWith("move") || event.startsWith("round")) expected.add(event);
+		expected.remove(expected.indexOf(expected.stream()
+				.filter(e -> e.startsWith("move")).findFirst().orElseThrow()));
+		assertThat(thrown[0]).isTrue();
+		assertThat(delayed.events).isEqualTo(expected);
+	}
+
+	@Test
+	public void testRejectedDispatchIsScheduledAgain() throws InterruptedException {
+		Recorder delayed = new Recorder();
+		List<Runnable> tasks = new ArrayList<>();
+		boolean[] reject = {true};
+		AsyncSpectator async = new AsyncSpectator.Builder(delayed).executor(task -> {
+			if (reject[0]) throw new RejectedExecutionException();
+			tasks.add(task);
+		}).build();
+		ScotlandYardGame game = createGame(6);
+		game.registerSpectator(async);
+		assertThatThrownBy(game::startRotate).isInstanceOf(RejectedExecutionException.class);
+		reject[0] = false;
+		async.onRotationComplete(game);
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		async.awaitIdle();
+		assertThat(async.pending()).isEqualTo(0);
+		assertThat(delayed.events).hasSize(2);
+	}
+
+	@Test(timeout = 10_000)
+	public void testFullQueueWithRejectedDispatcherIsDeliveredByCaller()
+			throws InterruptedException {
+		ScotlandYardGame game = createGame(6);
+		Recorder direct = new Recorder();
+		Recorder delayed = new Recorder();
+		AsyncSpectator async = new AsyncSpectator.Builder(delayed).capacity(1)
+				.executor(task -> {
+					throw new RejectedExecutionException();
+				}).build();
+		game.registerSpectator(direct);
+		game.registerSpectator(async);
+		// Every callback is queued before its dispatcher is rejected, so the
+		// next one finds the queue full and must not wait for a dispatcher
+		direct.onRotationComplete(game);
+		assertThatThrownBy(() -> async.onRotationComplete(game))
+				.isInstanceOf(RejectedExecutionException.class);
+		assertThat(async.pending()).isEqualTo(1);
+		direct.onRoundStarted(game, game.getCurrentRound());
+		assertThatThrownBy(() -> async.onRoundStarted(game, game.getCurrentRound()))
+				.isInstanceOf(RejectedExecutionException.class);
+		assertThat(delayed.events).hasSize(1);
+		assertThat(async.pending()).isEqualTo(1);
+		async.awaitIdle();
+		assertThat(async.pending()).isEqualTo(0);
+		assertThat(delayed.events).isEqualTo(direct.events);
+	}
+
+}
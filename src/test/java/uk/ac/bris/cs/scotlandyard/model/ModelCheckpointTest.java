@@ -0,0 +1,154 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.taxi;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests checkpointing and resuming of {@link ScotlandYardModel}
+ */
+public class ModelCheckpointTest extends ParameterisedModelTestBase {
+
+	// MrX moves 35 -> 22, red 26 -> 15, blue 50 -> 49, all by taxi
+	private static final Player SCRIPTED = (view, location, moves, callback) -> {
+		switch (location) {
+			case 35: callback.accept(taxi(BLACK, 22)); break;
+			case 26: callback.accept(taxi(RED, 15)); break;
+			case 50: callback.accept(taxi(BLUE, 49)); break;
+			default: throw new AssertionError("Unexpected location " + location);
+		}
+	};
+
+	private ScotlandYardModel createModel() {
+		return asModel(createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(SCRIPTED)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(SCRIPTED)
+						.with(detectiveTickets()).at(26).build(),
+				new PlayerConfiguration.Builder(BLUE).using(SCRIPTED)
+						.with(detectiveTickets()).at(50).build()));
+	}
+
+	private static Map<Colour, Player> players() {
+		Map<Colour, Player> players = new EnumMap<>(Colour.class);
+		players.put(BLACK, SCRIPTED);
+		players.put(RED, SCRIPTED);
+		players.put(BLUE, SCRIPTED);
+		return players;
+	}
+
+	@Test
+	public void testCheckpointSurvivesEncoding() {
+		ScotlandYardModel game = createModel();
+		game.startRotate();
+		GameCheckpoint checkpoint = game.checkpoint();
+		assertThat(GameCheckpoint.fromBytes(checkpoint.toBytes())).isEqualTo(checkpoint);
+	}
+
+	@Test
+	public void testResumedGameHasSameState() {
+		ScotlandYardModel game = createModel();
+		game.startRotate();
+		ScotlandYardModel resumed = ScotlandYardModel.resume(
+				GameCheckpoint.fromBytes(game.checkpoint().toBytes()), defaultGraph(), players());
+		assertThat(resumed.getCurrentRound()).isEqualTo(1);
+		assertThat(resumed.getCurrentPlayer()).isEqualTo(BLACK);
+		assertThat(resumed.getPlayers()).containsExactly(BLACK, RED, BLUE);
+		assertThat(resumed.getPlayerLocation(RED)).hasValue(15);
+		assertThat(resumed.getPlayerLocation(BLUE)).hasValue(49);
+		assertThat(resumed.getPlayerTickets(BLACK, Ticket.TAXI)).hasValue(5);
+		assertThat(resumed.getPlayerTickets(RED, Ticket.TAXI)).hasValue(10);
+		assertThat(resumed.checkpoint()).isEqualTo(game.checkpoint());
+	}
+
+	@Test
+	public void testCheckpointDuringRotationShouldThrow() {
+		ScotlandYardModel game = asModel(createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(SCRIPTED)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED)
+						.using((view, location, moves, callback) -> {})
+						.with(detectiveTickets()).at(26).build()));
+		game.startRotate();
+		assertThatThrownBy(game::checkpoint).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void testCheckpointBeforeFirstRotationResumesUnstarted() {
+		ScotlandYardModel game = createModel();
+		ScotlandYardModel resumed = ScotlandYardModel.resume(
+				GameCheckpoint.fromBytes(game.checkpoint().toBytes()), defaultGraph(), players());
+		assertThat(resumed.getCurrentRound()).isEqualTo(ScotlandYardView.NOT_STARTED);
+		assertThat(resumed.getCurrentPlayer()).isEqualTo(BLACK);
+		assertThat(resumed.isGameOver()).isFalse();
+		resumed.startRotate();
+		game.startRotate();
+		assertThat(resumed.checkpoint()).isEqualTo(game.checkpoint());
+	}
+
+	@Test
+	public void testCheckpointAfterGameOverShouldThrow() {
+		// Red catches MrX on 22 in the first rotation
+		ScotlandYardModel game = asModel(createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(SCRIPTED)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED)
+						.using((view, location, moves, callback) -> callback.accept(taxi(RED, 22)))
+						.with(detectiveTickets()).at(23).build()));
+		game.startRotate();
+		assertThat(game.isGameOver()).isTrue();
+		assertThatThrownBy(game::checkpoint).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void testResumeWithMissingPlayerShouldThrow() {
+		GameCheckpoint checkpoint = createModel().checkpoint();
+		Map<Colour, Player> players = players();
+		players.remove(BLUE);
+		assertThatThrownBy(() -> ScotlandYardModel.resume(checkpoint, defaultGraph(), players))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testTooFewPlayersShouldThrow() {
+		byte[] bytes = createModel().checkpoint().toBytes();
+		// magic, version, round count, 23 reveal bits, round, both player
+		// indices and the last known location come before the player count
+		int playerCount = 4 + 1 + 2 + 3 + 2 + 1 + 1 + 4;
+		assertThat(bytes[playerCount]).isEqualTo((byte) 3);
+		bytes[playerCount] = 1;
+		assertThatThrownBy(() -> GameCheckpoint.fromBytes(bytes))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testTicketCountTooLargeToEncodeShouldThrow() {
+		Map<Ticket, Integer> tickets = mrXTickets();
+		tickets.put(Ticket.TAXI, 0x10000);
+		GameCheckpoint checkpoint = asModel(createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(SCRIPTED)
+						.with(tickets).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(SCRIPTED)
+						.with(detectiveTickets()).at(26).build())).checkpoint();
+		assertThatThrownBy(checkpoint::toBytes).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void testGarbageBytesShouldThrow() {
+		assertThatThrownBy(() -> GameCheckpoint.fromBytes(new byte[]{1, 2, 3}))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,86 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.bris.cs.scotlandyard.model.GameEvent.Type;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.firstMovePlayer;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.secret;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests the {@link GameEvent}s handed to {@link GameEventListener}s
+ */
+public class ModelGameEventTest extends ParameterisedModelTestBase {
+
+	private ScotlandYardGame createThreePlayerGame() {
+		return createGame(ofRounds(6, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(firstMovePlayer())
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(firstMovePlayer())
+						.with(detectiveTickets()).at(174).build(),
+				new PlayerConfiguration.Builder(BLUE).using(firstMovePlayer())
+						.with(detectiveTickets()).at(155).build());
+	}
+
+	private static List<GameEvent> playRotation(ScotlandYardGame game) {
+		List<GameEvent> events = new ArrayList<>();
+		game.registerSpectator((GameEventListener) events::add);
+		game.startRotate();
+		return events;
+	}
+
+	@Test
+	public void testEventsFollowCallbackOrder() {
+		List<GameEvent> events = playRotation(createThreePlayerGame());
+		assertThat(events.stream().map(GameEvent::type).collect(toList())).containsExactly(
+				Type.ROUND_STARTED, Type.MOVE_MADE, Type.MOVE_MADE, Type.MOVE_MADE,
+				Type.ROTATION_COMPLETE);
+		for (int i = 0; i < events.size(); i++)
+			assertThat(events.get(i).sequence()).isEqualTo((long) i);
+		assertThat(events.get(1).move()).hasValue(secret(BLACK, 0));
+		assertThat(events.get(0).move()).isEmpty();
+	}
+
+	@Test
+	public void testEventsAreFrozenViews() {
+		ScotlandYardGame game = createThreePlayerGame();
+		List<GameEvent> events = playRotation(game);
+		GameEvent first = events.get(0);
+		assertThat(first.getCurrentRound()).isEqualTo(1);
+		assertThat(first.getPlayerLocation(RED)).hasValue(174);
+		assertThat(first.getPlayerLocation(BLACK)).hasValue(0);
+		GameEvent last = events.get(events.size() - 1);
+		assertThat(last.getPlayerLocation(RED)).isEqualTo(game.getPlayerLocation(RED));
+		assertThat(last.getPlayerTickets(RED, Ticket.TAXI))
+				.isEqualTo(game.getPlayerTickets(RED, Ticket.TAXI));
+		assertThat(last.getCurrentPlayer()).isEqualTo(BLACK);
+	}
+
+	@Test
+	public void testUnchangedPlayersAreShared() {
+		List<GameEvent> events = playRotation(createThreePlayerGame());
+		// Red's move changes red and the tickets given to MrX, blue is untouched
+		GameEvent redMove = events.get(2);
+		GameEvent before = events.get(1);
+		assertThat(redMove.changed().stream().map(PlayerState::colour).collect(toList()))
+				.containsExactly(BLACK, RED);
+		assertThat(redMove.player(BLUE).orElseThrow())
+				.isSameAs(before.player(BLUE).orElseThrow());
+		assertThat(redMove.getGraph()).isSameAs(before.getGraph());
+		assertThat(redMove.getRounds()).isSameAs(before.getRounds());
+		assertThat(events.get(4).changed()).isEmpty();
+	}
+
+}
@@ -182,6 +182,25 @@ public class ModelGameOverTest extends ParameterisedModelTestBase {
 				.thenIgnoreAnyFurtherInteractions();
 	}
 
+	@Test
+	public void testGameNotOverIfMrXHasOnlyOneMoveLeft() {
+		PlayerConfiguration mrX = harness.newPlayer(BLACK, 103, 5, 0, 0, 0, 0);
+		PlayerConfiguration blue = harness.newPlayer(BLUE, 68, 0,0,0,0,0);
+		PlayerConfiguration red = harness.newPlayer(RED, 84, 0,0,0,0,0);
+		PlayerConfiguration green = harness.newPlayer(GREEN, 102);
+		harness.play(createGame(mrX, blue, red, green))
+				.startRotationAndAssertTheseInteractionsOccurInOrder(
+						// MrX moves to 85, of which 2 of the 3 connecting nodes are occupied by
+						// blue(68) and red(84)
+						player(BLACK).makeMove().willPick(taxi(85)),
+						player(BLUE).makeMove().willPick(pass()),
+						player(RED).makeMove().willPick(pass()),
+						// green moves away, MrX can only go back to 103 but is not cornered
+						player(GREEN).makeMove().willPick(taxi(115)))
+				.thenRequire(gameNotOver())
+				.thenIgnoreAnyFurtherInteractions();
+	}
+
 	@Test
 	public void testGameNotOverBeforeAnyRoundWithNonTerminatingConfiguration() {
 		ScotlandYardGame game = createGame(
@@ -0,0 +1,116 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import uk.ac.bris.cs.scotlandyard.harness.ImmutableScotlandYardView;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.rounds;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.taxi;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.GREEN;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.WHITE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.YELLOW;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.TAXI;
+
+/**
+ * Tests {@link ScotlandYardView#locationOf(Colour)} and
+ * {@link ScotlandYardView#ticketsOf(Colour, Ticket)} of the model and their
+ * default implementations against the {@link java.util.Optional} accessors
+ */
+public class ModelLocationOfTest extends ParameterisedModelTestBase {
+
+	// MrX moves 45 -> 46 -> 47, blue 94 -> 93 -> 92, all by taxi
+	private static final Player SCRIPTED = (view, location, moves, callback) -> {
+		switch (location) {
+			case 45: callback.accept(taxi(BLACK, 46)); break;
+			case 46: callback.accept(taxi(BLACK, 47)); break;
+			case 94: callback.accept(taxi(BLUE, 93)); break;
+			case 93: callback.accept(taxi(BLUE, 92)); break;
+			default: throw new AssertionError("Unexpected location " + location);
+		}
+	};
+
+	// MrX is hidden in the first round and revealed in the second
+	private ScotlandYardModel createModel() {
+		return asModel(createGame(rounds(false, true, false),
+				new PlayerConfiguration.Builder(BLACK).using(SCRIPTED)
+						.with(mrXTickets()).at(45).build(),
+				new PlayerConfiguration.Builder(BLUE).using(SCRIPTED)
+						.with(detectiveTickets()).at(94).build()));
+	}
+
+	private static void assertAgreesWithOptionals(ScotlandYardView view) {
+		for (Colour colour : Colour.values()) {
+			assertThat(view.locationOf(colour))
+					.isEqualTo(view.getPlayerLocation(colour).orElse(-1));
+			for (Ticket ticket : Ticket.values())
+				assertThat(view.ticketsOf(colour, ticket))
+						.isEqualTo(view.getPlayerTickets(colour, ticket).orElse(-1));
+		}
+	}
+
+	// The snapshot only implements the Optional accessors
+	private static void assertAgrees(ScotlandYardModel game) {
+		assertAgreesWithOptionals(game);
+		ScotlandYardView snapshot = ImmutableScotlandYardView.snapshot(game);
+		assertAgreesWithOptionals(snapshot);
+		for (Colour colour : Colour.values()) {
+			assertThat(snapshot.locationOf(colour)).isEqualTo(game.locationOf(colour));
+			for (Ticket ticket : Ticket.values())
+				assertThat(snapshot.ticketsOf(colour, ticket))
+						.isEqualTo(game.ticketsOf(colour, ticket));
+		}
+	}
+
+	@Test
+	public void testAbsentColoursAreMinusOne() {
+		ScotlandYardModel game = createModel();
+		for (Colour colour : new Colour[] { RED, GREEN, WHITE, YELLOW }) {
+			assertThat(game.locationOf(colour)).isEqualTo(-1);
+			assertThat(game.getPlayerLocation(colour)).isEmpty();
+			for (Ticket ticket : Ticket.values()) {
+				assertThat(game.ticketsOf(colour, ticket)).isEqualTo(-1);
+				assertThat(game.getPlayerTickets(colour, ticket)).isEmpty();
+			}
+		}
+		assertAgrees(game);
+	}
+
+	@Test
+	public void testMrXLocationIsMaskedUntilRevealed() {
+		ScotlandYardModel game = createModel();
+		assertThat(game.locationOf(BLACK)).isEqualTo(0);
+		assertThat(game.locationOf(BLUE)).isEqualTo(94);
+		assertAgrees(game);
+
+		game.startRotate();
+		assertThat(game.locationOf(BLACK)).isEqualTo(0);
+		assertThat(game.locationOf(BLUE)).isEqualTo(93);
+		// Tickets are not masked, MrX used a taxi and was given blue's
+		assertThat(game.ticketsOf(BLACK, TAXI)).isEqualTo(mrXTickets().get(TAXI));
+		assertThat(game.ticketsOf(BLUE, TAXI)).isEqualTo(detectiveTickets().get(TAXI) - 1);
+		assertAgrees(game);
+
+		game.startRotate();
+		assertThat(game.locationOf(BLACK)).isEqualTo(47);
+		assertThat(game.locationOf(BLUE)).isEqualTo(92);
+		assertThat(game.ticketsOf(BLUE, TAXI)).isEqualTo(detectiveTickets().get(TAXI) - 2);
+		assertAgrees(game);
+	}
+
+	@Test
+	public void testTicketsOfNullTicketShouldThrow() {
+		ScotlandYardModel game = createModel();
+		assertThatThrownBy(() -> game.ticketsOf(BLUE, null))
+				.isInstanceOf(NullPointerException.class);
+		assertThatThrownBy(() -> game.ticketsOf(RED, null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+}
@@ -0,0 +1,116 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.bris.cs.gamekit.metrics.Histogram;
+import uk.ac.bris.cs.gamekit.metrics.MetricsRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests {@link ScotlandYardModel#setMetrics(MetricsRegistry)}
+ */
+public class ModelMetricsTest extends ParameterisedModelTestBase {
+
+	private static final String SPECTATOR = "model.spectator." + Counting.class.getName();
+
+	private final AtomicInteger offered = new AtomicInteger();
+
+	// Counts the times it was asked for a move and plays the first one
+	private final Player first = (view, location, moves, callback) -> {
+		offered.incrementAndGet();
+		callback.accept(moves.iterator().next());
+	};
+
+	private static class Counting implements Spectator {
+		final AtomicInteger calls = new AtomicInteger();
+
+		@Override public void onMoveMade(ScotlandYardView view, Move move) {
+			calls.incrementAndGet();
+		}
+
+		@Override public void onRoundStarted(ScotlandYardView view, int round) {
+			calls.incrementAndGet();
+		}
+
+		@Override public void onRotationComplete(ScotlandYardView view) {
+			calls.incrementAndGet();
+		}
+	}
+
+	private ScotlandYardModel createModel() {
+		return asModel(createGame(ofRounds(6, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(first)
+						.with(mrXTickets()).at(104).build(),
+				new PlayerConfiguration.Builder(RED).using(first)
+						.with(detectiveTickets()).at(117).build()));
+	}
+
+	private static long count(MetricsRegistry metrics, String name) {
+		Histogram.Snapshot snapshot = metrics.snapshot().get(name);
+		return snapshot == null ? 0 : snapshot.count();
+	}
+
+	@Test
+	public void testEachMoveIsTimedOnce() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		ScotlandYardModel game = createModel();
+		game.setMetrics(metrics);
+		Counting spectator = new Counting();
+		game.registerSpectator(spectator);
+		game.startRotate();
+		game.startRotate();
+		assertThat(offered.get()).isEqualTo(4);
+		assertThat(count(metrics, "model.validMoves")).isEqualTo(4);
+		assertThat(count(metrics, "model.accept")).isEqualTo(4);
+		assertThat(count(metrics, SPECTATOR)).isEqualTo(spectator.calls.get());
+	}
+
+	@Test
+	public void testSpectatorsRegisteredEarlierMoveToNewRegistry() {
+		MetricsRegistry before = new MetricsRegistry();
+		MetricsRegistry after = new MetricsRegistry();
+		ScotlandYardModel game = createModel();
+		game.setMetrics(before);
+		Counting spectator = new Counting();
+		game.registerSpectator(spectator);
+		game.setMetrics(after);
+		game.startRotate();
+		assertThat(count(before, SPECTATOR)).isZero();
+		assertThat(count(after, SPECTATOR)).isEqualTo(spectator.calls.get());
+	}
+
+	@Test
+	public void testNullMetricsRecordsNothing() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		ScotlandYardModel game = createModel();
+		game.setMetrics(metrics);
+		game.registerSpectator(new Counting());
+		game.setMetrics(null);
+		game.startRotate();
+		assertThat(offered.get()).isEqualTo(2);
+		assertThat(count(metrics, "model.validMoves")).isZero();
+		assertThat(count(metrics, "model.accept")).isZero();
+		assertThat(count(metrics, SPECTATOR)).isZero();
+	}
+
+	@Test
+	public void testNothingIsRecordedByDefault() {
+		long before = count(MetricsRegistry.global(), SPECTATOR);
+		ScotlandYardModel game = createModel();
+		Counting spectator = new Counting();
+		game.registerSpectator(spectator);
+		game.startRotate();
+		assertThat(spectator.calls.get()).isPositive();
+		assertThat(count(MetricsRegistry.global(), SPECTATOR)).isEqualTo(before);
+	}
+
+}
@@ -0,0 +1,78 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.noTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.GREEN;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests {@link ScotlandYardModel#hasAnyLegalMove(Colour)} and
+ * {@link ScotlandYardModel#countLegalMoves(Colour, boolean)}
+ */
+public class ModelMoveCountTest extends ParameterisedModelTestBase {
+
+	private final Set<Move> given = new HashSet<>();
+
+	// Remembers the moves it was given and picks none of them
+	private final Player recording = (view, location, moves, callback) -> given.addAll(moves);
+
+	private ScotlandYardModel createModel(PlayerConfiguration blue) {
+		return asModel(createGame(ofRounds(6, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(recording)
+						.with(mrXTickets()).at(104).build(),
+				new PlayerConfiguration.Builder(RED).using(recording)
+						.with(detectiveTickets()).at(117).build(),
+				blue));
+	}
+
+	private static long count(Set<Move> moves, Class<? extends Move> type) {
+		return moves.stream().filter(type::isInstance).count();
+	}
+
+	@Test
+	public void testCountMatchesMovesGivenToMrX() {
+		ScotlandYardModel game = createModel(new PlayerConfiguration.Builder(BLUE)
+				.using(recording).with(detectiveTickets()).at(116).build());
+		game.startRotate();
+		assertThat(game.countLegalMoves(BLACK, true)).isEqualTo(given.size());
+		assertThat(game.countLegalMoves(BLACK, false))
+				.isEqualTo((int) count(given, TicketMove.class));
+		assertThat(game.hasAnyLegalMove(BLACK)).isTrue();
+	}
+
+	@Test
+	public void testCountDoesNotIncludeDoublesForDetectives() {
+		ScotlandYardModel game = createModel(new PlayerConfiguration.Builder(BLUE)
+				.using(recording).with(detectiveTickets()).at(116).build());
+		assertThat(game.countLegalMoves(RED, true))
+				.isEqualTo(game.countLegalMoves(RED, false))
+				.isPositive();
+	}
+
+	@Test
+	public void testPlayerWithoutTicketsHasNoLegalMove() {
+		ScotlandYardModel game = createModel(new PlayerConfiguration.Builder(BLUE)
+				.using(recording).with(noTickets()).at(116).build());
+		assertThat(game.hasAnyLegalMove(BLUE)).isFalse();
+		assertThat(game.countLegalMoves(BLUE, true)).isZero();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCountForPlayerNotInGameThrows() {
+		createModel(new PlayerConfiguration.Builder(BLUE)
+				.using(recording).with(detectiveTickets()).at(116).build())
+				.countLegalMoves(GREEN, false);
+	}
+
+}
@@ -0,0 +1,151 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import uk.ac.bris.cs.gamekit.graph.Edge;
+import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.gamekit.graph.ImmutableGraph;
+import uk.ac.bris.cs.gamekit.graph.Node;
+import uk.ac.bris.cs.scotlandyard.auxiliary.TestGames;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.DOUBLE;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.SECRET;
+
+/**
+ * Tests {@link DestinationTable} and move generation against a generator
+ * that walks every edge, as the model did before moves were generated per
+ * destination
+ */
+public class ModelMoveGenerationTest extends ParameterisedModelTestBase {
+
+	private static final int PLAYOUTS = 300;
+
+	@Test
+	public void testDestinationTableMatchesEdges() {
+		ImmutableGraph<Integer, Transport> graph = ImmutableGraph.copyOf(defaultGraph());
+		DestinationTable table = DestinationTable.of(graph);
+		for (Node<Integer> node : graph.getNodes()) {
+			Map<Integer, Set<Ticket>> tickets = new LinkedHashMap<>();
+			Map<Integer, Boolean> secret = new LinkedHashMap<>();
+			for (Edge<Integer, Transport> edge : graph.getEdgesFrom(node)) {
+				int destination = edge.destination().value();
+				tickets.computeIfAbsent(destination, d -> EnumSet.noneOf(Ticket.class))
+						.add(Ticket.fromTransport(edge.data()));
+				secret.merge(destination, edge.data() != Transport.FERRY, Boolean::logicalOr);
+			}
+
+			int location = node.value();
+			assertThat(table.end(location) - table.start(location)).isEqualTo(tickets.size());
+			for (int k = table.start(location); k < table.end(location); k++) {
+				int destination = table.destination(k);
+				assertThat(tickets).containsKey(destination);
+				for (Ticket ticket : Ticket.values())
+					assertThat(table.hasTransport(k, ticket))
+							.isEqualTo(tickets.get(destination).contains(ticket));
+				assertThat(table.allowsSecret(k)).isEqualTo(secret.get(destination));
+			}
+		}
+	}
+
+	@Test
+	public void testSeededPlayoutsMatchEdgeByEdgeGenerator() {
+		for (int seed = 0; seed < PLAYOUTS; seed++)
+			playOut(new Random(seed));
+	}
+
+	// Plays a game with six players picking random moves, checking every set
+	// of moves given against the edge by edge generator
+	private void playOut(Random random) {
+		Graph<Integer, Transport> graph = defaultGraph();
+		Player player = (view, location, moves, callback) -> {
+			assertThat(moves).isEqualTo(edgeByEdge(graph, view, view.getCurrentPlayer(), location));
+			List<Move> ordered = new ArrayList<>(moves);
+			ordered.sort(MoveOrder.CANONICAL);
+			callback.accept(ordered.get(random.nextInt(ordered.size())));
+		};
+
+		List<Integer> mrXLocations = new ArrayList<>(TestGames.MRX_LOCATIONS);
+		List<Integer> detectiveLocations = new ArrayList<>(TestGames.DETECTIVE_LOCATIONS);
+		Collections.shuffle(mrXLocations, random);
+		Collections.shuffle(detectiveLocations, random);
+		List<PlayerConfiguration> detectives = new ArrayList<>();
+		for (Colour colour : Colour.values()) {
+			if (colour.isDetective()) detectives.add(new PlayerConfiguration.Builder(colour)
+					.using(player).with(detectiveTickets())
+					.at(detectiveLocations.get(detectives.size())).build());
+		}
+		ScotlandYardGame game = createGame(ofRounds(23, DEFAULT_REVEAL), graph,
+				new PlayerConfiguration.Builder(BLACK).using(player)
+						.with(mrXTickets()).at(mrXLocations.get(0)).build(),
+				detectives.get(0),
+				detectives.subList(1, detectives.size()).toArray(new PlayerConfiguration[0]));
+		while (!game.isGameOver())
+			game.startRotate();
+	}
+
+	// The valid moves of the given player, found by visiting every edge from
+	// its location and letting the set drop the duplicates of parallel edges
+	private static Set<Move> edgeByEdge(Graph<Integer, Transport> graph, ScotlandYardView view,
+			Colour colour, int location) {
+		Set<Move> moves = new HashSet<>();
+		boolean doubles = colour.isMrX() && tickets(view, colour, DOUBLE) > 0
+				&& view.getCurrentRound() < view.getRounds().size() - 1;
+		for (Edge<Integer, Transport> edge : graph.getEdgesFrom(graph.getNode(location))) {
+			int destination = edge.destination().value();
+			if (occupied(view, destination)) continue;
+			Ticket ticket = Ticket.fromTransport(edge.data());
+			if (tickets(view, colour, ticket) > 0) {
+				moves.add(new TicketMove(colour, ticket, destination));
+				if (doubles) addDoubleMoves(moves, graph, view, colour, destination, ticket);
+			}
+			if (tickets(view, colour, SECRET) > 0 && edge.data() != Transport.FERRY) {
+				moves.add(new TicketMove(colour, SECRET, destination));
+				if (doubles) addDoubleMoves(moves, graph, view, colour, destination, SECRET);
+			}
+		}
+		if (moves.isEmpty()) moves.add(PassMove.of(colour));
+		return moves;
+	}
+
+	private static void addDoubleMoves(Set<Move> moves, Graph<Integer, Transport> graph,
+			ScotlandYardView view, Colour colour, int location, Ticket first) {
+		for (Edge<Integer, Transport> edge : graph.getEdgesFrom(graph.getNode(location))) {
+			int destination = edge.destination().value();
+			if (occupied(view, destination)) continue;
+			Ticket ticket = Ticket.fromTransport(edge.data());
+			if (tickets(view, colour, ticket) > (ticket == first ? 1 : 0))
+				moves.add(new DoubleMove(colour, first, location, ticket, destination));
+			if (tickets(view, colour, SECRET) > 0 && edge.data() != Transport.FERRY)
+				moves.add(new DoubleMove(colour, first, location, SECRET, destination));
+		}
+	}
+
+	private static int tickets(ScotlandYardView view, Colour colour, Ticket ticket) {
+		return view.getPlayerTickets(colour, ticket).orElse(0);
+	}
+
+	private static boolean occupied(ScotlandYardView view, int location) {
+		for (Colour colour : view.getPlayers()) {
+			if (colour.isDetective() && view.getPlayerLocation(colour).orElse(-1) == location)
+				return true;
+		}
+		return false;
+	}
+
+}
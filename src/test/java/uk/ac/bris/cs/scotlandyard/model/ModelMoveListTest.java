@@ -0,0 +1,172 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.firstMovePlayer;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.noTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests {@link MoveList} and {@link ScotlandYardModel#setIndexedMoves(boolean)}
+ */
+public class ModelMoveListTest extends ParameterisedModelTestBase {
+
+	// The moves given to mrX in the first round
+	private Set<Move> firstMoves(boolean indexed) {
+		List<Set<Move>> given = new ArrayList<>();
+		Player player = (view, location, moves, callback) -> given.add(moves);
+		ScotlandYardModel game = asModel(createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(player)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(player)
+						.with(detectiveTickets()).at(26).build()));
+		game.setIndexedMoves(indexed);
+		game.startRotate();
+		assertThat(given).hasSize(1);
+		return given.get(0);
+	}
+
+	@Test
+	public void testMovesAreAHashSetByDefault() {
+		assertThat(firstMoves(false)).isInstanceOf(HashSet.class);
+	}
+
+	@Test
+	public void testIndexedMovesAreTheSameMoves() {
+		Set<Move> indexed = firstMoves(true);
+		assertThat(indexed).isInstanceOf(MoveList.class);
+		assertThat(indexed).isEqualTo(firstMoves(false));
+		assertThat(new HashSet<>(indexed)).hasSize(indexed.size());
+	}
+
+	@Test
+	public void testIndexedMovesAreInCanonicalOrder() {
+		MoveList moves = (MoveList) firstMoves(true);
+		List<Move> sorted = new ArrayList<>(moves);
+		sorted.sort(MoveOrder.CANONICAL);
+		assertThat(moves.asList()).isEqualTo(sorted);
+		for (int i = 1; i < moves.size(); i++)
+			assertThat(moves.key(i)).isGreaterThan(moves.key(i - 1));
+	}
+
+	@Test
+	public void testIndexOfFindsEveryMove() {
+		MoveList moves = (MoveList) firstMoves(true);
+		assertThat(moves.colour()).isEqualTo(BLACK);
+		for (int i = 0; i < moves.size(); i++) {
+			assertThat(moves.indexOf(moves.get(i))).isEqualTo(i);
+			assertThat(moves.key(i)).isEqualTo(MoveOrder.key(moves.get(i)));
+		}
+		assertThat(moves.indexOf(new TicketMove(RED, Ticket.TAXI, 22))).isEqualTo(-1);
+		assertThat(moves.contains(new PassMove(BLACK))).isFalse();
+	}
+
+	@Test
+	public void testOfSortsAndRemovesDuplicates() {
+		MoveList moves = MoveList.of(Arrays.asList(
+				new PassMove(RED),
+				new TicketMove(RED, Ticket.TAXI, 9),
+				new TicketMove(RED, Ticket.BUS, 1),
+				new TicketMove(RED, Ticket.TAXI, 9)));
+		assertThat(moves.asList()).containsExactly(
+				new TicketMove(RED, Ticket.TAXI, 9),
+				new TicketMove(RED, Ticket.BUS, 1),
+				new PassMove(RED));
+	}
+
+	@Test
+	public void testOfRejectsEmptyOrMixedMoves() {
+		assertThatThrownBy(() -> MoveList.of(new ArrayList<>()))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MoveList.of(Arrays.asList(
+				new TicketMove(RED, Ticket.TAXI, 9),
+				new TicketMove(BLACK, Ticket.TAXI, 9))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testKeysDecodeToTheSameMoves() {
+		for (Move move : firstMoves(true))
+			assertThat(MoveOrder.fromKey(BLACK, MoveOrder.key(move))).isEqualTo(move);
+		assertThat(MoveOrder.fromKey(RED, MoveOrder.key(PassMove.of(RED))))
+				.isSameAs(PassMove.of(RED));
+	}
+
+	@Test
+	public void testKeyRejectsDestinationsOutOfRange() {
+		assertThat(MoveOrder.key(new TicketMove(RED, Ticket.TAXI, 0xFFFF))).isNotEqualTo(MoveOrder.PASS);
+		assertThatThrownBy(() -> MoveOrder.key(new TicketMove(RED, Ticket.TAXI, 0x10000)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MoveOrder.key(new TicketMove(RED, Ticket.TAXI, -1)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> MoveOrder.key(
+				new DoubleMove(BLACK, Ticket.TAXI, 9, Ticket.BUS, 0x10000)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// A move of a kind the model never generates
+	private static final class ForeignMove extends Move {
+		private static final long serialVersionUID = 1L;
+
+		ForeignMove(Colour colour) {
+			super(colour);
+		}
+
+		@Override
+		public void visit(MoveVisitor visitor) {}
+	}
+
+	@Test
+	public void testOnlyEqualMovesAreContained() {
+		MoveList moves = MoveList.of(Arrays.asList(
+				new TicketMove(RED, Ticket.TAXI, 9), new PassMove(RED)));
+		assertThat(moves.contains(new PassMove(RED))).isTrue();
+		assertThat(moves.contains(new ForeignMove(RED))).isFalse();
+		assertThat(moves.indexOf(new PassMove(RED) {
+			private static final long serialVersionUID = 1L;
+		})).isEqualTo(-1);
+		assertThat(moves.contains(new TicketMove(RED, Ticket.TAXI, 9) {
+			private static final long serialVersionUID = 1L;
+		})).isFalse();
+		assertThatThrownBy(() -> MoveList.of(Arrays.asList(new ForeignMove(RED))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testOutOfRangeDestinationsAreNotContained() {
+		MoveList moves = MoveList.of(Arrays.asList(new TicketMove(RED, Ticket.TAXI, 9)));
+		assertThat(moves.indexOf(new TicketMove(RED, Ticket.TAXI, 0x10000))).isEqualTo(-1);
+		assertThat(moves.contains(new TicketMove(RED, Ticket.TAXI, -1))).isFalse();
+		assertThat(moves.contains(
+				new DoubleMove(RED, Ticket.TAXI, 9, Ticket.BUS, 0x10000))).isFalse();
+	}
+
+	@Test
+	public void testForeignMoveIsRejectedWhenOnlyPassIsValid() {
+		ScotlandYardGame game = createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using((view, location, moves, callback) ->
+						callback.accept(new TicketMove(BLACK, Ticket.TAXI, 22)))
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using((view, location, moves, callback) ->
+						callback.accept(new ForeignMove(RED)))
+						.with(noTickets()).at(26).build(),
+				new PlayerConfiguration.Builder(BLUE).using(firstMovePlayer())
+						.with(detectiveTickets()).at(155).build());
+		assertThatThrownBy(game::startRotate).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,164 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.BUS;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.SECRET;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.TAXI;
+
+/**
+ * Tests equality, hashing and interning of {@link TicketMove},
+ * {@link DoubleMove} and {@link PassMove}
+ */
+public class ModelMoveTest {
+
+	// Every kind of move, none equal to another
+	private static List<Move> distinctMoves() {
+		List<Move> moves = new ArrayList<>();
+		for (Colour colour : Colour.values()) {
+			moves.add(new PassMove(colour));
+			for (Ticket ticket : Ticket.values()) {
+				moves.add(new TicketMove(colour, ticket, 1));
+				moves.add(new TicketMove(colour, ticket, 199));
+			}
+			moves.add(new DoubleMove(colour, TAXI, 1, BUS, 199));
+			moves.add(new DoubleMove(colour, BUS, 199, TAXI, 1));
+		}
+		moves.add(new PassMove(null));
+		moves.add(new TicketMove(null, TAXI, 1));
+		moves.add(new TicketMove(RED, null, 1));
+		return moves;
+	}
+
+	// The same moves, created separately
+	private static List<Move> copies(List<Move> moves) {
+		List<Move> copies = new ArrayList<>();
+		for (Move move : moves) {
+			if (move instanceof PassMove) copies.add(new PassMove(move.colour()));
+			else if (move instanceof TicketMove) copies.add(new TicketMove(move.colour(),
+					((TicketMove) move).ticket(), ((TicketMove) move).destination()));
+			else {
+				DoubleMove doubleMove = (DoubleMove) move;
+				copies.add(new DoubleMove(move.colour(),
+						new TicketMove(move.colour(), doubleMove.firstMove().ticket(),
+								doubleMove.firstMove().destination()),
+						new TicketMove(move.colour(), doubleMove.secondMove().ticket(),
+								doubleMove.secondMove().destination())));
+			}
+		}
+		return copies;
+	}
+
+	@Test
+	public void testEqualMovesHaveEqualHashes() {
+		List<Move> moves = distinctMoves();
+		List<Move> copies = copies(moves);
+		for (int i = 0; i < moves.size(); i++) {
+			assertThat(copies.get(i).equals(moves.get(i))).isTrue();
+			assertThat(copies.get(i).hashCode()).isEqualTo(moves.get(i).hashCode());
+		}
+	}
+
+	@Test
+	public void testMovesOfDifferentKindsAreNotEqual() {
+		List<Move> moves = distinctMoves();
+		for (int i = 0; i < moves.size(); i++)
+			for (int j = 0; j < moves.size(); j++)
+				if (i != j) assertThat(moves.get(i).equals(moves.get(j))).isFalse();
+	}
+
+	@Test
+	public void testMissingFieldsAreHashed() {
+		assertThat(new PassMove(null).hashCode()).isEqualTo(new PassMove(null).hashCode());
+		assertThat(new TicketMove(BLACK, null, 5).hashCode())
+				.isNotEqualTo(new TicketMove(BLACK, SECRET, 5).hashCode());
+		assertThat(new DoubleMove(BLACK, null, null).equals(new DoubleMove(BLACK, null, null)))
+				.isTrue();
+		assertThat(new DoubleMove(BLACK, null, null).hashCode())
+				.isEqualTo(new DoubleMove(BLACK, null, null).hashCode());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T roundTrip(T value) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (T) in.readObject();
+		}
+	}
+
+	@Test
+	public void testOfReturnsTheSameInstance() {
+		for (Colour colour : Colour.values()) {
+			assertThat(PassMove.of(colour)).isSameAs(PassMove.of(colour));
+			assertThat(PassMove.of(colour).equals(new PassMove(colour))).isTrue();
+			for (Ticket ticket : Ticket.values()) {
+				for (int destination : new int[] { 0, 1, 199, 511 }) {
+					TicketMove move = TicketMove.of(colour, ticket, destination);
+					assertThat(TicketMove.of(colour, ticket, destination)).isSameAs(move);
+					assertThat(move.equals(new TicketMove(colour, ticket, destination))).isTrue();
+					assertThat(move.colour()).isEqualTo(colour);
+					assertThat(move.ticket()).isEqualTo(ticket);
+					assertThat(move.destination()).isEqualTo(destination);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testOfOutsideTheTableCreatesEqualMoves() {
+		for (int destination : new int[] { -1, 512, Integer.MAX_VALUE }) {
+			TicketMove move = TicketMove.of(RED, TAXI, destination);
+			assertThat(TicketMove.of(RED, TAXI, destination)).isNotSameAs(move);
+			assertThat(TicketMove.of(RED, TAXI, destination).equals(move)).isTrue();
+			assertThat(move.destination()).isEqualTo(destination);
+		}
+		assertThat(TicketMove.of(null, TAXI, 1)).isNotSameAs(TicketMove.of(null, TAXI, 1));
+		assertThat(TicketMove.of(RED, null, 1)).isNotSameAs(TicketMove.of(RED, null, 1));
+		assertThat(TicketMove.of(RED, null, 1).equals(new TicketMove(RED, null, 1))).isTrue();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testPassMoveOfNullColourShouldThrow() {
+		PassMove.of(null);
+	}
+
+	@Test
+	public void testDeserialisedMovesAreInterned() throws Exception {
+		assertThat(roundTrip(new TicketMove(RED, BUS, 46))).isSameAs(TicketMove.of(RED, BUS, 46));
+		assertThat(roundTrip(TicketMove.of(BLACK, SECRET, 199)))
+				.isSameAs(TicketMove.of(BLACK, SECRET, 199));
+		assertThat(roundTrip(new PassMove(RED))).isSameAs(PassMove.of(RED));
+
+		DoubleMove doubleMove = roundTrip(new DoubleMove(BLACK, TAXI, 1, BUS, 46));
+		assertThat(doubleMove.firstMove()).isSameAs(TicketMove.of(BLACK, TAXI, 1));
+		assertThat(doubleMove.secondMove()).isSameAs(TicketMove.of(BLACK, BUS, 46));
+	}
+
+	@Test
+	public void testDeserialisedMovesOutsideTheTableAreEqual() throws Exception {
+		TicketMove outside = new TicketMove(RED, TAXI, 512);
+		TicketMove copy = roundTrip(outside);
+		assertThat(copy).isNotSameAs(outside);
+		assertThat(copy.equals(outside)).isTrue();
+
+		PassMove noColour = roundTrip(new PassMove(null));
+		assertThat(noColour.colour()).isNull();
+		assertThat(noColour.equals(new PassMove(null))).isTrue();
+	}
+
+}
@@ -0,0 +1,127 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests {@link MoveOrder} and replaying games with {@link GameLog}
+ */
+public class ModelReplayTest extends ParameterisedModelTestBase {
+
+	private ScotlandYardGame createThreePlayerGame(Map<Colour, Player> players) {
+		return createGame(ofRounds(23, DEFAULT_REVEAL),
+				new PlayerConfiguration.Builder(BLACK).using(players.get(BLACK))
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(players.get(RED))
+						.with(detectiveTickets()).at(26).build(),
+				new PlayerConfiguration.Builder(BLUE).using(players.get(BLUE))
+						.with(detectiveTickets()).at(50).build());
+	}
+
+	private static void playOut(ScotlandYardGame game) {
+		while (!game.isGameOver()) game.startRotate();
+	}
+
+	// Plays a game where every player picks at random from its seeded source
+	private GameLog playRandom(long seed) {
+		GameLog log = new GameLog(seed);
+		Map<Colour, Player> players = new EnumMap<>(Colour.class);
+		for (Colour colour : new Colour[]{BLACK, RED, BLUE}) {
+			Random random = StandardGame.generatePlayerRandom(seed, colour);
+			players.put(colour, log.record((view, location, moves, callback) -> callback
+					.accept(new ArrayList<>(moves).get(random.nextInt(moves.size())))));
+		}
+		ScotlandYardGame game = createThreePlayerGame(players);
+		game.registerSpectator(log);
+		playOut(game);
+		return log;
+	}
+
+	private GameLog replay(GameLog log) {
+		GameLog replayed = new GameLog(log.seed());
+		Player player = replayed.record(log.replay());
+		Map<Colour, Player> players = new EnumMap<>(Colour.class);
+		for (Colour colour : new Colour[]{BLACK, RED, BLUE})
+			players.put(colour, player);
+		ScotlandYardGame game = createThreePlayerGame(players);
+		game.registerSpectator(replayed);
+		playOut(game);
+		return replayed;
+	}
+
+	@Test
+	public void testKeysDecodeToTheSameMove() {
+		List<Set<Move>> given = new ArrayList<>();
+		Map<Colour, Player> players = new EnumMap<>(Colour.class);
+		for (Colour colour : new Colour[]{BLACK, RED, BLUE})
+			players.put(colour, (view, location, moves, callback) -> given.add(moves));
+		createThreePlayerGame(players).startRotate();
+		assertThat(given).hasSize(1);
+		assertThat(given.get(0).stream().anyMatch(DoubleMove.class::isInstance)).isTrue();
+		for (Move move : given.get(0))
+			assertThat(MoveOrder.fromKey(BLACK, MoveOrder.key(move))).isEqualTo(move);
+		assertThat(MoveOrder.fromKey(RED, MoveOrder.key(PassMove.of(RED))))
+				.isEqualTo(PassMove.of(RED));
+	}
+
+	@Test
+	public void testRecordedPlayersAreGivenMovesInCanonicalOrder() {
+		GameLog log = new GameLog(0);
+		List<Move> given = new ArrayList<>();
+		Player player = log.record((view, location, moves, callback) -> given.addAll(moves));
+		Map<Colour, Player> players = new EnumMap<>(Colour.class);
+		for (Colour colour : new Colour[]{BLACK, RED, BLUE})
+			players.put(colour, player);
+		createThreePlayerGame(players).startRotate();
+		List<Move> sorted = new ArrayList<>(given);
+		sorted.sort(MoveOrder.CANONICAL);
+		assertThat(given).isNotEmpty().isEqualTo(sorted);
+		// A ticket move comes before the double moves starting with it
+		assertThat(given.indexOf(new TicketMove(BLACK, Ticket.TAXI, 22)))
+				.isLessThan(given.indexOf(new DoubleMove(BLACK, Ticket.TAXI, 22, Ticket.TAXI, 23)));
+	}
+
+	@Test
+	public void testSameSeedPlaysTheSameGame() {
+		assertThat(Arrays.equals(playRandom(42).toBytes(), playRandom(42).toBytes())).isTrue();
+	}
+
+	@Test
+	public void testDifferentSeedsDiverge() {
+		assertThat(playRandom(1).divergence(playRandom(2))).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	public void testReplayReproducesTheGame() {
+		GameLog log = playRandom(7);
+		GameLog replayed = replay(log);
+		assertThat(replayed.divergence(log)).isEqualTo(-1);
+		assertThat(Arrays.equals(replayed.toBytes(), log.toBytes())).isTrue();
+	}
+
+	@Test
+	public void testLogRoundTripsThroughBytes() {
+		GameLog log = playRandom(3);
+		GameLog decoded = GameLog.fromBytes(log.toBytes());
+		assertThat(decoded).isEqualTo(log);
+		assertThat(decoded.moves()).isEqualTo(log.moves());
+		assertThat(replay(decoded)).isEqualTo(log);
+	}
+
+}
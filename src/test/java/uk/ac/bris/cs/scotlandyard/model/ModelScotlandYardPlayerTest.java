@@ -0,0 +1,117 @@
+package uk.ac.bris.cs.scotlandyard.model;
+
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.dummyPlayer;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.BUS;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.DOUBLE;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.SECRET;
+import static uk.ac.bris.cs.scotlandyard.model.Ticket.TAXI;
+
+/**
+ * Tests the read-only {@link ScotlandYardPlayer#tickets()} view against
+ * {@link ScotlandYardPlayer#ticketCount(Ticket)}
+ */
+public class ModelScotlandYardPlayerTest {
+
+	private static ScotlandYardPlayer player() {
+		return new ScotlandYardPlayer(dummyPlayer(), RED, 26, detectiveTickets());
+	}
+
+	private static void assertAgrees(ScotlandYardPlayer player) {
+		Map<Ticket, Integer> tickets = player.tickets();
+		Map<Ticket, Integer> expected = new HashMap<>();
+		for (Ticket ticket : Ticket.values()) {
+			assertThat(tickets.get(ticket)).isEqualTo(player.ticketCount(ticket));
+			assertThat(tickets.containsKey(ticket)).isTrue();
+			expected.put(ticket, player.ticketCount(ticket));
+		}
+		assertThat(tickets).isEqualTo(expected);
+		assertThat(expected).isEqualTo(tickets);
+		assertThat(tickets.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(tickets.size()).isEqualTo(Ticket.values().length);
+	}
+
+	@Test
+	public void testViewAgreesWithTicketCount() {
+		ScotlandYardPlayer player = player();
+		assertAgrees(player);
+		assertThat(player.tickets()).isEqualTo(detectiveTickets());
+	}
+
+	@Test
+	public void testViewSeesLaterChanges() {
+		ScotlandYardPlayer player = player();
+		Map<Ticket, Integer> tickets = player.tickets();
+		player.removeTicket(TAXI);
+		player.addTicket(SECRET);
+		player.addTicket(SECRET);
+		assertThat(tickets.get(TAXI)).isEqualTo(detectiveTickets().get(TAXI) - 1);
+		assertThat(tickets.get(SECRET)).isEqualTo(2);
+		assertAgrees(player);
+	}
+
+	@Test
+	public void testMissingTicketsAreZero() {
+		Map<Ticket, Integer> some = new EnumMap<>(Ticket.class);
+		some.put(BUS, 3);
+		ScotlandYardPlayer player = new ScotlandYardPlayer(dummyPlayer(), RED, 26, some);
+		assertThat(player.tickets().get(BUS)).isEqualTo(3);
+		assertThat(player.tickets().get(DOUBLE)).isEqualTo(0);
+		assertAgrees(player);
+	}
+
+	@Test
+	public void testViewDoesNotContainOtherKeys() {
+		Map<Ticket, Integer> tickets = player().tickets();
+		assertThat(tickets.get("TAXI")).isNull();
+		assertThat(tickets.get(null)).isNull();
+		assertThat(tickets.containsKey("TAXI")).isFalse();
+		assertThat(tickets.containsKey(null)).isFalse();
+	}
+
+	@Test
+	public void testViewMutatorsShouldThrow() {
+		ScotlandYardPlayer player = player();
+		Map<Ticket, Integer> tickets = player.tickets();
+		assertThatThrownBy(() -> tickets.put(TAXI, 1))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> tickets.putAll(Map.of(TAXI, 1)))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> tickets.remove(TAXI))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(tickets::clear)
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> tickets.merge(TAXI, 1, Integer::sum))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> tickets.replaceAll((ticket, count) -> 0))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> tickets.keySet().remove(TAXI))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> tickets.values().clear())
+				.isInstanceOf(UnsupportedOperationException.class);
+		Entry<Ticket, Integer> first = tickets.entrySet().iterator().next();
+		assertThatThrownBy(() -> first.setValue(0))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> {
+			Iterator<Entry<Ticket, Integer>> iterator = tickets.entrySet().iterator();
+			iterator.next();
+			iterator.remove();
+		}).isInstanceOf(UnsupportedOperationException.class);
+
+		// Nothing was changed by the failed calls
+		assertThat(tickets).isEqualTo(detectiveTickets());
+		assertAgrees(player);
+	}
+
+}
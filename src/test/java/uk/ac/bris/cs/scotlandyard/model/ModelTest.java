@@ -9,12 +9,23 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 		ModelCreationTest.class,
+		ModelCheckpointTest.class,
+		ModelAsyncSpectatorTest.class,
+		ModelGameEventTest.class,
 		ModelGameOverTest.class,
+		ModelMoveCountTest.class,
+		ModelReplayTest.class,
+		ModelMoveListTest.class,
+		ModelMoveGenerationTest.class,
+		ModelMetricsTest.class,
 		ModelSixPlayerPlayOutTestComplex.class,
 		ModelSixPlayerPlayOutTestSimple.class,
 		ModelTwoPlayerPlayOutTestSimple.class,
 		ModelRoundTest.class,
 		ModelPlayerTest.class,
 		ModelValidMoveTest.class,
-		ModelSpectatorTest.class})
+		ModelSpectatorTest.class,
+		ModelMoveTest.class,
+		ModelScotlandYardPlayerTest.class,
+		ModelLocationOfTest.class})
 public class ModelTest {}
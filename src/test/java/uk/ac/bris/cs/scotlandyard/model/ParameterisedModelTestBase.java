@@ -1,20 +1,16 @@
 package uk.ac.bris.cs.scotlandyard.model;
 
-import org.junit.AfterClass;
-import org.junit.BeforeClass;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 
 import uk.ac.bris.cs.gamekit.graph.Graph;
+import uk.ac.bris.cs.scotlandyard.auxiliary.TestGames;
 
+import static org.junit.Assume.assumeTrue;
 import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
 import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.doNothingBlue;
 import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.doNothingGreen;
@@ -44,26 +40,25 @@ public abstract class ParameterisedModelTestBase implements ScotlandYardGameFact
 				.toArray(new ScotlandYardGameFactory[0]);
 	}
 
-	@BeforeClass
-	public static void setUp() {
-		try {
-			defaultGraph = ScotlandYardGraphReader.fromLines(Files.readAllLines(
-					Paths.get(ParameterisedModelTestBase.class.getResource("/game_graph.txt")
-							.toURI())));
-
-		} catch (IOException | URISyntaxException e) {
-			throw new RuntimeException(e);
-		}
-	}
-
-	private static Graph<Integer, Transport> defaultGraph;
 	/**
 	 * Returns the default graph used in the actual game
 	 *
 	 * @return the graph; never null
 	 */
 	static Graph<Integer, Transport> defaultGraph() {
-		return defaultGraph;
+		return TestGames.defaultGraph();
+	}
+
+	/**
+	 * Returns the game as a {@link ScotlandYardModel}, skipping the test for
+	 * models that are not one
+	 *
+	 * @param game the game
+	 * @return the same game; never null
+	 */
+	static ScotlandYardModel asModel(ScotlandYardGame game) {
+		assumeTrue(game instanceof ScotlandYardModel);
+		return (ScotlandYardModel) game;
 	}
 
 
@@ -84,7 +79,7 @@ public abstract class ParameterisedModelTestBase implements ScotlandYardGameFact
 	 */
 	ScotlandYardGame createGame(PlayerConfiguration mrX, PlayerConfiguration firstDetective,
 	                            PlayerConfiguration... restOfTheDetectives) {
-		return createGame(ofRounds(23, DEFAULT_REVEAL), defaultGraph, mrX,
+		return createGame(ofRounds(23, DEFAULT_REVEAL), defaultGraph(), mrX,
 				firstDetective,
 				restOfTheDetectives);
 	}
@@ -101,7 +96,7 @@ public abstract class ParameterisedModelTestBase implements ScotlandYardGameFact
 	ScotlandYardGame createGame(List<Boolean> rounds, PlayerConfiguration mrX,
 	                            PlayerConfiguration firstDetective,
 	                            PlayerConfiguration... restOfTheDetectives) {
-		return createGame(rounds, defaultGraph, mrX, firstDetective, restOfTheDetectives);
+		return createGame(rounds, defaultGraph(), mrX, firstDetective, restOfTheDetectives);
 	}
 
 	/**
@@ -0,0 +1,108 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.ModelFactories.ImperativeModelFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.firstMovePlayer;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests playing a game through {@link GameServerEndpoint} over loopback
+ */
+public class GameServerEndpointTest {
+
+	private ExecutorService executor;
+	private GameServer server;
+	private ServerSocket socket;
+	private Socket client;
+	private BufferedReader in;
+	private PrintWriter out;
+
+	@Before
+	public void initialise() throws IOException {
+		executor = Executors.newFixedThreadPool(2);
+		server = new GameServer(new ImperativeModelFactory(), executor);
+		socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		GameServerEndpoint endpoint = new GameServerEndpoint(server);
+		executor.execute(() -> {
+			try {
+				endpoint.serve(socket);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		client = new Socket(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+		client.setSoTimeout(10_000);
+		in = new BufferedReader(new InputStreamReader(client.getInputStream(), UTF_8));
+		out = new PrintWriter(new OutputStreamWriter(client.getOutputStream(), UTF_8), true);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		client.close();
+		socket.close();
+		executor.shutdownNow();
+	}
+
+	private String request(String line) throws IOException {
+		out.println(line);
+		return in.readLine();
+	}
+
+	@Test
+	public void testFullGameOverTheEndpoint() throws Exception {
+		ServerGame game = GameServerTest.newGame(server, 3, firstMovePlayer(),
+				GameServer.submitted());
+		int id = game.id();
+		int moves = 0;
+		String answer;
+		while ((answer = request("WAIT " + id + " RED")).startsWith("TURN")) {
+			String[] words = answer.split(" ");
+			assertThat(words[1]).isEqualTo(String.valueOf(id));
+			assertThat(words[2]).isEqualTo("RED");
+			assertThat(words.length).isGreaterThan(4);
+			assertThat(request("MOVE " + id + " RED " + (words.length - 5)))
+					.isEqualTo("OK " + id + " RED");
+			moves++;
+		}
+		assertThat(answer).startsWith("ERROR " + id);
+		assertThat(moves).isGreaterThan(0);
+		// The result can still be read after the game is over
+		String winners = game.result().get(10, TimeUnit.SECONDS).stream()
+				.map(Colour::toString).sorted().collect(joining(" "));
+		assertThat(request("RESULT " + id)).isEqualTo("OVER " + id + " " + winners);
+	}
+
+	@Test
+	public void testBadRequestsAreAnsweredWithErrors() throws Exception {
+		ServerGame game = GameServerTest.newGame(server, 3, firstMovePlayer(),
+				GameServer.submitted());
+		int id = game.id();
+		assertThat(request("MOVE " + id + " RED 0")).startsWith("ERROR " + id + " No turn");
+		assertThat(request("WAIT " + id)).startsWith("ERROR " + id);
+		assertThat(request("RESULT " + (id + 100))).startsWith("ERROR " + (id + 100) + " No game");
+		assertThat(request("BOGUS")).startsWith("ERROR - Unknown request");
+		assertThat(request("WAIT " + id + " RED")).startsWith("TURN " + id + " " + RED);
+		assertThat(request("MOVE " + id + " RED 100000")).startsWith("ERROR " + id);
+	}
+
+}
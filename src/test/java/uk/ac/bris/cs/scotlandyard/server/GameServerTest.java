@@ -0,0 +1,146 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import uk.ac.bris.cs.scotlandyard.model.Colour;
+import uk.ac.bris.cs.scotlandyard.model.ModelFactories.ImperativeModelFactory;
+import uk.ac.bris.cs.scotlandyard.model.PassMove;
+import uk.ac.bris.cs.scotlandyard.model.Player;
+import uk.ac.bris.cs.scotlandyard.model.PlayerConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.DEFAULT_REVEAL;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.defaultGraph;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.detectiveTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.firstMovePlayer;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.mrXTickets;
+import static uk.ac.bris.cs.scotlandyard.auxiliary.TestGames.ofRounds;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLACK;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.BLUE;
+import static uk.ac.bris.cs.scotlandyard.model.Colour.RED;
+
+/**
+ * Tests {@link GameServer} and {@link ServerGame}
+ */
+public class GameServerTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void initialise() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	static ServerGame newGame(GameServer server, int rounds, Player mrX, Player red) {
+		return server.newGame(ofRounds(rounds, DEFAULT_REVEAL), defaultGraph(),
+				new PlayerConfiguration.Builder(BLACK).using(mrX)
+						.with(mrXTickets()).at(35).build(),
+				new PlayerConfiguration.Builder(RED).using(red)
+						.with(detectiveTickets()).at(26).build(),
+				new PlayerConfiguration.Builder(BLUE).using(firstMovePlayer())
+						.with(detectiveTickets()).at(50).build());
+	}
+
+	private static Set<Colour> await(ServerGame game)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return game.result().get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testConcurrentGamesAllFinishWithTheSameResult() throws Exception {
+		GameServer server = new GameServer(new ImperativeModelFactory(), executor);
+		List<ServerGame> games = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			games.add(newGame(server, 6, firstMovePlayer(), firstMovePlayer()));
+		Set<Colour> winners = await(games.get(0));
+		for (ServerGame game : games)
+			assertThat(await(game)).isEqualTo(winners);
+		assertThat(server.games()).isEmpty();
+	}
+
+	@Test
+	public void testFinishedGamesAreKeptForTheRetention() throws Exception {
+		GameServer keeping = new GameServer(new ImperativeModelFactory(), executor);
+		ServerGame kept = newGame(keeping, 3, firstMovePlayer(), firstMovePlayer());
+		await(kept);
+		assertThat(keeping.game(kept.id())).contains(kept);
+		assertThat(keeping.games()).isEmpty();
+
+		GameServer dropping = new GameServer(new ImperativeModelFactory(), executor,
+				Duration.ZERO);
+		ServerGame dropped = newGame(dropping, 3, firstMovePlayer(), firstMovePlayer());
+		await(dropped);
+		assertThat(dropping.game(dropped.id())).isEmpty();
+	}
+
+	@Test
+	public void testSubmittedSeatPlaysThroughTurns() throws Exception {
+		GameServer server = new GameServer(new ImperativeModelFactory(), executor);
+		ServerGame game = newGame(server, 3, firstMovePlayer(), GameServer.submitted());
+		int turns = 0;
+		while (true) {
+			CompletableFuture<ServerGame.Turn> next = game.awaitTurn(RED);
+			ServerGame.Turn turn;
+			try {
+				turn = next.get(10, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+				break;
+			}
+			assertThat(turn.colour()).isEqualTo(RED);
+			assertThat(turn.game()).isSameAs(game);
+			turn.choose(0).get(10, TimeUnit.SECONDS);
+			// A turn can only be used once
+			assertThatThrownBy(() -> turn.choose(0).get(10, TimeUnit.SECONDS))
+					.hasCauseInstanceOf(IllegalStateException.class);
+			turns++;
+		}
+		assertThat(turns).isGreaterThan(0);
+		assertThat(await(game)).isNotEmpty();
+	}
+
+	@Test
+	public void testInvalidChoicesAreRejected() throws Exception {
+		GameServer server = new GameServer(new ImperativeModelFactory(), executor);
+		ServerGame game = newGame(server, 3, firstMovePlayer(), GameServer.submitted());
+		ServerGame.Turn turn = game.awaitTurn(RED).get(10, TimeUnit.SECONDS);
+		assertThatThrownBy(() -> turn.choose(turn.moves().size()).get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> turn.choose(PassMove.of(RED)).get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(IllegalArgumentException.class);
+		// The turn is still current after invalid choices
+		turn.choose(0).get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testPlayerThrowingAnErrorFailsTheGame() throws Exception {
+		GameServer server = new GameServer(new ImperativeModelFactory(), executor);
+		Player failing = (view, location, moves, callback) -> {
+			throw new StackOverflowError("player");
+		};
+		ServerGame game = newGame(server, 3, failing, firstMovePlayer());
+		assertThatThrownBy(() -> await(game)).hasCauseInstanceOf(StackOverflowError.class);
+		assertThatThrownBy(() -> game.awaitTurn(RED).get(10, TimeUnit.SECONDS))
+				.hasCauseInstanceOf(IllegalStateException.class);
+	}
+
+}
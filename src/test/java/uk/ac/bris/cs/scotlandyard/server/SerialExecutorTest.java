@@ -0,0 +1,126 @@
+package uk.ac.bris.cs.scotlandyard.server;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests ordering, fairness and failures of {@link SerialExecutor}
+ */
+public class SerialExecutorTest {
+
+	@Test
+	public void testTasksRunOneAtATimeInSubmissionOrder() throws InterruptedException {
+		ExecutorService shared = Executors.newFixedThreadPool(4);
+		try {
+			SerialExecutor serial = new SerialExecutor(shared);
+			int submitters = 4;
+			int tasks = 1000;
+			AtomicInteger running = new AtomicInteger();
+			List<Integer> ran = new ArrayList<>();
+			boolean[] overlapped = {false};
+			CountDownLatch start = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(submitters * tasks);
+			for (int s = 0; s < submitters; s++) {
+				int submitter = s;
+				shared.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					for (int i = 0; i < tasks; i++) {
+						int task = submitter * tasks + i;
+						serial.execute(() -> {
+							if (running.incrementAndGet() != 1) overlapped[0] = true;
+							// Unsynchronised on purpose, tasks must not overlap
+							ran.add(task);
+							running.decrementAndGet();
+							done.countDown();
+						});
+					}
+				});
+			}
+			start.countDown();
+			assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(overlapped[0]).isFalse();
+			assertThat(ran).hasSize(submitters * tasks);
+			// Every submitter's tasks run in the order it submitted them
+			int[] last = new int[submitters];
+			Arrays.fill(last, -1);
+			for (int task : ran) {
+				assertThat(task).isGreaterThan(last[task / tasks]);
+				last[task / tasks] = task;
+			}
+		} finally {
+			shared.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testBusyExecutorYieldsAfterABatch() {
+		List<Runnable> shared = new ArrayList<>();
+		SerialExecutor busy = new SerialExecutor(shared::add);
+		SerialExecutor quiet = new SerialExecutor(shared::add);
+		List<String> ran = new ArrayList<>();
+		for (int i = 0; i < SerialExecutor.BATCH * 3; i++)
+			busy.execute(() -> ran.add("busy"));
+		quiet.execute(() -> ran.add("quiet"));
+		for (int i = 0; i < shared.size(); i++)
+			shared.get(i).run();
+		assertThat(ran).hasSize(SerialExecutor.BATCH * 3 + 1);
+		assertThat(ran.indexOf("quiet")).isEqualTo(SerialExecutor.BATCH);
+	}
+
+	@Test
+	public void testThrowingTasksDoNotStopTheOthers() {
+		List<Runnable> shared = new ArrayList<>();
+		SerialExecutor serial = new SerialExecutor(shared::add);
+		List<Integer> ran = new ArrayList<>();
+		serial.execute(() -> ran.add(1));
+		serial.execute(() -> {
+			throw new IllegalStateException("task");
+		});
+		serial.execute(() -> {
+			throw new StackOverflowError("task");
+		});
+		serial.execute(() -> ran.add(2));
+		assertThat(shared).hasSize(1);
+		shared.remove(0).run();
+		// The drain finished normally, the next task schedules a new one
+		serial.execute(() -> ran.add(3));
+		assertThat(shared).hasSize(1);
+		shared.remove(0).run();
+		assertThat(ran).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void testRejectedTurnRunsOnTheCaller() {
+		boolean[] reject = {true};
+		List<Runnable> shared = new ArrayList<>();
+		SerialExecutor serial = new SerialExecutor(task -> {
+			if (reject[0]) throw new RejectedExecutionException();
+			shared.add(task);
+		});
+		List<String> ran = new ArrayList<>();
+		serial.execute(() -> ran.add(Thread.currentThread().getName()));
+		assertThat(ran).containsExactly(Thread.currentThread().getName());
+		// Nothing is left counted, the next task schedules a turn again
+		reject[0] = false;
+		serial.execute(() -> ran.add("later"));
+		assertThat(shared).hasSize(1);
+		shared.get(0).run();
+		assertThat(ran).hasSize(2);
+	}
+
+}